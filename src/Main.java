@@ -1,6 +1,7 @@
 import ui.LoginUI;
 import javax.swing.SwingUtilities;
 import basedatos.ConexionSQLite; // Importar
+import controladores.ArchivoController;
 
 /**
  * Clase principal que inicia la aplicación del sistema de gestión para la veterinaria "Días Vet".
@@ -12,6 +13,15 @@ public class Main {
     public static void main(String[] args) {
         // Primero, nos aseguramos de que la base de datos y las tablas existan.
         ConexionSQLite.inicializarBaseDatos();
+        // Limpieza de uploads que ya nadie usa, sin demorar el arranque
+        Thread limpieza = new Thread(() -> {
+            int borrados = new ArchivoController().recolectarHuerfanos(ArchivoController.GRACIA_HUERFANOS_MS);
+            if (borrados > 0) {
+                System.out.println("Archivos huérfanos eliminados: " + borrados);
+            }
+        }, "limpieza-uploads");
+        limpieza.setDaemon(true);
+        limpieza.start();
         // Se utiliza SwingUtilities.invokeLater para asegurar que la creación de la GUI
         // se realice en el hilo de despacho de eventos (EDT), práctica recomendada en Swing.
         SwingUtilities.invokeLater(() -> {
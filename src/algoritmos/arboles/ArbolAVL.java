@@ -0,0 +1,391 @@
+package algoritmos.arboles;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Árbol AVL: Árbol Binario de Búsqueda que se mantiene balanceado.
+ * Tras cada inserción o eliminación se rota lo necesario para que, en todo nodo,
+ * las alturas de sus dos subárboles difieran a lo sumo en 1. Así la altura es
+ * O(log n) aunque los datos lleguen ordenados (p. ej. clientes leídos con ORDER BY nombre),
+ * caso en el que {@link ArbolBinario} degenera en una lista.
+ *
+ * Tiene la misma API que ArbolBinario y agrega consultas por orden:
+ * piso/techo, rango, posición (rank) y elemento por posición (select).
+ *
+ * Casos de uso en el proyecto Días Vet:
+ * - Índice ordenado de clientes por nombre cargado desde SQLite
+ * - Consultas por rango (productos con precio entre dos valores, DNIs en un intervalo)
+ *
+ * @param <T> Tipo de dato que debe ser Comparable
+ */
+public class ArbolAVL<T extends Comparable<T>> extends ArbolBinario<T> {
+
+    /**
+     * Nodo con la altura y el tamaño de su subárbol, que se actualizan al subir por el camino modificado.
+     */
+    private class NodoAVL extends Nodo {
+        int altura;             // 0 para una hoja
+        int tamanoSubarbol = 1; // Nodos del subárbol, incluido este (para posición y select)
+
+        NodoAVL(T dato) {
+            super(dato);
+        }
+    }
+
+    // Indica si la última inserción/eliminación cambió el árbol (duplicado o dato inexistente)
+    private boolean modificado;
+
+    /**
+     * Constructor que inicializa un árbol vacío.
+     */
+    public ArbolAVL() {
+        super();
+    }
+
+    /**
+     * Inserta un elemento y rebalancea el camino hasta la raíz. Los duplicados se ignoran.
+     * Complejidad: O(log n)
+     * @param dato El elemento a insertar
+     */
+    @Override
+    public void insertar(T dato) {
+        modificado = false;
+        raiz = insertar(nodo(raiz), dato);
+        if (modificado) {
+            tamano++;
+            modificaciones++;
+        }
+    }
+
+    private NodoAVL insertar(NodoAVL nodo, T dato) {
+        if (nodo == null) {
+            modificado = true;
+            return new NodoAVL(dato);
+        }
+        int comparacion = dato.compareTo(nodo.dato);
+        if (comparacion < 0) {
+            nodo.izquierdo = insertar(nodo(nodo.izquierdo), dato);
+        } else if (comparacion > 0) {
+            nodo.derecho = insertar(nodo(nodo.derecho), dato);
+        } else {
+            return nodo; // Duplicado: nada cambia
+        }
+        return balancear(nodo);
+    }
+
+    /**
+     * Elimina un elemento y rebalancea el camino hasta la raíz.
+     * Complejidad: O(log n)
+     * @param dato El elemento a eliminar
+     * @return true si se eliminó exitosamente
+     */
+    @Override
+    public boolean eliminar(T dato) {
+        modificado = false;
+        raiz = eliminar(nodo(raiz), dato);
+        if (modificado) {
+            tamano--;
+            modificaciones++;
+        }
+        return modificado;
+    }
+
+    private NodoAVL eliminar(NodoAVL nodo, T dato) {
+        if (nodo == null) {
+            return null;
+        }
+        int comparacion = dato.compareTo(nodo.dato);
+        if (comparacion < 0) {
+            nodo.izquierdo = eliminar(nodo(nodo.izquierdo), dato);
+        } else if (comparacion > 0) {
+            nodo.derecho = eliminar(nodo(nodo.derecho), dato);
+        } else {
+            modificado = true;
+            if (nodo.izquierdo == null) {
+                return nodo(nodo.derecho);
+            }
+            if (nodo.derecho == null) {
+                return nodo(nodo.izquierdo);
+            }
+            // Dos hijos: se reemplaza por el sucesor inorden y se quita el sucesor de la derecha
+            NodoAVL sucesor = nodo(nodo.derecho);
+            while (sucesor.izquierdo != null) {
+                sucesor = nodo(sucesor.izquierdo);
+            }
+            nodo.dato = sucesor.dato;
+            nodo.derecho = eliminarMinimo(nodo(nodo.derecho));
+        }
+        return balancear(nodo);
+    }
+
+    private NodoAVL eliminarMinimo(NodoAVL nodo) {
+        if (nodo.izquierdo == null) {
+            return nodo(nodo.derecho);
+        }
+        nodo.izquierdo = eliminarMinimo(nodo(nodo.izquierdo));
+        return balancear(nodo);
+    }
+
+    /**
+     * Altura del árbol, guardada en la raíz.
+     * Complejidad: O(1)
+     * @return La altura del árbol (-1 si está vacío)
+     */
+    @Override
+    public int altura() {
+        return altura(nodo(raiz));
+    }
+
+    @Override
+    protected Nodo crearNodo(T dato) {
+        return new NodoAVL(dato);
+    }
+
+    // La carga masiva ya deja el árbol balanceado; solo faltan altura y tamaño de cada subárbol
+    @Override
+    protected void nodoConstruido(Nodo nodo) {
+        actualizar(nodo(nodo));
+    }
+
+    // =====================================================
+    // CONSULTAS POR ORDEN
+    // =====================================================
+
+    /**
+     * Mayor elemento menor o igual que el dado.
+     * Complejidad: O(log n)
+     * @param dato El elemento de referencia
+     * @return El piso, o null si todos los elementos son mayores
+     */
+    public T piso(T dato) {
+        T resultado = null;
+        Nodo actual = raiz;
+        while (actual != null) {
+            int comparacion = dato.compareTo(actual.dato);
+            if (comparacion == 0) {
+                return actual.dato;
+            }
+            if (comparacion < 0) {
+                actual = actual.izquierdo;
+            } else {
+                resultado = actual.dato; // Candidato; puede haber uno mayor a la derecha
+                actual = actual.derecho;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Menor elemento mayor o igual que el dado.
+     * Complejidad: O(log n)
+     * @param dato El elemento de referencia
+     * @return El techo, o null si todos los elementos son menores
+     */
+    public T techo(T dato) {
+        T resultado = null;
+        Nodo actual = raiz;
+        while (actual != null) {
+            int comparacion = dato.compareTo(actual.dato);
+            if (comparacion == 0) {
+                return actual.dato;
+            }
+            if (comparacion > 0) {
+                actual = actual.derecho;
+            } else {
+                resultado = actual.dato; // Candidato; puede haber uno menor a la izquierda
+                actual = actual.izquierdo;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Posición (rank) que ocupa o ocuparía un elemento: cuántos elementos son menores que él.
+     * Complejidad: O(log n)
+     * @param dato El elemento
+     * @return Número de elementos estrictamente menores
+     */
+    public int posicion(T dato) {
+        int menores = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            int comparacion = dato.compareTo(actual.dato);
+            if (comparacion <= 0) {
+                if (comparacion == 0) {
+                    return menores + tamano(nodo(actual.izquierdo));
+                }
+                actual = actual.izquierdo;
+            } else {
+                menores += tamano(nodo(actual.izquierdo)) + 1;
+                actual = actual.derecho;
+            }
+        }
+        return menores;
+    }
+
+    /**
+     * Elemento en una posición del orden ascendente (select).
+     * Complejidad: O(log n)
+     * @param posicion Posición entre 0 y getTamano() - 1
+     * @return El elemento
+     */
+    public T obtenerPorPosicion(int posicion) {
+        if (posicion < 0 || posicion >= tamano) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + " fuera de rango (tamaño " + tamano + ")");
+        }
+        NodoAVL actual = nodo(raiz);
+        while (true) {
+            int izquierda = tamano(nodo(actual.izquierdo));
+            if (posicion < izquierda) {
+                actual = nodo(actual.izquierdo);
+            } else if (posicion > izquierda) {
+                posicion -= izquierda + 1;
+                actual = nodo(actual.derecho);
+            } else {
+                return actual.dato;
+            }
+        }
+    }
+
+    /**
+     * Elementos entre dos valores (ambos incluidos), en orden ascendente.
+     * Solo visita los subárboles que pueden contener elementos del rango.
+     * Complejidad: O(log n + k), con k el número de resultados
+     * @param desde Límite inferior
+     * @param hasta Límite superior
+     * @return Los elementos del rango (lista vacía si desde > hasta)
+     */
+    public List<T> buscarEnRango(T desde, T hasta) {
+        List<T> resultado = new ArrayList<>();
+        if (desde.compareTo(hasta) > 0) {
+            return resultado;
+        }
+        // In-orden con pila explícita, sin bajar a la izquierda de nodos menores que "desde"
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        Nodo actual = raiz;
+        while (actual != null || !pendientes.isEmpty()) {
+            while (actual != null) {
+                if (actual.dato.compareTo(desde) < 0) {
+                    actual = actual.derecho; // Todo lo de la izquierda también es menor
+                } else {
+                    pendientes.push(actual);
+                    actual = actual.izquierdo;
+                }
+            }
+            if (pendientes.isEmpty()) {
+                break;
+            }
+            Nodo nodo = pendientes.pop();
+            if (nodo.dato.compareTo(hasta) > 0) {
+                break; // Lo que queda es mayor que "hasta"
+            }
+            resultado.add(nodo.dato);
+            actual = nodo.derecho;
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los elementos entre dos valores (ambos incluidos) sin recorrerlos.
+     * Complejidad: O(log n)
+     * @param desde Límite inferior
+     * @param hasta Límite superior
+     * @return Número de elementos del rango
+     */
+    public int contarEnRango(T desde, T hasta) {
+        if (desde.compareTo(hasta) > 0) {
+            return 0;
+        }
+        int hastaIncluido = posicion(hasta) + (contiene(hasta) ? 1 : 0);
+        return hastaIncluido - posicion(desde);
+    }
+
+    /**
+     * Verifica que el árbol cumpla la propiedad AVL y que las alturas y tamaños guardados sean correctos.
+     * Útil para depuración.
+     * @return true si todos los nodos están balanceados
+     */
+    public boolean esBalanceado() {
+        return esBSTValido() && verificarBalance(nodo(raiz)) != -2;
+    }
+
+    // Devuelve la altura real, o -2 si algún nodo incumple el balance o tiene datos guardados incorrectos
+    private int verificarBalance(NodoAVL nodo) {
+        if (nodo == null) {
+            return -1;
+        }
+        int izquierda = verificarBalance(nodo(nodo.izquierdo));
+        int derecha = verificarBalance(nodo(nodo.derecho));
+        if (izquierda == -2 || derecha == -2 || Math.abs(izquierda - derecha) > 1) {
+            return -2;
+        }
+        int alturaReal = 1 + Math.max(izquierda, derecha);
+        int tamanoReal = 1 + tamano(nodo(nodo.izquierdo)) + tamano(nodo(nodo.derecho));
+        return alturaReal == nodo.altura && tamanoReal == nodo.tamanoSubarbol ? alturaReal : -2;
+    }
+
+    // =====================================================
+    // BALANCEO
+    // =====================================================
+
+    private NodoAVL balancear(NodoAVL nodo) {
+        actualizar(nodo);
+        int balance = altura(nodo(nodo.izquierdo)) - altura(nodo(nodo.derecho));
+        if (balance > 1) {
+            NodoAVL izquierdo = nodo(nodo.izquierdo);
+            if (altura(nodo(izquierdo.izquierdo)) < altura(nodo(izquierdo.derecho))) {
+                nodo.izquierdo = rotarIzquierda(izquierdo); // Caso izquierda-derecha
+            }
+            return rotarDerecha(nodo);
+        }
+        if (balance < -1) {
+            NodoAVL derecho = nodo(nodo.derecho);
+            if (altura(nodo(derecho.derecho)) < altura(nodo(derecho.izquierdo))) {
+                nodo.derecho = rotarDerecha(derecho); // Caso derecha-izquierda
+            }
+            return rotarIzquierda(nodo);
+        }
+        return nodo;
+    }
+
+    private NodoAVL rotarDerecha(NodoAVL nodo) {
+        NodoAVL nuevaRaiz = nodo(nodo.izquierdo);
+        nodo.izquierdo = nuevaRaiz.derecho;
+        nuevaRaiz.derecho = nodo;
+        actualizar(nodo);
+        actualizar(nuevaRaiz);
+        return nuevaRaiz;
+    }
+
+    private NodoAVL rotarIzquierda(NodoAVL nodo) {
+        NodoAVL nuevaRaiz = nodo(nodo.derecho);
+        nodo.derecho = nuevaRaiz.izquierdo;
+        nuevaRaiz.izquierdo = nodo;
+        actualizar(nodo);
+        actualizar(nuevaRaiz);
+        return nuevaRaiz;
+    }
+
+    private void actualizar(NodoAVL nodo) {
+        NodoAVL izquierdo = nodo(nodo.izquierdo);
+        NodoAVL derecho = nodo(nodo.derecho);
+        nodo.altura = 1 + Math.max(altura(izquierdo), altura(derecho));
+        nodo.tamanoSubarbol = 1 + tamano(izquierdo) + tamano(derecho);
+    }
+
+    private int altura(NodoAVL nodo) {
+        return nodo == null ? -1 : nodo.altura;
+    }
+
+    private int tamano(NodoAVL nodo) {
+        return nodo == null ? 0 : nodo.tamanoSubarbol;
+    }
+
+    // Todos los nodos de este árbol son NodoAVL; los campos heredados están tipados como Nodo
+    private NodoAVL nodo(Nodo nodo) {
+        return (NodoAVL) nodo;
+    }
+}
@@ -1,6 +1,32 @@
 package algoritmos.arboles;
 
-import algoritmos.lineales.Cola;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Implementación de un Árbol Binario de Búsqueda (BST) genérico.
@@ -15,7 +41,7 @@ import algoritmos.lineales.Cola;
  * @param <T> Tipo de dato que debe ser Comparable
  * @author XIOMARA
  */
-public class ArbolBinario<T extends Comparable<T>> {
+public class ArbolBinario<T extends Comparable<T>> implements Iterable<T> {
     
     /**
      * Clase interna que representa un nodo del árbol.
@@ -34,6 +60,7 @@ public class ArbolBinario<T extends Comparable<T>> {
     
     protected Nodo raiz;
     protected int tamano;
+    protected int modificaciones; // Cambios estructurales, para que los iteradores fallen rápido
     
     /**
      * Constructor que inicializa un árbol vacío.
@@ -63,33 +90,36 @@ public class ArbolBinario<T extends Comparable<T>> {
     
     /**
      * Inserta un nuevo elemento en el árbol manteniendo el orden BST.
+     * Baja con un bucle en lugar de recursión: un árbol degenerado no agota la pila de llamadas.
      * Complejidad: O(log n) promedio, O(n) peor caso
      * @param dato El elemento a insertar
      */
     public void insertar(T dato) {
-        raiz = insertarRecursivo(raiz, dato);
-        tamano++;
-    }
-    
-    private Nodo insertarRecursivo(Nodo nodo, T dato) {
-        // Caso base: encontramos la posición vacía
-        if (nodo == null) {
-            return new Nodo(dato);
+        if (raiz == null) {
+            raiz = new Nodo(dato);
+        } else {
+            Nodo actual = raiz;
+            while (true) {
+                // Comparamos para decidir hacia dónde ir
+                int comparacion = dato.compareTo(actual.dato);
+                if (comparacion == 0) {
+                    return; // Si son iguales, no insertamos duplicados
+                }
+                Nodo siguiente = comparacion < 0 ? actual.izquierdo : actual.derecho;
+                if (siguiente == null) {
+                    // Encontramos la posición vacía
+                    if (comparacion < 0) {
+                        actual.izquierdo = new Nodo(dato);
+                    } else {
+                        actual.derecho = new Nodo(dato);
+                    }
+                    break;
+                }
+                actual = siguiente;
+            }
         }
-        
-        // Comparamos para decidir hacia dónde ir
-        int comparacion = dato.compareTo(nodo.dato);
-        
-        if (comparacion < 0) {
-            // El dato es menor, va a la izquierda
-            nodo.izquierdo = insertarRecursivo(nodo.izquierdo, dato);
-        } else if (comparacion > 0) {
-            // El dato es mayor, va a la derecha
-            nodo.derecho = insertarRecursivo(nodo.derecho, dato);
-        }
-        // Si son iguales, no insertamos duplicados
-        
-        return nodo;
+        tamano++;
+        modificaciones++;
     }
     
     /**
@@ -99,22 +129,16 @@ public class ArbolBinario<T extends Comparable<T>> {
      * @return El elemento si se encuentra, null si no existe
      */
     public T buscar(T dato) {
-        Nodo resultado = buscarRecursivo(raiz, dato);
-        return resultado != null ? resultado.dato : null;
-    }
-    
-    private Nodo buscarRecursivo(Nodo nodo, T dato) {
-        // Caso base: no encontrado o encontrado
-        if (nodo == null || nodo.dato.compareTo(dato) == 0) {
-            return nodo;
-        }
-        
-        // Buscar en el subárbol correspondiente
-        if (dato.compareTo(nodo.dato) < 0) {
-            return buscarRecursivo(nodo.izquierdo, dato);
-        } else {
-            return buscarRecursivo(nodo.derecho, dato);
+        Nodo actual = raiz;
+        while (actual != null) {
+            int comparacion = dato.compareTo(actual.dato);
+            if (comparacion == 0) {
+                return actual.dato;
+            }
+            // Buscar en el subárbol correspondiente
+            actual = comparacion < 0 ? actual.izquierdo : actual.derecho;
         }
+        return null;
     }
     
     /**
@@ -133,49 +157,47 @@ public class ArbolBinario<T extends Comparable<T>> {
      * @return true si se eliminó exitosamente
      */
     public boolean eliminar(T dato) {
-        if (!contiene(dato)) {
-            return false;
+        Nodo padre = null;
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            int comparacion = dato.compareTo(nodo.dato);
+            if (comparacion == 0) {
+                break;
+            }
+            padre = nodo;
+            nodo = comparacion < 0 ? nodo.izquierdo : nodo.derecho;
         }
-        raiz = eliminarRecursivo(raiz, dato);
-        tamano--;
-        return true;
-    }
-    
-    private Nodo eliminarRecursivo(Nodo nodo, T dato) {
         if (nodo == null) {
-            return null;
+            return false;
         }
         
-        int comparacion = dato.compareTo(nodo.dato);
-        
-        if (comparacion < 0) {
-            nodo.izquierdo = eliminarRecursivo(nodo.izquierdo, dato);
-        } else if (comparacion > 0) {
-            nodo.derecho = eliminarRecursivo(nodo.derecho, dato);
-        } else {
-            // Encontramos el nodo a eliminar
-            
-            // Caso 1: Nodo sin hijos (hoja)
-            if (nodo.izquierdo == null && nodo.derecho == null) {
-                return null;
+        // Caso 3: Nodo con dos hijos
+        // Se copia el sucesor inorden (mínimo del subárbol derecho) y se elimina el sucesor,
+        // que a lo sumo tiene un hijo derecho
+        if (nodo.izquierdo != null && nodo.derecho != null) {
+            Nodo padreSucesor = nodo;
+            Nodo sucesor = nodo.derecho;
+            while (sucesor.izquierdo != null) {
+                padreSucesor = sucesor;
+                sucesor = sucesor.izquierdo;
             }
-            
-            // Caso 2: Nodo con un solo hijo
-            if (nodo.izquierdo == null) {
-                return nodo.derecho;
-            }
-            if (nodo.derecho == null) {
-                return nodo.izquierdo;
-            }
-            
-            // Caso 3: Nodo con dos hijos
-            // Encontramos el sucesor inorden (mínimo del subárbol derecho)
-            T sucesor = encontrarMinimo(nodo.derecho);
-            nodo.dato = sucesor;
-            nodo.derecho = eliminarRecursivo(nodo.derecho, sucesor);
+            nodo.dato = sucesor.dato;
+            padre = padreSucesor;
+            nodo = sucesor;
         }
         
-        return nodo;
+        // Casos 1 y 2: hoja o un solo hijo, el hijo (o null) ocupa su lugar
+        Nodo reemplazo = nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+        if (padre == null) {
+            raiz = reemplazo;
+        } else if (padre.izquierdo == nodo) {
+            padre.izquierdo = reemplazo;
+        } else {
+            padre.derecho = reemplazo;
+        }
+        tamano--;
+        modificaciones++;
+        return true;
     }
     
     /**
@@ -215,61 +237,134 @@ public class ArbolBinario<T extends Comparable<T>> {
     /**
      * Calcula la altura del árbol.
      * La altura es la longitud del camino más largo desde la raíz hasta una hoja.
+     * Se recorre por niveles con una cola explícita, así un árbol degenerado
+     * (insertado en orden) no agota la pila de llamadas.
      * Complejidad: O(n)
      * @return La altura del árbol (-1 si está vacío)
      */
     public int altura() {
-        return alturaRecursiva(raiz);
-    }
-    
-    private int alturaRecursiva(Nodo nodo) {
-        if (nodo == null) {
+        if (raiz == null) {
             return -1; // Árbol vacío tiene altura -1
         }
-        int alturaIzq = alturaRecursiva(nodo.izquierdo);
-        int alturaDer = alturaRecursiva(nodo.derecho);
-        return 1 + Math.max(alturaIzq, alturaDer);
+        Deque<Nodo> nivel = new ArrayDeque<>();
+        nivel.add(raiz);
+        int altura = -1;
+        while (!nivel.isEmpty()) {
+            altura++;
+            for (int i = nivel.size(); i > 0; i--) {
+                Nodo actual = nivel.poll();
+                if (actual.izquierdo != null) {
+                    nivel.add(actual.izquierdo);
+                }
+                if (actual.derecho != null) {
+                    nivel.add(actual.derecho);
+                }
+            }
+        }
+        return altura;
     }
     
     /**
      * Cuenta el número de hojas (nodos sin hijos).
+     * Complejidad: O(n)
      * @return Número de nodos hoja
      */
     public int contarHojas() {
-        return contarHojasRecursivo(raiz);
-    }
-    
-    private int contarHojasRecursivo(Nodo nodo) {
-        if (nodo == null) {
-            return 0;
-        }
-        if (nodo.izquierdo == null && nodo.derecho == null) {
-            return 1;
+        int hojas = 0;
+        Iterator<Nodo> nodos = new NodosPreOrden();
+        while (nodos.hasNext()) {
+            Nodo nodo = nodos.next();
+            if (nodo.izquierdo == null && nodo.derecho == null) {
+                hojas++;
+            }
         }
-        return contarHojasRecursivo(nodo.izquierdo) + contarHojasRecursivo(nodo.derecho);
+        return hojas;
     }
     
     // =====================================================
     // RECORRIDOS DEL ÁRBOL
     // =====================================================
     
+    /**
+     * Orden en que {@link #iterador(Recorrido)} y {@link #stream(Recorrido)} visitan los nodos.
+     */
+    public enum Recorrido {
+        /** Izquierda - Raíz - Derecha: orden ascendente */
+        IN_ORDEN,
+        /** Raíz - Izquierda - Derecha */
+        PRE_ORDEN,
+        /** Izquierda - Derecha - Raíz */
+        POST_ORDEN,
+        /** Nivel por nivel, de izquierda a derecha (BFS) */
+        POR_NIVELES
+    }
+    
+    /**
+     * Iterador perezoso con pila (o cola) explícita: no usa recursión y guarda a lo sumo
+     * tantos nodos como la altura del árbol (o el ancho de un nivel, en POR_NIVELES).
+     * Si el árbol se modifica durante el recorrido, lanza ConcurrentModificationException.
+     * @param recorrido El orden de visita
+     * @return Iterador sobre los elementos
+     */
+    public Iterator<T> iterador(Recorrido recorrido) {
+        return new IteradorDatos(nodos(recorrido));
+    }
+    
+    /**
+     * Iterador en orden ascendente (in-orden).
+     * @return Iterador sobre los elementos
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return iterador(Recorrido.IN_ORDEN);
+    }
+    
+    /**
+     * Spliterator in-orden que se puede dividir para procesar en paralelo: cada división
+     * entrega los elementos menores a otro Spliterator sin recorrerlos.
+     * Se enlaza al árbol en el primer uso, no al crearlo.
+     * @return Spliterator ordenado sobre los elementos
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SpliteradorInOrden(null, tamano);
+    }
+    
+    /**
+     * @return Stream secuencial de los elementos en orden ascendente
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * @return Stream paralelo de los elementos en orden ascendente
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+    
+    /**
+     * Stream secuencial en el orden de recorrido indicado.
+     * Solo IN_ORDEN se divide por subárboles; los demás se dividen por lotes si se paraleliza.
+     * @param recorrido El orden de visita
+     * @return Stream de los elementos
+     */
+    public Stream<T> stream(Recorrido recorrido) {
+        if (recorrido == Recorrido.IN_ORDEN) {
+            return stream();
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterador(recorrido),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+    
     /**
      * Recorrido In-Orden (Izquierda - Raíz - Derecha).
      * Para un BST, este recorrido muestra los elementos en orden ascendente.
      * Útil para: Obtener elementos ordenados.
      */
     public void recorridoInOrden() {
-        System.out.print("In-Orden: ");
-        recorridoInOrdenRecursivo(raiz);
-        System.out.println();
-    }
-    
-    private void recorridoInOrdenRecursivo(Nodo nodo) {
-        if (nodo != null) {
-            recorridoInOrdenRecursivo(nodo.izquierdo);
-            System.out.print(nodo.dato + " ");
-            recorridoInOrdenRecursivo(nodo.derecho);
-        }
+        imprimirRecorrido("In-Orden: ", Recorrido.IN_ORDEN);
     }
     
     /**
@@ -277,17 +372,7 @@ public class ArbolBinario<T extends Comparable<T>> {
      * Útil para: Copiar el árbol, generar expresiones prefijas.
      */
     public void recorridoPreOrden() {
-        System.out.print("Pre-Orden: ");
-        recorridoPreOrdenRecursivo(raiz);
-        System.out.println();
-    }
-    
-    private void recorridoPreOrdenRecursivo(Nodo nodo) {
-        if (nodo != null) {
-            System.out.print(nodo.dato + " ");
-            recorridoPreOrdenRecursivo(nodo.izquierdo);
-            recorridoPreOrdenRecursivo(nodo.derecho);
-        }
+        imprimirRecorrido("Pre-Orden: ", Recorrido.PRE_ORDEN);
     }
     
     /**
@@ -295,22 +380,11 @@ public class ArbolBinario<T extends Comparable<T>> {
      * Útil para: Eliminar el árbol, evaluar expresiones postfijas.
      */
     public void recorridoPostOrden() {
-        System.out.print("Post-Orden: ");
-        recorridoPostOrdenRecursivo(raiz);
-        System.out.println();
-    }
-    
-    private void recorridoPostOrdenRecursivo(Nodo nodo) {
-        if (nodo != null) {
-            recorridoPostOrdenRecursivo(nodo.izquierdo);
-            recorridoPostOrdenRecursivo(nodo.derecho);
-            System.out.print(nodo.dato + " ");
-        }
+        imprimirRecorrido("Post-Orden: ", Recorrido.POST_ORDEN);
     }
     
     /**
      * Recorrido por Niveles (Breadth-First Search - BFS).
-     * Usa una Cola para procesar nivel por nivel.
      * Útil para: Imprimir el árbol por niveles, encontrar el camino más corto.
      */
     public void recorridoPorNiveles() {
@@ -318,24 +392,16 @@ public class ArbolBinario<T extends Comparable<T>> {
             System.out.println("Árbol vacío");
             return;
         }
-        
-        // Usamos nuestra propia implementación de Cola
-        Cola<Nodo> cola = new Cola<>();
-        cola.encolar(raiz);
-        
-        System.out.print("Por Niveles: ");
-        while (!cola.estaVacia()) {
-            Nodo actual = cola.desencolar();
-            System.out.print(actual.dato + " ");
-            
-            if (actual.izquierdo != null) {
-                cola.encolar(actual.izquierdo);
-            }
-            if (actual.derecho != null) {
-                cola.encolar(actual.derecho);
-            }
+        imprimirRecorrido("Por Niveles: ", Recorrido.POR_NIVELES);
+    }
+    
+    private void imprimirRecorrido(String titulo, Recorrido recorrido) {
+        StringBuilder linea = new StringBuilder(titulo);
+        Iterator<T> datos = iterador(recorrido);
+        while (datos.hasNext()) {
+            linea.append(datos.next()).append(' ');
         }
-        System.out.println();
+        System.out.println(linea);
     }
     
     /**
@@ -348,52 +414,462 @@ public class ArbolBinario<T extends Comparable<T>> {
             return;
         }
         System.out.println("=== Árbol Binario de Búsqueda ===");
-        mostrarArbolRecursivo(raiz, "", true);
-    }
-    
-    private void mostrarArbolRecursivo(Nodo nodo, String prefijo, boolean esUltimo) {
-        if (nodo != null) {
-            System.out.println(prefijo + (esUltimo ? "└── " : "├── ") + nodo.dato);
-            
-            // Primero mostramos el hijo derecho (arriba visualmente)
-            if (nodo.derecho != null || nodo.izquierdo != null) {
-                mostrarArbolRecursivo(nodo.derecho, prefijo + (esUltimo ? "    " : "│   "), false);
-                mostrarArbolRecursivo(nodo.izquierdo, prefijo + (esUltimo ? "    " : "│   "), true);
+        // Pila explícita de líneas pendientes; el hijo derecho se muestra primero (arriba visualmente)
+        Deque<LineaArbol> pendientes = new ArrayDeque<>();
+        pendientes.push(new LineaArbol(raiz, "", true));
+        while (!pendientes.isEmpty()) {
+            LineaArbol linea = pendientes.pop();
+            Nodo nodo = linea.nodo;
+            System.out.println(linea.prefijo + (linea.esUltimo ? "└── " : "├── ") + nodo.dato);
+            String prefijoHijos = linea.prefijo + (linea.esUltimo ? "    " : "│   ");
+            if (nodo.izquierdo != null) {
+                pendientes.push(new LineaArbol(nodo.izquierdo, prefijoHijos, true));
+            }
+            if (nodo.derecho != null) {
+                pendientes.push(new LineaArbol(nodo.derecho, prefijoHijos, false));
             }
         }
     }
     
     /**
-     * Verifica si el árbol es un BST válido.
+     * Verifica si el árbol es un BST válido: el recorrido in-orden debe ser estrictamente creciente.
+     * Complejidad: O(n)
      * @return true si cumple la propiedad BST
      */
     public boolean esBSTValido() {
-        return verificarBST(raiz, null, null);
+        Iterator<Nodo> nodos = new NodosInOrden();
+        T anterior = null;
+        while (nodos.hasNext()) {
+            T dato = nodos.next().dato;
+            if (anterior != null && dato.compareTo(anterior) <= 0) {
+                return false;
+            }
+            anterior = dato;
+        }
+        return true;
     }
     
-    private boolean verificarBST(Nodo nodo, T minimo, T maximo) {
-        if (nodo == null) {
-            return true;
+    /**
+     * Limpia completamente el árbol.
+     */
+    public void limpiar() {
+        raiz = null;
+        tamano = 0;
+        modificaciones++;
+    }
+    
+    // =====================================================
+    // CARGA MASIVA Y SNAPSHOT BINARIO
+    // =====================================================
+    
+    private static final int FIRMA_SNAPSHOT = 0x44564142; // "DVAB"
+    private static final byte VERSION_SNAPSHOT = 1;
+    
+    /**
+     * Reemplaza el contenido por elementos que ya vienen en orden ascendente
+     * (p. ej. de un SELECT ... ORDER BY). En lugar de n inserciones desde la raíz,
+     * arma de abajo hacia arriba un árbol perfectamente balanceado.
+     * Los duplicados consecutivos se ignoran, como en insertar.
+     * Complejidad: O(n)
+     * @param ordenados Elementos en orden ascendente
+     * @throws IllegalArgumentException Si hay un null o un elemento menor que el anterior
+     */
+    public void cargarOrdenados(Iterable<? extends T> ordenados) {
+        List<T> datos = ordenados instanceof Collection
+                ? new ArrayList<>(((Collection<?>) ordenados).size())
+                : new ArrayList<>();
+        T anterior = null;
+        for (T dato : ordenados) {
+            if (dato == null) {
+                throw new IllegalArgumentException("El árbol no admite elementos null");
+            }
+            if (anterior != null) {
+                int comparacion = dato.compareTo(anterior);
+                if (comparacion < 0) {
+                    throw new IllegalArgumentException("Los elementos no están en orden ascendente: "
+                            + dato + " después de " + anterior);
+                }
+                if (comparacion == 0) {
+                    continue;
+                }
+            }
+            datos.add(dato);
+            anterior = dato;
         }
+        reemplazarPor(datos);
+    }
+    
+    /**
+     * Guarda el árbol en un archivo binario compacto: firma, versión, cantidad,
+     * los elementos en in-orden y un CRC32 al final. La forma del árbol no se guarda:
+     * como los elementos quedan ordenados, {@link #cargar} arma uno balanceado en O(n).
+     * Se escribe en un temporal que luego se renombra, así un corte a mitad no deja
+     * un snapshot a medias.
+     * Complejidad: O(n)
+     * @param archivo Archivo de destino (se reemplaza si existe)
+     * @param codificador Cómo escribir cada elemento
+     * @throws IOException Si no se pudo escribir
+     */
+    public void guardar(Path archivo, Codificador<? super T> codificador) throws IOException {
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        Files.createDirectories(carpeta);
+        Path temporal = Files.createTempFile(carpeta, archivo.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+                salida.writeInt(FIRMA_SNAPSHOT);
+                salida.writeByte(VERSION_SNAPSHOT);
+                salida.writeInt(tamano);
+                CRC32 crc = new CRC32();
+                DataOutputStream datos = new DataOutputStream(new CheckedOutputStream(salida, crc));
+                for (T dato : this) {
+                    codificador.escribir(datos, dato);
+                }
+                datos.flush();
+                salida.writeLong(crc.getValue());
+            }
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+    
+    /**
+     * Reemplaza el contenido por el de un snapshot escrito con {@link #guardar}.
+     * Todo el archivo se valida (firma, orden y CRC) antes de tocar el árbol:
+     * si falla, el árbol queda como estaba.
+     * Complejidad: O(n)
+     * @param archivo Snapshot a leer
+     * @param codificador Cómo leer cada elemento (el mismo que se usó al guardar)
+     * @throws IOException Si no se pudo leer o el archivo no es un snapshot válido
+     */
+    public void cargar(Path archivo, Codificador<? extends T> codificador) throws IOException {
+        List<T> datos;
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo), 1 << 16))) {
+            if (entrada.readInt() != FIRMA_SNAPSHOT || entrada.readByte() != VERSION_SNAPSHOT) {
+                throw new IOException("No es un snapshot de árbol compatible: " + archivo);
+            }
+            int cantidad = entrada.readInt();
+            if (cantidad < 0) {
+                throw new IOException("Cantidad de elementos inválida en " + archivo + ": " + cantidad);
+            }
+            CRC32 crc = new CRC32();
+            DataInputStream elementos = new DataInputStream(new CheckedInputStream(entrada, crc));
+            datos = new ArrayList<>(Math.min(cantidad, 1 << 20)); // Un encabezado dañado no reserva de más
+            T anterior = null;
+            for (int i = 0; i < cantidad; i++) {
+                T dato = codificador.leer(elementos);
+                if (dato == null || (anterior != null && dato.compareTo(anterior) <= 0)) {
+                    throw new IOException("Snapshot dañado en " + archivo + ": elementos fuera de orden");
+                }
+                datos.add(dato);
+                anterior = dato;
+            }
+            if (entrada.readLong() != crc.getValue()) {
+                throw new IOException("Snapshot dañado en " + archivo + ": el CRC no coincide");
+            }
+        } catch (EOFException e) {
+            throw new IOException("Snapshot incompleto: " + archivo, e);
+        }
+        reemplazarPor(datos);
+    }
+    
+    /**
+     * Crea el nodo de un elemento en las cargas masivas. Las subclases cuyos nodos
+     * guardan datos extra (ArbolAVL) lo redefinen.
+     */
+    protected Nodo crearNodo(T dato) {
+        return new Nodo(dato);
+    }
+    
+    /**
+     * Se llama en las cargas masivas con cada nodo ya enlazado a sus dos hijos,
+     * para que las subclases completen sus datos extra.
+     */
+    protected void nodoConstruido(Nodo nodo) {
+    }
+    
+    private void reemplazarPor(List<T> ordenados) {
+        raiz = construir(ordenados, 0, ordenados.size());
+        tamano = ordenados.size();
+        modificaciones++;
+    }
+    
+    // El elemento del medio es la raíz y cada mitad un subárbol: profundidad de recursión log2(n)
+    private Nodo construir(List<T> ordenados, int desde, int hasta) {
+        if (desde >= hasta) {
+            return null;
+        }
+        int medio = (desde + hasta) >>> 1;
+        Nodo nodo = crearNodo(ordenados.get(medio));
+        nodo.izquierdo = construir(ordenados, desde, medio);
+        nodo.derecho = construir(ordenados, medio + 1, hasta);
+        nodoConstruido(nodo);
+        return nodo;
+    }
+    
+    // =====================================================
+    // ITERADORES
+    // =====================================================
+    
+    private Iterator<Nodo> nodos(Recorrido recorrido) {
+        switch (recorrido) {
+            case PRE_ORDEN:
+                return new NodosPreOrden();
+            case POST_ORDEN:
+                return new NodosPostOrden();
+            case POR_NIVELES:
+                return new NodosPorNiveles();
+            default:
+                return new NodosInOrden();
+        }
+    }
+    
+    /**
+     * Base de los iteradores de nodos: comprueba que el árbol no cambió desde que se creó.
+     */
+    private abstract class IteradorNodos implements Iterator<Nodo> {
+        protected final Deque<Nodo> pendientes = new ArrayDeque<>();
+        private final int modificacionesEsperadas = modificaciones;
         
-        // Verificar límites
-        if (minimo != null && nodo.dato.compareTo(minimo) <= 0) {
-            return false;
+        @Override
+        public boolean hasNext() {
+            return !pendientes.isEmpty();
         }
-        if (maximo != null && nodo.dato.compareTo(maximo) >= 0) {
-            return false;
+        
+        @Override
+        public Nodo next() {
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+            if (pendientes.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return siguiente();
         }
         
-        // Verificar recursivamente los subárboles
-        return verificarBST(nodo.izquierdo, minimo, nodo.dato) &&
-               verificarBST(nodo.derecho, nodo.dato, maximo);
+        protected abstract Nodo siguiente();
+    }
+    
+    private class NodosInOrden extends IteradorNodos {
+        NodosInOrden() {
+            apilarIzquierdos(pendientes, raiz);
+        }
+        
+        @Override
+        protected Nodo siguiente() {
+            Nodo nodo = pendientes.pop();
+            apilarIzquierdos(pendientes, nodo.derecho);
+            return nodo;
+        }
+    }
+    
+    private class NodosPreOrden extends IteradorNodos {
+        NodosPreOrden() {
+            if (raiz != null) {
+                pendientes.push(raiz);
+            }
+        }
+        
+        @Override
+        protected Nodo siguiente() {
+            Nodo nodo = pendientes.pop();
+            if (nodo.derecho != null) {
+                pendientes.push(nodo.derecho);
+            }
+            if (nodo.izquierdo != null) {
+                pendientes.push(nodo.izquierdo);
+            }
+            return nodo;
+        }
+    }
+    
+    private class NodosPostOrden extends IteradorNodos {
+        NodosPostOrden() {
+            bajarHastaHoja(raiz);
+        }
+        
+        @Override
+        protected Nodo siguiente() {
+            Nodo nodo = pendientes.pop();
+            // Si era el hijo izquierdo, antes que el padre va el subárbol derecho del padre
+            Nodo padre = pendientes.peek();
+            if (padre != null && padre.izquierdo == nodo) {
+                bajarHastaHoja(padre.derecho);
+            }
+            return nodo;
+        }
+        
+        // Apila el camino hasta la primera hoja en post-orden (izquierda si hay, si no derecha)
+        private void bajarHastaHoja(Nodo nodo) {
+            while (nodo != null) {
+                pendientes.push(nodo);
+                nodo = nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+            }
+        }
+    }
+    
+    private class NodosPorNiveles extends IteradorNodos {
+        NodosPorNiveles() {
+            if (raiz != null) {
+                pendientes.add(raiz);
+            }
+        }
+        
+        @Override
+        protected Nodo siguiente() {
+            Nodo nodo = pendientes.poll();
+            if (nodo.izquierdo != null) {
+                pendientes.add(nodo.izquierdo);
+            }
+            if (nodo.derecho != null) {
+                pendientes.add(nodo.derecho);
+            }
+            return nodo;
+        }
+    }
+    
+    private class IteradorDatos implements Iterator<T> {
+        private final Iterator<Nodo> nodos;
+        
+        IteradorDatos(Iterator<Nodo> nodos) {
+            this.nodos = nodos;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return nodos.hasNext();
+        }
+        
+        @Override
+        public T next() {
+            return nodos.next().dato;
+        }
     }
     
     /**
-     * Limpia completamente el árbol.
+     * Spliterator in-orden sobre la misma pila que NodosInOrden. Cada nodo apilado representa
+     * "el nodo y luego su subárbol derecho", del menor (tope) al mayor (fondo). Dividir entrega
+     * todos los nodos menos el del fondo, es decir, todo lo menor que él; si solo queda uno,
+     * entrega ese nodo y se queda con su subárbol derecho.
      */
-    public void limpiar() {
-        raiz = null;
-        tamano = 0;
+    private class SpliteradorInOrden implements Spliterator<T> {
+        private Deque<Nodo> pendientes; // null hasta el primer uso (enlace tardío)
+        private long estimado;
+        private int modificacionesEsperadas;
+        
+        SpliteradorInOrden(Deque<Nodo> pendientes, long estimado) {
+            this.pendientes = pendientes;
+            this.estimado = estimado;
+            this.modificacionesEsperadas = modificaciones;
+        }
+        
+        private Deque<Nodo> pendientes() {
+            if (pendientes == null) {
+                pendientes = new ArrayDeque<>();
+                apilarIzquierdos(pendientes, raiz);
+                estimado = tamano;
+                modificacionesEsperadas = modificaciones;
+            }
+            return pendientes;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super T> accion) {
+            Deque<Nodo> pila = pendientes();
+            if (pila.isEmpty()) {
+                return false;
+            }
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+            Nodo nodo = pila.pop();
+            apilarIzquierdos(pila, nodo.derecho);
+            if (estimado > 0) {
+                estimado--;
+            }
+            accion.accept(nodo.dato);
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> accion) {
+            Deque<Nodo> pila = pendientes();
+            while (!pila.isEmpty()) {
+                Nodo nodo = pila.pop();
+                apilarIzquierdos(pila, nodo.derecho);
+                accion.accept(nodo.dato);
+            }
+            estimado = 0;
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            Deque<Nodo> pila = pendientes();
+            if (pila.size() >= 2) {
+                Deque<Nodo> menores = new ArrayDeque<>();
+                while (pila.size() > 1) {
+                    menores.addLast(pila.pollFirst()); // Del tope hacia el fondo, mismo orden
+                }
+                long mitad = estimado >>> 1;
+                estimado -= mitad;
+                SpliteradorInOrden prefijo = new SpliteradorInOrden(menores, mitad);
+                prefijo.modificacionesEsperadas = modificacionesEsperadas;
+                return prefijo;
+            }
+            Nodo unico = pila.peek();
+            if (unico == null || unico.derecho == null) {
+                return null;
+            }
+            pila.pop();
+            apilarIzquierdos(pila, unico.derecho);
+            if (estimado > 0) {
+                estimado--;
+            }
+            return Spliterators.spliterator(new Object[] { unico.dato }, characteristics());
+        }
+        
+        @Override
+        public long estimateSize() {
+            pendientes();
+            return estimado;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+        
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null; // Orden natural (compareTo)
+        }
+    }
+    
+    private void apilarIzquierdos(Deque<Nodo> pila, Nodo nodo) {
+        while (nodo != null) {
+            pila.push(nodo);
+            nodo = nodo.izquierdo;
+        }
+    }
+    
+    private class LineaArbol {
+        final Nodo nodo;
+        final String prefijo;
+        final boolean esUltimo;
+        
+        LineaArbol(Nodo nodo, String prefijo, boolean esUltimo) {
+            this.nodo = nodo;
+            this.prefijo = prefijo;
+            this.esUltimo = esUltimo;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package algoritmos.arboles;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Convierte los elementos de un árbol a bytes y de vuelta, para
+ * {@link ArbolBinario#guardar} y {@link ArbolBinario#cargar}.
+ *
+ * @param <T> Tipo de dato del árbol
+ */
+public interface Codificador<T> {
+
+    /** Textos (DNI, nombres) en UTF-8 modificado; hasta 65535 bytes por texto. */
+    Codificador<String> TEXTO = new Codificador<String>() {
+        @Override
+        public void escribir(DataOutput salida, String dato) throws IOException {
+            salida.writeUTF(dato);
+        }
+
+        @Override
+        public String leer(DataInput entrada) throws IOException {
+            return entrada.readUTF();
+        }
+    };
+
+    /** Enteros de 4 bytes (IDs). */
+    Codificador<Integer> ENTERO = new Codificador<Integer>() {
+        @Override
+        public void escribir(DataOutput salida, Integer dato) throws IOException {
+            salida.writeInt(dato);
+        }
+
+        @Override
+        public Integer leer(DataInput entrada) throws IOException {
+            return entrada.readInt();
+        }
+    };
+
+    void escribir(DataOutput salida, T dato) throws IOException;
+
+    T leer(DataInput entrada) throws IOException;
+}
@@ -0,0 +1,190 @@
+package algoritmos.arboles;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Implementación de un Trie (árbol de prefijos) genérico.
+ * Cada nodo representa un carácter; las claves que comparten prefijo comparten camino,
+ * por lo que encontrar todas las claves que empiezan por un texto no depende del
+ * número total de claves sino del largo del prefijo y de los resultados pedidos.
+ *
+ * Casos de uso en el proyecto Días Vet:
+ * - Búsqueda mientras se escribe (typeahead) de clientes por nombre y DNI
+ *
+ * Una misma clave puede tener varios valores (p. ej. dos clientes llamados "Ana"),
+ * y un mismo valor puede indexarse bajo varias claves (cada palabra del nombre).
+ *
+ * @param <T> Tipo de los valores asociados a las claves
+ */
+public class Trie<T> {
+
+    /**
+     * Clase interna que representa un nodo del trie.
+     * Los hijos se guardan ordenados para recorrer las claves en orden alfabético.
+     */
+    private class Nodo {
+        final TreeMap<Character, Nodo> hijos = new TreeMap<>();
+        List<T> valores; // null si ninguna clave termina en este nodo
+    }
+
+    private final Nodo raiz;
+    private int tamano;
+
+    /**
+     * Constructor que inicializa un trie vacío.
+     */
+    public Trie() {
+        this.raiz = new Nodo();
+        this.tamano = 0;
+    }
+
+    /**
+     * Asocia un valor a una clave. Si el par ya existe no se duplica.
+     * Complejidad: O(m log σ), con m el largo de la clave
+     * @param clave La clave
+     * @param valor El valor asociado
+     */
+    public void insertar(String clave, T valor) {
+        Nodo actual = raiz;
+        for (int i = 0; i < clave.length(); i++) {
+            actual = actual.hijos.computeIfAbsent(clave.charAt(i), c -> new Nodo());
+        }
+        if (actual.valores == null) {
+            actual.valores = new ArrayList<>(1);
+        }
+        if (!actual.valores.contains(valor)) {
+            actual.valores.add(valor);
+            tamano++;
+        }
+    }
+
+    /**
+     * Quita la asociación entre una clave y un valor. Los nodos que quedan sin uso se eliminan.
+     * Complejidad: O(m log σ)
+     * @param clave La clave
+     * @param valor El valor a quitar
+     * @return true si el par existía
+     */
+    public boolean eliminar(String clave, T valor) {
+        Deque<Nodo> camino = new ArrayDeque<>();
+        Nodo actual = raiz;
+        for (int i = 0; i < clave.length() && actual != null; i++) {
+            camino.push(actual);
+            actual = actual.hijos.get(clave.charAt(i));
+        }
+        if (actual == null || actual.valores == null || !actual.valores.remove(valor)) {
+            return false;
+        }
+        tamano--;
+        if (actual.valores.isEmpty()) {
+            actual.valores = null;
+        }
+        // Podar desde la hoja hacia la raíz los nodos sin valores ni hijos
+        for (int i = clave.length() - 1; i >= 0; i--) {
+            Nodo padre = camino.pop();
+            if (actual.valores != null || !actual.hijos.isEmpty()) {
+                break;
+            }
+            padre.hijos.remove(clave.charAt(i));
+            actual = padre;
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve los valores cuyas claves empiezan por el prefijo, en orden alfabético de clave
+     * y sin repetidos. El recorrido se detiene al reunir el límite pedido.
+     * Complejidad: O(p log σ + nodos visitados hasta reunir k resultados)
+     * @param prefijo El prefijo buscado ("" devuelve los primeros valores del trie)
+     * @param limite Número máximo de resultados
+     * @return Los valores encontrados
+     */
+    public List<T> buscarPorPrefijo(String prefijo, int limite) {
+        Nodo actual = raiz;
+        for (int i = 0; i < prefijo.length() && actual != null; i++) {
+            actual = actual.hijos.get(prefijo.charAt(i));
+        }
+        Set<T> encontrados = new LinkedHashSet<>();
+        if (actual == null || limite <= 0) {
+            return new ArrayList<>(encontrados);
+        }
+
+        // Recorrido en profundidad en preorden con pila explícita: visita las claves en orden
+        Deque<Iterator<Nodo>> pila = new ArrayDeque<>();
+        agregarValores(actual, encontrados, limite);
+        pila.push(actual.hijos.values().iterator());
+        while (!pila.isEmpty() && encontrados.size() < limite) {
+            Iterator<Nodo> hijos = pila.peek();
+            if (!hijos.hasNext()) {
+                pila.pop();
+                continue;
+            }
+            Nodo hijo = hijos.next();
+            agregarValores(hijo, encontrados, limite);
+            if (!hijo.hijos.isEmpty()) {
+                pila.push(hijo.hijos.values().iterator());
+            }
+        }
+        return new ArrayList<>(encontrados);
+    }
+
+    private void agregarValores(Nodo nodo, Set<T> encontrados, int limite) {
+        if (nodo.valores == null) {
+            return;
+        }
+        for (T valor : nodo.valores) {
+            if (encontrados.size() >= limite) {
+                return;
+            }
+            encontrados.add(valor);
+        }
+    }
+
+    /**
+     * Verifica si existe al menos una clave con el prefijo dado.
+     * Complejidad: O(p log σ)
+     * @param prefijo El prefijo buscado
+     * @return true si alguna clave empieza por el prefijo
+     */
+    public boolean contienePrefijo(String prefijo) {
+        Nodo actual = raiz;
+        for (int i = 0; i < prefijo.length() && actual != null; i++) {
+            actual = actual.hijos.get(prefijo.charAt(i));
+        }
+        return actual != null && (actual.valores != null || !actual.hijos.isEmpty());
+    }
+
+    /**
+     * Retorna el número de pares clave-valor almacenados.
+     * Complejidad: O(1)
+     * @return cantidad de pares
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Verifica si el trie está vacío.
+     * Complejidad: O(1)
+     * @return true si no hay claves
+     */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * Elimina todas las claves del trie.
+     */
+    public void limpiar() {
+        raiz.hijos.clear();
+        raiz.valores = null;
+        tamano = 0;
+    }
+}
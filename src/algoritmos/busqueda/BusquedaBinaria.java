@@ -1,6 +1,6 @@
 package algoritmos.busqueda;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import modelos.Producto;
@@ -8,18 +8,23 @@ import modelos.Producto;
 /**
  * Implementación del algoritmo de Búsqueda Binaria.
  * Requiere que la lista esté previamente ordenada. Es mucho más eficiente que la búsqueda secuencial.
+ * Para búsquedas repetidas sobre el catálogo conviene {@link ProductoIndex}, que no reordena en cada consulta.
  */
 public class BusquedaBinaria {
 
     /**
      * Busca un producto por su código en una lista previamente ordenada.
+     * Si la lista no está ordenada por código se ordena una copia; la lista original no se modifica.
      * @param listaProductos La lista ordenada de productos.
      * @param codigo El código del producto a buscar.
      * @return El Producto si se encuentra, de lo contrario null.
      */
     public Producto buscar(List<Producto> listaProductos, String codigo) {
-        // Asegurarse de que la lista está ordenada por código
-        Collections.sort(listaProductos, Comparator.comparing(Producto::getCodigo));
+        // Comprobar el orden es O(n); solo se paga el O(n log n) si de verdad hace falta ordenar
+        if (!estaOrdenadaPorCodigo(listaProductos)) {
+            listaProductos = new ArrayList<>(listaProductos);
+            listaProductos.sort(Comparator.comparing(Producto::getCodigo));
+        }
 
         int bajo = 0;
         int alto = listaProductos.size() - 1;
@@ -41,4 +46,13 @@ public class BusquedaBinaria {
         }
         return null; // Elemento no encontrado
     }
+
+    private boolean estaOrdenadaPorCodigo(List<Producto> listaProductos) {
+        for (int i = 1; i < listaProductos.size(); i++) {
+            if (listaProductos.get(i - 1).getCodigo().compareTo(listaProductos.get(i).getCodigo()) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,132 @@
+package algoritmos.busqueda;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import modelos.Producto;
+
+/**
+ * Índice en memoria del catálogo de productos.
+ * Se construye una sola vez y luego se mantiene con cada alta, cambio o baja,
+ * en lugar de ordenar la lista completa en cada búsqueda como {@link BusquedaBinaria}.
+ *
+ * - Por código: tabla hash, búsqueda O(1).
+ * - Por nombre: árbol ordenado (sin distinguir mayúsculas), búsqueda por prefijo O(log n + k).
+ *
+ * Los métodos son sincronizados para poder usar el índice desde varios hilos.
+ */
+public class ProductoIndex {
+
+    // El código se agrega a la clave para que dos productos con el mismo nombre no se pisen
+    private static final char SEPARADOR_CLAVE = '\u0000';
+
+    private final Map<String, Producto> porCodigo = new HashMap<>();
+    private final NavigableMap<String, Producto> porNombre = new TreeMap<>();
+
+    /**
+     * Crea un índice vacío.
+     */
+    public ProductoIndex() {
+    }
+
+    /**
+     * Crea el índice a partir de una lista de productos. La lista no se modifica.
+     * @param productos Los productos a indexar.
+     */
+    public ProductoIndex(Collection<Producto> productos) {
+        for (Producto producto : productos) {
+            agregar(producto);
+        }
+    }
+
+    /**
+     * Agrega un producto o reemplaza el que tenga el mismo código.
+     * @param producto El producto a indexar.
+     */
+    public synchronized void agregar(Producto producto) {
+        Producto anterior = porCodigo.put(producto.getCodigo(), producto);
+        if (anterior != null) {
+            porNombre.remove(claveNombre(anterior));
+        }
+        porNombre.put(claveNombre(producto), producto);
+    }
+
+    /**
+     * Quita un producto del índice.
+     * @param codigo El código del producto.
+     * @return true si el producto estaba indexado.
+     */
+    public synchronized boolean eliminar(String codigo) {
+        Producto anterior = porCodigo.remove(codigo);
+        if (anterior == null) {
+            return false;
+        }
+        porNombre.remove(claveNombre(anterior));
+        return true;
+    }
+
+    /**
+     * Busca un producto por su código. O(1).
+     * @param codigo El código del producto.
+     * @return El Producto si se encuentra, de lo contrario null.
+     */
+    public synchronized Producto buscarPorCodigo(String codigo) {
+        return codigo == null ? null : porCodigo.get(codigo);
+    }
+
+    /**
+     * Busca los productos cuyo nombre empieza por el prefijo (sin distinguir mayúsculas).
+     * @param prefijo El inicio del nombre.
+     * @return Los productos encontrados, ordenados por nombre.
+     */
+    public List<Producto> buscarPorPrefijoNombre(String prefijo) {
+        return buscarPorPrefijoNombre(prefijo, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Busca los productos cuyo nombre empieza por el prefijo (sin distinguir mayúsculas).
+     * @param prefijo El inicio del nombre.
+     * @param limite Número máximo de resultados.
+     * @return Los productos encontrados, ordenados por nombre.
+     */
+    public synchronized List<Producto> buscarPorPrefijoNombre(String prefijo, int limite) {
+        String inicio = normalizar(prefijo);
+        // Todas las claves que empiezan por el prefijo quedan antes de prefijo + el carácter más alto
+        Collection<Producto> rango = porNombre.subMap(inicio, true, inicio + Character.MAX_VALUE, false).values();
+        List<Producto> resultado = new ArrayList<>(Math.min(rango.size(), limite));
+        for (Producto producto : rango) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(producto);
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Todos los productos ordenados por nombre
+     */
+    public synchronized List<Producto> obtenerOrdenadosPorNombre() {
+        return new ArrayList<>(porNombre.values());
+    }
+
+    /**
+     * @return Número de productos indexados
+     */
+    public synchronized int getTamano() {
+        return porCodigo.size();
+    }
+
+    private static String claveNombre(Producto producto) {
+        return normalizar(producto.getNombre()) + SEPARADOR_CLAVE + producto.getCodigo();
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -119,27 +119,41 @@ public class Grafo<T> {
     
     /**
      * Elimina un vértice y todas sus aristas asociadas.
-     * Complejidad: O(V + E)
+     * En un grafo no dirigido las aristas que llegan al vértice están en las listas de sus
+     * vecinos, así que solo se revisan esas; en uno dirigido hay que revisar todas.
+     * Complejidad: O(suma de grados de los vecinos) no dirigido, O(V + E) dirigido
      * @param vertice El vértice a eliminar
      * @return true si se eliminó exitosamente
      */
     public boolean eliminarVertice(T vertice) {
-        if (!listaAdyacencia.containsKey(vertice)) {
+        List<Arista> salientes = listaAdyacencia.remove(vertice);
+        if (salientes == null) {
             return false;
         }
         
-        // Contar aristas que se eliminarán
-        int aristasEliminadas = listaAdyacencia.get(vertice).size();
-        
-        // Eliminar el vértice
-        listaAdyacencia.remove(vertice);
-        
-        // Eliminar todas las aristas que apuntan a este vértice
-        for (List<Arista> aristas : listaAdyacencia.values()) {
-            aristas.removeIf(arista -> arista.destino.equals(vertice));
+        if (esDirigido) {
+            // Eliminar todas las aristas que apuntan a este vértice (también cuentan como eliminadas)
+            int entrantes = 0;
+            for (List<Arista> aristas : listaAdyacencia.values()) {
+                int antes = aristas.size();
+                aristas.removeIf(arista -> arista.destino.equals(vertice));
+                entrantes += antes - aristas.size();
+            }
+            numeroAristas -= salientes.size() + entrantes;
+        } else {
+            int lazos = 0;
+            for (Arista arista : salientes) {
+                if (arista.destino.equals(vertice)) {
+                    lazos++; // Un lazo aparece dos veces en la lista del propio vértice
+                    continue;
+                }
+                List<Arista> delVecino = listaAdyacencia.get(arista.destino);
+                if (delVecino != null) {
+                    delVecino.removeIf(inversa -> inversa.destino.equals(vertice));
+                }
+            }
+            numeroAristas -= salientes.size() - lazos / 2;
         }
-        
-        numeroAristas -= aristasEliminadas;
         return true;
     }
     
@@ -444,6 +458,20 @@ public class Grafo<T> {
         return camino;
     }
     
+    /**
+     * Encuentra el camino de menor peso total entre dos vértices (Dijkstra), a diferencia de
+     * {@link #encontrarCamino}, que cuenta aristas e ignora los pesos.
+     * Congela el grafo en cada llamada (O(V + E)); para muchas consultas sobre el mismo mapa
+     * conviene crear una vez {@code new RutasMasCortas<>(grafo.congelar())} y reutilizarla.
+     * @param origen Vértice de inicio
+     * @param destino Vértice de destino
+     * @return Lista con el camino, o lista vacía si no existe
+     * @throws IllegalArgumentException Si alguna arista tiene peso negativo
+     */
+    public List<T> encontrarCaminoMasCorto(T origen, T destino) {
+        return new RutasMasCortas<>(congelar()).dijkstra(origen, destino).getVertices();
+    }
+    
     /**
      * Verifica si el grafo es conexo (todos los vértices son alcanzables).
      * @return true si el grafo es conexo
@@ -502,6 +530,49 @@ public class Grafo<T> {
         return false;
     }
     
+    // =====================================================
+    // REPRESENTACIÓN COMPACTA
+    // =====================================================
+    
+    /**
+     * Crea una copia de solo lectura en formato CSR (arreglos de enteros y pesos, sin un objeto
+     * por arista), para grafos que se arman una vez y luego se recorren muchas veces.
+     * Los cambios posteriores a este grafo no afectan a la copia.
+     * Complejidad: O(V + E)
+     * @return El grafo congelado
+     */
+    public GrafoCompacto<T> congelar() {
+        int numeroVertices = listaAdyacencia.size();
+        Object[] vertices = new Object[numeroVertices];
+        Map<T, Integer> indices = new HashMap<>(numeroVertices * 4 / 3 + 1);
+        int totalAristas = 0;
+        for (Map.Entry<T, List<Arista>> entrada : listaAdyacencia.entrySet()) {
+            vertices[indices.size()] = entrada.getKey();
+            indices.put(entrada.getKey(), indices.size());
+            totalAristas += entrada.getValue().size();
+        }
+        
+        int[] inicio = new int[numeroVertices + 1];
+        int[] destinos = new int[totalAristas];
+        double[] pesos = new double[totalAristas];
+        boolean todosUno = true;
+        int posicion = 0;
+        for (int v = 0; v < numeroVertices; v++) {
+            inicio[v] = posicion;
+            for (Arista arista : listaAdyacencia.get(vertices[v])) {
+                destinos[posicion] = indices.get(arista.destino);
+                pesos[posicion] = arista.peso;
+                todosUno &= arista.peso == 1.0;
+                posicion++;
+            }
+        }
+        inicio[numeroVertices] = posicion;
+        
+        // Sin pesos: no se guarda el arreglo
+        return new GrafoCompacto<>(vertices, indices, inicio, destinos, todosUno ? null : pesos,
+                                   esDirigido, numeroAristas);
+    }
+    
     // =====================================================
     // VISUALIZACIÓN
     // =====================================================
@@ -0,0 +1,400 @@
+package algoritmos.grafos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versión congelada (solo lectura) de un {@link Grafo}, creada con {@link Grafo#congelar()}.
+ *
+ * Cada vértice recibe un índice entero 0..V-1 y las aristas se guardan en formato CSR
+ * (Compressed Sparse Row): las aristas del vértice v son las posiciones
+ * inicio[v] .. inicio[v + 1] - 1 de los arreglos destinos y pesos. No hay un objeto por
+ * arista ni listas por vértice, y los recorridos usan arreglos de enteros en lugar de
+ * conjuntos y colas de objetos.
+ *
+ * Tiene los mismos recorridos que Grafo (BFS, DFS, camino, conexo, ciclo), con el mismo
+ * orden de visita, y además acceso por índices para algoritmos que necesitan velocidad.
+ *
+ * Casos de uso en el proyecto Días Vet:
+ * - Mapa de ubicaciones para delivery, que se arma una vez y se consulta mucho
+ * - Red de referidos entre clientes
+ *
+ * @param <T> Tipo de dato para los vértices
+ */
+public class GrafoCompacto<T> {
+
+    private final Object[] vertices;          // índice -> vértice
+    private final Map<T, Integer> indices;    // vértice -> índice
+    private final int[] inicio;               // V + 1 posiciones
+    private final int[] destinos;             // Índice del vértice destino de cada arista
+    private final double[] pesos;             // null si todas las aristas pesan 1.0
+    private final boolean esDirigido;
+    private final int numeroAristas;
+
+    GrafoCompacto(Object[] vertices, Map<T, Integer> indices, int[] inicio, int[] destinos,
+                  double[] pesos, boolean esDirigido, int numeroAristas) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.inicio = inicio;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.esDirigido = esDirigido;
+        this.numeroAristas = numeroAristas;
+    }
+
+    // =====================================================
+    // ACCESO POR ÍNDICES
+    // =====================================================
+
+    /**
+     * @param vertice Un vértice
+     * @return Su índice, o -1 si no está en el grafo
+     */
+    public int indice(T vertice) {
+        Integer indice = indices.get(vertice);
+        return indice != null ? indice : -1;
+    }
+
+    /**
+     * @param indice Índice entre 0 y getNumeroVertices() - 1
+     * @return El vértice con ese índice
+     */
+    @SuppressWarnings("unchecked")
+    public T vertice(int indice) {
+        return (T) vertices[indice];
+    }
+
+    /**
+     * Primera arista del vértice: sus aristas van de inicioAristas(v) a finAristas(v) - 1.
+     * Complejidad: O(1)
+     */
+    public int inicioAristas(int vertice) {
+        return inicio[vertice];
+    }
+
+    /**
+     * Posición siguiente a la última arista del vértice.
+     * Complejidad: O(1)
+     */
+    public int finAristas(int vertice) {
+        return inicio[vertice + 1];
+    }
+
+    /**
+     * @param arista Posición de la arista
+     * @return Índice del vértice destino
+     */
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    /**
+     * @param arista Posición de la arista
+     * @return Peso de la arista
+     */
+    public double peso(int arista) {
+        return pesos != null ? pesos[arista] : 1.0;
+    }
+
+    // =====================================================
+    // INFORMACIÓN DEL GRAFO
+    // =====================================================
+
+    /**
+     * @return Número de vértices en el grafo
+     */
+    public int getNumeroVertices() {
+        return vertices.length;
+    }
+
+    /**
+     * @return Número de aristas en el grafo (como en Grafo, una arista no dirigida cuenta una vez)
+     */
+    public int getNumeroAristas() {
+        return numeroAristas;
+    }
+
+    /**
+     * @return true si el grafo está vacío
+     */
+    public boolean estaVacio() {
+        return vertices.length == 0;
+    }
+
+    /**
+     * @return true si el grafo es dirigido
+     */
+    public boolean esDirigido() {
+        return esDirigido;
+    }
+
+    /**
+     * Verifica si existe una arista entre dos vértices.
+     * Complejidad: O(grado del vértice origen)
+     */
+    public boolean existeArista(T origen, T destino) {
+        return buscarArista(indice(origen), indice(destino)) >= 0;
+    }
+
+    /**
+     * Obtiene el peso de una arista.
+     * @return El peso de la arista, o -1 si no existe
+     */
+    public double obtenerPeso(T origen, T destino) {
+        int arista = buscarArista(indice(origen), indice(destino));
+        return arista >= 0 ? peso(arista) : -1;
+    }
+
+    /**
+     * Obtiene los vecinos de un vértice.
+     * @return Lista de vértices adyacentes
+     */
+    public List<T> obtenerVecinos(T vertice) {
+        int v = indice(vertice);
+        if (v < 0) {
+            return new ArrayList<>();
+        }
+        List<T> vecinos = new ArrayList<>(inicio[v + 1] - inicio[v]);
+        for (int a = inicio[v]; a < inicio[v + 1]; a++) {
+            vecinos.add(vertice(destinos[a]));
+        }
+        return vecinos;
+    }
+
+    /**
+     * Obtiene el grado de un vértice (número de aristas conectadas).
+     * Complejidad: O(1)
+     */
+    public int obtenerGrado(T vertice) {
+        int v = indice(vertice);
+        return v < 0 ? 0 : inicio[v + 1] - inicio[v];
+    }
+
+    /**
+     * Estimación de la memoria de los arreglos CSR y del mapa de índices (sin los vértices en sí).
+     * @return Bytes aproximados
+     */
+    public long getMemoriaEstimadaBytes() {
+        long bytes = 16 + 4L * vertices.length;                 // vertices (referencias comprimidas)
+        bytes += 16 + 4L * inicio.length;
+        bytes += 16 + 4L * destinos.length;
+        bytes += pesos != null ? 16 + 8L * pesos.length : 0;
+        bytes += 64L * indices.size();                          // Entrada de HashMap + Integer
+        return bytes;
+    }
+
+    // =====================================================
+    // RECORRIDOS
+    // =====================================================
+
+    /**
+     * Recorrido en Anchura (BFS), con el mismo orden de visita que {@link Grafo#recorridoBFS}.
+     * Complejidad: O(V + E)
+     * @param inicio Vértice inicial
+     * @return Lista con el orden de visita
+     */
+    public List<T> recorridoBFS(T inicio) {
+        int origen = indice(inicio);
+        if (origen < 0) {
+            return new ArrayList<>();
+        }
+        int[] orden = bfs(origen, new boolean[vertices.length]);
+        return aVertices(orden, orden.length);
+    }
+
+    /**
+     * Recorrido en Profundidad (DFS) con pila explícita, con el mismo orden de visita
+     * que {@link Grafo#recorridoDFS}.
+     * Complejidad: O(V + E)
+     * @param inicio Vértice inicial
+     * @return Lista con el orden de visita
+     */
+    public List<T> recorridoDFS(T inicio) {
+        int origen = indice(inicio);
+        if (origen < 0) {
+            return new ArrayList<>();
+        }
+        boolean[] visitados = new boolean[vertices.length];
+        int[] pila = new int[destinos.length + 1]; // Cada arista apila a lo sumo una vez
+        int tope = 0;
+        int[] orden = new int[vertices.length];
+        int visitadosTotal = 0;
+
+        pila[tope++] = origen;
+        while (tope > 0) {
+            int actual = pila[--tope];
+            if (!visitados[actual]) {
+                visitados[actual] = true;
+                orden[visitadosTotal++] = actual;
+                for (int a = this.inicio[actual]; a < this.inicio[actual + 1]; a++) {
+                    if (!visitados[destinos[a]]) {
+                        pila[tope++] = destinos[a];
+                    }
+                }
+            }
+        }
+        return aVertices(orden, visitadosTotal);
+    }
+
+    // =====================================================
+    // ALGORITMOS ADICIONALES
+    // =====================================================
+
+    /**
+     * Encuentra el camino con menos aristas entre dos vértices (sin considerar pesos), con BFS.
+     * @param origen Vértice de inicio
+     * @param destino Vértice de destino
+     * @return Lista con el camino, o lista vacía si no existe
+     */
+    public List<T> encontrarCamino(T origen, T destino) {
+        List<T> camino = new ArrayList<>();
+        int desde = indice(origen);
+        int hasta = indice(destino);
+        if (desde < 0 || hasta < 0) {
+            return camino;
+        }
+        if (desde == hasta) {
+            camino.add(origen);
+            return camino;
+        }
+
+        // BFS con seguimiento de padres (-1 = no visitado)
+        int[] padres = new int[vertices.length];
+        Arrays.fill(padres, -1);
+        padres[desde] = desde;
+        int[] cola = new int[vertices.length];
+        int frente = 0;
+        int fin = 0;
+        cola[fin++] = desde;
+
+        boolean encontrado = false;
+        while (frente < fin && !encontrado) {
+            int actual = cola[frente++];
+            for (int a = inicio[actual]; a < inicio[actual + 1]; a++) {
+                int vecino = destinos[a];
+                if (padres[vecino] < 0) {
+                    padres[vecino] = actual;
+                    if (vecino == hasta) {
+                        encontrado = true;
+                        break;
+                    }
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+
+        // Reconstruir el camino desde el destino y darlo vuelta
+        if (encontrado) {
+            for (int v = hasta; v != desde; v = padres[v]) {
+                camino.add(vertice(v));
+            }
+            camino.add(origen);
+            Collections.reverse(camino);
+        }
+        return camino;
+    }
+
+    /**
+     * Verifica si el grafo es conexo: igual que {@link Grafo#esConexo}, todos los vértices
+     * deben ser alcanzables desde el primero.
+     * @return true si el grafo es conexo
+     */
+    public boolean esConexo() {
+        if (estaVacio()) {
+            return true;
+        }
+        return bfs(0, new boolean[vertices.length]).length == vertices.length;
+    }
+
+    /**
+     * Detecta si existe un ciclo en el grafo, con las mismas reglas que {@link Grafo#tieneCiclo}
+     * (en grafos no dirigidos se ignora la arista hacia el padre). Usa una pila explícita de
+     * (vértice, próxima arista), así que no depende de la profundidad de la pila de llamadas.
+     * Complejidad: O(V + E)
+     * @return true si existe al menos un ciclo
+     */
+    public boolean tieneCiclo() {
+        final byte enPila = 1;
+        final byte terminado = 2;
+        int n = vertices.length;
+        byte[] estado = new byte[n];
+        int[] pilaVertices = new int[n];
+        int[] pilaArista = new int[n];  // Próxima arista a revisar de cada vértice apilado
+
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (estado[raiz] != 0) {
+                continue;
+            }
+            int tope = 0;
+            pilaVertices[0] = raiz;
+            pilaArista[0] = inicio[raiz];
+            estado[raiz] = enPila;
+            while (tope >= 0) {
+                int actual = pilaVertices[tope];
+                int padre = tope > 0 ? pilaVertices[tope - 1] : -1;
+                if (pilaArista[tope] == inicio[actual + 1]) {
+                    estado[actual] = terminado;
+                    tope--;
+                    continue;
+                }
+                int vecino = destinos[pilaArista[tope]++];
+                if (!esDirigido && vecino == padre) {
+                    continue;
+                }
+                if (estado[vecino] == enPila) {
+                    return true; // Encontramos un ciclo
+                }
+                if (estado[vecino] == 0) {
+                    estado[vecino] = enPila;
+                    tope++;
+                    pilaVertices[tope] = vecino;
+                    pilaArista[tope] = inicio[vecino];
+                }
+            }
+        }
+        return false;
+    }
+
+    // Devuelve los índices alcanzables desde origen en orden BFS
+    private int[] bfs(int origen, boolean[] visitados) {
+        int[] cola = new int[vertices.length];
+        int frente = 0;
+        int fin = 0;
+        cola[fin++] = origen;
+        visitados[origen] = true;
+        while (frente < fin) {
+            int actual = cola[frente++];
+            for (int a = inicio[actual]; a < inicio[actual + 1]; a++) {
+                int vecino = destinos[a];
+                if (!visitados[vecino]) {
+                    visitados[vecino] = true;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+        return fin == cola.length ? cola : Arrays.copyOf(cola, fin);
+    }
+
+    private int buscarArista(int origen, int destino) {
+        if (origen < 0 || destino < 0) {
+            return -1;
+        }
+        for (int a = inicio[origen]; a < inicio[origen + 1]; a++) {
+            if (destinos[a] == destino) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    private List<T> aVertices(int[] orden, int cantidad) {
+        List<T> resultado = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            resultado.add(vertice(orden[i]));
+        }
+        return resultado;
+    }
+}
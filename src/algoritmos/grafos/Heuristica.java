@@ -0,0 +1,44 @@
+package algoritmos.grafos;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estimación del costo que falta para llegar de un vértice al destino, usada por
+ * {@link RutasMasCortas#aEstrella}. Para que A* encuentre la ruta más corta la estimación
+ * nunca debe superar el costo real (admisible).
+ *
+ * @param <T> Tipo de dato para los vértices
+ */
+public interface Heuristica<T> {
+
+    double estimar(T desde, T destino);
+
+    /**
+     * Siempre 0: A* se comporta como Dijkstra.
+     */
+    static <T> Heuristica<T> nula() {
+        return (desde, destino) -> 0;
+    }
+
+    /**
+     * Distancia en línea recta entre las coordenadas de los vértices, multiplicada por
+     * el costo mínimo por unidad de distancia (p. ej. minutos por metro a velocidad máxima).
+     * Es admisible si ninguna arista cuesta menos que costoMinimo * su largo en línea recta.
+     */
+    static <T> Heuristica<T> euclidiana(ToDoubleFunction<T> x, ToDoubleFunction<T> y, double costoMinimo) {
+        return (desde, destino) -> {
+            double dx = x.applyAsDouble(desde) - x.applyAsDouble(destino);
+            double dy = y.applyAsDouble(desde) - y.applyAsDouble(destino);
+            return Math.sqrt(dx * dx + dy * dy) * costoMinimo;
+        };
+    }
+
+    /**
+     * Distancia en cuadras (|dx| + |dy|) por el costo mínimo por unidad, para mapas
+     * donde solo se circula en dos direcciones perpendiculares.
+     */
+    static <T> Heuristica<T> manhattan(ToDoubleFunction<T> x, ToDoubleFunction<T> y, double costoMinimo) {
+        return (desde, destino) -> (Math.abs(x.applyAsDouble(desde) - x.applyAsDouble(destino))
+                + Math.abs(y.applyAsDouble(desde) - y.applyAsDouble(destino))) * costoMinimo;
+    }
+}
@@ -0,0 +1,425 @@
+package algoritmos.grafos;
+
+import algoritmos.lineales.ColaPrioridadIndexada;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rutas más cortas con pesos (Dijkstra y A*) sobre un {@link GrafoCompacto}, y orden de
+ * visita de varias paradas para el delivery del Pet Shop.
+ *
+ * Los arreglos de distancias y padres y la cola se crean una vez y se reutilizan en cada
+ * consulta: una marca de "generación" por vértice indica si su distancia es de la consulta
+ * actual, así que una consulta corta no paga O(V) en limpiar. Por eso una instancia no se
+ * debe usar desde varios hilos a la vez (se puede crear una por hilo sobre el mismo grafo).
+ *
+ * Los pesos deben ser no negativos.
+ *
+ * @param <T> Tipo de dato para los vértices
+ */
+public class RutasMasCortas<T> {
+
+    private final GrafoCompacto<T> grafo;
+    private final double[] distancias;
+    private final int[] padres;
+    private final double[] estimaciones;   // Heurística de cada vértice (A*), calculada una vez por consulta
+    private final int[] marcas;            // Generación en la que se alcanzó cada vértice
+    private final ColaPrioridadIndexada cola;
+    private int generacion;
+    private int nodosExplorados;
+
+    /**
+     * @param grafo El grafo congelado (ver {@link Grafo#congelar()})
+     * @throws IllegalArgumentException Si alguna arista tiene peso negativo
+     */
+    public RutasMasCortas(GrafoCompacto<T> grafo) {
+        int numeroVertices = grafo.getNumeroVertices();
+        int totalAristas = grafo.inicioAristas(numeroVertices);
+        for (int a = 0; a < totalAristas; a++) {
+            if (!(grafo.peso(a) >= 0)) {
+                throw new IllegalArgumentException("Dijkstra y A* requieren pesos no negativos: " + grafo.peso(a));
+            }
+        }
+        this.grafo = grafo;
+        this.distancias = new double[numeroVertices];
+        this.padres = new int[numeroVertices];
+        this.estimaciones = new double[numeroVertices];
+        this.marcas = new int[numeroVertices];
+        this.cola = new ColaPrioridadIndexada(numeroVertices);
+    }
+
+    /**
+     * Ruta de menor costo total (suma de pesos) entre dos vértices.
+     * Complejidad: O((V + E) log V), y se detiene al llegar al destino
+     * @param origen Vértice de inicio
+     * @param destino Vértice de destino
+     * @return La ruta; vacía con distancia infinita si no existe
+     */
+    public Ruta<T> dijkstra(T origen, T destino) {
+        return aEstrella(origen, destino, null);
+    }
+
+    /**
+     * Igual que {@link #dijkstra}, pero explora primero los vértices que la heurística
+     * estima más cerca del destino. Con una heurística admisible la ruta es igual de corta
+     * y se exploran muchos menos vértices.
+     * @param origen Vértice de inicio
+     * @param destino Vértice de destino
+     * @param heuristica Estimación del costo restante (null equivale a Dijkstra)
+     * @return La ruta; vacía con distancia infinita si no existe
+     */
+    public Ruta<T> aEstrella(T origen, T destino, Heuristica<T> heuristica) {
+        int desde = grafo.indice(origen);
+        int hasta = grafo.indice(destino);
+        if (desde < 0 || hasta < 0) {
+            return new Ruta<>(new ArrayList<>(), Double.POSITIVE_INFINITY, 0);
+        }
+        explorar(desde, hasta, null, 0, heuristica);
+        if (!alcanzado(hasta)) {
+            return new Ruta<>(new ArrayList<>(), Double.POSITIVE_INFINITY, nodosExplorados);
+        }
+        return new Ruta<>(reconstruir(desde, hasta), distancias[hasta], nodosExplorados);
+    }
+
+    /**
+     * Costo mínimo desde un vértice hacia todos los demás.
+     * Complejidad: O((V + E) log V)
+     * @param origen Vértice de inicio
+     * @return Distancias indexadas por {@link GrafoCompacto#indice}; infinito si no se alcanza
+     */
+    public double[] distanciasDesde(T origen) {
+        double[] resultado = new double[grafo.getNumeroVertices()];
+        Arrays.fill(resultado, Double.POSITIVE_INFINITY);
+        int desde = grafo.indice(origen);
+        if (desde < 0) {
+            return resultado;
+        }
+        explorar(desde, -1, null, 0, null);
+        for (int v = 0; v < resultado.length; v++) {
+            if (alcanzado(v)) {
+                resultado[v] = distancias[v];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Decide en qué orden visitar varias paradas saliendo del depósito, y arma la ruta completa.
+     *
+     * Primero calcula el costo entre cada par de puntos (un Dijkstra por punto, que se detiene
+     * cuando alcanzó a todos), luego arma un orden con el vecino más cercano alcanzable, inserta
+     * donde cueste menos las paradas que ese recorrido no pudo encadenar (p. ej. por calles de un
+     * solo sentido) y lo mejora con 2-opt (invertir tramos) y reubicando paradas mientras baje
+     * el costo. Es una aproximación: para pocas paradas suele coincidir con el óptimo, pero no
+     * lo garantiza.
+     * Complejidad: O(k (V + E) log V + k^3 por pasada de mejora), con k = cantidad de paradas
+     *
+     * @param deposito Punto de salida
+     * @param paradas Vértices a visitar (los repetidos se visitan una vez)
+     * @param volverAlDeposito true si la ruta termina de vuelta en el depósito
+     * @return La ruta de entrega; en getNoAlcanzables() quedan las paradas que no se pueden alcanzar
+     *         desde el depósito (o desde las que no se puede volver), y las que no caben en ningún
+     *         punto de una ruta posible (en grafos dirigidos, dos paradas sin camino entre ellas)
+     * @throws IllegalArgumentException Si el depósito no está en el grafo
+     */
+    public RutaEntrega<T> ordenarEntregas(T deposito, List<T> paradas, boolean volverAlDeposito) {
+        int origen = grafo.indice(deposito);
+        if (origen < 0) {
+            throw new IllegalArgumentException("El depósito no está en el grafo: " + deposito);
+        }
+        List<T> noAlcanzables = new ArrayList<>();
+        Set<Integer> unicos = new LinkedHashSet<>();
+        unicos.add(origen);
+        for (T parada : paradas) {
+            int indice = grafo.indice(parada);
+            if (indice < 0) {
+                noAlcanzables.add(parada);
+            } else {
+                unicos.add(indice);
+            }
+        }
+        int[] puntos = new int[unicos.size()];
+        int k = 0;
+        for (int indice : unicos) {
+            puntos[k++] = indice;
+        }
+
+        // Matriz de costos entre puntos (0 = depósito)
+        boolean[] esPunto = new boolean[grafo.getNumeroVertices()];
+        for (int punto : puntos) {
+            esPunto[punto] = true;
+        }
+        double[][] costos = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            explorar(puntos[i], -1, esPunto, k, null);
+            for (int j = 0; j < k; j++) {
+                costos[i][j] = alcanzado(puntos[j]) ? distancias[puntos[j]] : Double.POSITIVE_INFINITY;
+            }
+        }
+
+        // Lo que no se puede alcanzar desde el depósito (o desde donde no se puede volver) queda afuera
+        List<Integer> orden = new ArrayList<>();
+        boolean[] asignado = new boolean[k];
+        asignado[0] = true;
+        for (int j = 1; j < k; j++) {
+            if (costos[0][j] == Double.POSITIVE_INFINITY
+                    || (volverAlDeposito && costos[j][0] == Double.POSITIVE_INFINITY)) {
+                asignado[j] = true;
+                noAlcanzables.add(grafo.vertice(puntos[j]));
+            }
+        }
+        // Vecino más cercano entre los alcanzables desde la parada actual
+        int actual = 0;
+        while (true) {
+            int siguiente = -1;
+            for (int j = 1; j < k; j++) {
+                if (!asignado[j] && costos[actual][j] != Double.POSITIVE_INFINITY
+                        && (siguiente < 0 || costos[actual][j] < costos[actual][siguiente])) {
+                    siguiente = j;
+                }
+            }
+            if (siguiente < 0) {
+                break;
+            }
+            asignado[siguiente] = true;
+            orden.add(siguiente);
+            actual = siguiente;
+        }
+
+        // Las paradas que quedaron se insertan donde menos encarezcan la ruta; se repite porque
+        // insertar una puede abrir un camino hacia otra
+        boolean inserto = true;
+        while (inserto) {
+            inserto = false;
+            for (int j = 1; j < k; j++) {
+                if (!asignado[j] && insertarDondeMenosCueste(orden, j, costos, volverAlDeposito)) {
+                    asignado[j] = true;
+                    inserto = true;
+                }
+            }
+        }
+        for (int j = 1; j < k; j++) {
+            if (!asignado[j]) {
+                noAlcanzables.add(grafo.vertice(puntos[j]));
+            }
+        }
+
+        mejorarOrden(orden, costos, volverAlDeposito);
+
+        // Ruta completa uniendo los tramos entre puntos consecutivos
+        List<T> ordenParadas = new ArrayList<>();
+        List<T> recorrido = new ArrayList<>();
+        recorrido.add(deposito);
+        double total = 0;
+        int anterior = 0;
+        List<Integer> tramos = new ArrayList<>(orden);
+        if (volverAlDeposito && !orden.isEmpty()) {
+            tramos.add(0);
+        }
+        for (int punto : tramos) {
+            if (punto != 0) {
+                ordenParadas.add(grafo.vertice(puntos[punto]));
+            }
+            explorar(puntos[anterior], puntos[punto], null, 0, null);
+            List<T> tramo = reconstruir(puntos[anterior], puntos[punto]);
+            recorrido.addAll(tramo.subList(1, tramo.size()));
+            total += costos[anterior][punto];
+            anterior = punto;
+        }
+        return new RutaEntrega<>(ordenParadas, recorrido, total, noAlcanzables);
+    }
+
+    // Prueba la parada en cada posición del orden y la deja en la más barata; false si en ninguna
+    // posición la ruta completa tiene costo finito
+    private boolean insertarDondeMenosCueste(List<Integer> orden, int parada, double[][] costos,
+                                             boolean volverAlDeposito) {
+        int mejorPosicion = -1;
+        double mejorCosto = Double.POSITIVE_INFINITY;
+        for (int posicion = 0; posicion <= orden.size(); posicion++) {
+            orden.add(posicion, parada);
+            double costo = costoOrden(orden, costos, volverAlDeposito);
+            orden.remove(posicion);
+            if (costo < mejorCosto) {
+                mejorCosto = costo;
+                mejorPosicion = posicion;
+            }
+        }
+        if (mejorPosicion < 0) {
+            return false;
+        }
+        orden.add(mejorPosicion, parada);
+        return true;
+    }
+
+    // Búsqueda local hasta que nada mejore: 2-opt (invertir el tramo i..j) y
+    // reubicación (sacar una parada y ponerla en otra posición)
+    private void mejorarOrden(List<Integer> orden, double[][] costos, boolean volverAlDeposito) {
+        double mejorCosto = costoOrden(orden, costos, volverAlDeposito);
+        boolean mejoro = true;
+        while (mejoro) {
+            mejoro = false;
+            for (int i = 0; i < orden.size() - 1; i++) {
+                for (int j = i + 1; j < orden.size(); j++) {
+                    Collections.reverse(orden.subList(i, j + 1));
+                    double costo = costoOrden(orden, costos, volverAlDeposito);
+                    if (costo < mejorCosto - 1e-9) {
+                        mejorCosto = costo;
+                        mejoro = true;
+                    } else {
+                        Collections.reverse(orden.subList(i, j + 1));
+                    }
+                }
+            }
+            for (int i = 0; i < orden.size(); i++) {
+                for (int j = 0; j < orden.size(); j++) {
+                    if (i == j) {
+                        continue;
+                    }
+                    orden.add(j, orden.remove(i));
+                    double costo = costoOrden(orden, costos, volverAlDeposito);
+                    if (costo < mejorCosto - 1e-9) {
+                        mejorCosto = costo;
+                        mejoro = true;
+                    } else {
+                        orden.add(i, orden.remove(j));
+                    }
+                }
+            }
+        }
+    }
+
+    // Se recalcula entero (O(k)) porque en grafos dirigidos invertir un tramo cambia el costo de cada arista
+    private double costoOrden(List<Integer> orden, double[][] costos, boolean volverAlDeposito) {
+        double costo = 0;
+        int anterior = 0;
+        for (int punto : orden) {
+            costo += costos[anterior][punto];
+            anterior = punto;
+        }
+        return volverAlDeposito ? costo + costos[anterior][0] : costo;
+    }
+
+    /**
+     * Núcleo común: A* (Dijkstra si heuristica es null) desde origen. Se detiene al extraer
+     * el destino, o cuando se extrajeron todos los objetivos marcados, o al vaciar la cola.
+     */
+    private void explorar(int origen, int destino, boolean[] objetivos, int pendientes, Heuristica<T> heuristica) {
+        nuevaConsulta();
+        T verticeDestino = heuristica != null ? grafo.vertice(destino) : null;
+        alcanzar(origen, 0, -1, heuristica, verticeDestino);
+        cola.encolar(origen, estimaciones[origen]);
+
+        while (!cola.estaVacia()) {
+            int actual = cola.desencolar();
+            nodosExplorados++;
+            if (actual == destino) {
+                break;
+            }
+            if (objetivos != null && objetivos[actual] && --pendientes == 0) {
+                break;
+            }
+            double base = distancias[actual];
+            for (int a = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); a < fin; a++) {
+                int vecino = grafo.destino(a);
+                double nueva = base + grafo.peso(a);
+                if (!alcanzado(vecino)) {
+                    alcanzar(vecino, nueva, actual, heuristica, verticeDestino);
+                    cola.encolar(vecino, nueva + estimaciones[vecino]);
+                } else if (nueva < distancias[vecino]) {
+                    // Con una heurística no consistente un vértice ya extraído puede volver a la cola
+                    distancias[vecino] = nueva;
+                    padres[vecino] = actual;
+                    cola.encolar(vecino, nueva + estimaciones[vecino]);
+                }
+            }
+        }
+    }
+
+    private void alcanzar(int vertice, double distancia, int padre, Heuristica<T> heuristica, T verticeDestino) {
+        marcas[vertice] = generacion;
+        distancias[vertice] = distancia;
+        padres[vertice] = padre;
+        estimaciones[vertice] = heuristica != null ? heuristica.estimar(grafo.vertice(vertice), verticeDestino) : 0;
+    }
+
+    private boolean alcanzado(int vertice) {
+        return marcas[vertice] == generacion;
+    }
+
+    private void nuevaConsulta() {
+        cola.limpiar();
+        nodosExplorados = 0;
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0); // Cada ~2 mil millones de consultas
+            generacion = 1;
+        }
+    }
+
+    private List<T> reconstruir(int origen, int destino) {
+        List<T> camino = new ArrayList<>();
+        for (int v = destino; v != origen; v = padres[v]) {
+            camino.add(grafo.vertice(v));
+        }
+        camino.add(grafo.vertice(origen));
+        Collections.reverse(camino);
+        return camino;
+    }
+
+    /**
+     * Resultado de una consulta de origen a destino.
+     */
+    public static class Ruta<T> {
+        private final List<T> vertices;
+        private final double distancia;
+        private final int nodosExplorados;
+
+        Ruta(List<T> vertices, double distancia, int nodosExplorados) {
+            this.vertices = vertices;
+            this.distancia = distancia;
+            this.nodosExplorados = nodosExplorados;
+        }
+
+        /** @return Los vértices del origen al destino (vacía si no hay ruta) */
+        public List<T> getVertices() { return vertices; }
+
+        /** @return Suma de los pesos de la ruta (infinito si no hay ruta) */
+        public double getDistancia() { return distancia; }
+
+        /** @return Vértices que se sacaron de la cola para encontrarla (mide el trabajo de la búsqueda) */
+        public int getNodosExplorados() { return nodosExplorados; }
+
+        public boolean existe() { return !vertices.isEmpty(); }
+    }
+
+    /**
+     * Resultado de {@link #ordenarEntregas}.
+     */
+    public static class RutaEntrega<T> {
+        private final List<T> ordenParadas;
+        private final List<T> recorrido;
+        private final double distanciaTotal;
+        private final List<T> noAlcanzables;
+
+        RutaEntrega(List<T> ordenParadas, List<T> recorrido, double distanciaTotal, List<T> noAlcanzables) {
+            this.ordenParadas = ordenParadas;
+            this.recorrido = recorrido;
+            this.distanciaTotal = distanciaTotal;
+            this.noAlcanzables = noAlcanzables;
+        }
+
+        /** @return Las paradas en el orden en que se visitan */
+        public List<T> getOrdenParadas() { return ordenParadas; }
+
+        /** @return Todos los vértices por los que pasa la ruta, desde el depósito */
+        public List<T> getRecorrido() { return recorrido; }
+
+        public double getDistanciaTotal() { return distanciaTotal; }
+
+        /** @return Paradas que no están en el grafo o no se pueden alcanzar desde el depósito */
+        public List<T> getNoAlcanzables() { return noAlcanzables; }
+    }
+}
@@ -0,0 +1,156 @@
+package algoritmos.lineales;
+
+import java.util.Arrays;
+
+/**
+ * Cola con Prioridad indexada: un Heap Mínimo binario sobre enteros 0..capacidad-1
+ * (p. ej. los índices de los vértices de un grafo) con prioridad double.
+ *
+ * A diferencia de {@link ColaPrioridad}, cada elemento está a lo sumo una vez y su
+ * prioridad se puede bajar en O(log n) (decrease-key), que es lo que necesitan Dijkstra
+ * y A*: en lugar de encolar duplicados, se reubica el que ya está.
+ *
+ * No crea objetos por elemento: el heap y las posiciones son arreglos de enteros.
+ */
+public class ColaPrioridadIndexada {
+
+    private final int[] heap;          // Posición en el heap -> elemento
+    private final int[] posiciones;    // Elemento -> posición en el heap, -1 si no está
+    private final double[] prioridades;
+    private int tamano;
+
+    /**
+     * @param capacidad Los elementos válidos son 0..capacidad-1
+     */
+    public ColaPrioridadIndexada(int capacidad) {
+        this.heap = new int[capacidad];
+        this.posiciones = new int[capacidad];
+        this.prioridades = new double[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /**
+     * Agrega un elemento, o baja su prioridad si ya estaba con una mayor.
+     * Complejidad: O(log n)
+     * @param elemento Entero entre 0 y capacidad-1
+     * @param prioridad Menor valor = mayor prioridad
+     * @return true si se agregó o se bajó su prioridad
+     */
+    public boolean encolar(int elemento, double prioridad) {
+        int posicion = posiciones[elemento];
+        if (posicion < 0) {
+            posicion = tamano++;
+            heap[posicion] = elemento;
+            posiciones[elemento] = posicion;
+        } else if (prioridad >= prioridades[elemento]) {
+            return false;
+        }
+        prioridades[elemento] = prioridad;
+        subir(posicion);
+        return true;
+    }
+
+    /**
+     * Remueve y retorna el elemento con menor prioridad.
+     * Complejidad: O(log n)
+     */
+    public int desencolar() {
+        if (tamano == 0) {
+            throw new IllegalStateException("Cola de prioridad vacía");
+        }
+        int minimo = heap[0];
+        tamano--;
+        if (tamano > 0) {
+            heap[0] = heap[tamano];
+            posiciones[heap[0]] = 0;
+            bajar(0);
+        }
+        posiciones[minimo] = -1;
+        return minimo;
+    }
+
+    /**
+     * @return El elemento con menor prioridad, sin quitarlo
+     */
+    public int verFrente() {
+        if (tamano == 0) {
+            throw new IllegalStateException("Cola de prioridad vacía");
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return La prioridad del elemento del frente
+     */
+    public double verPrioridadFrente() {
+        if (tamano == 0) {
+            throw new IllegalStateException("Cola de prioridad vacía");
+        }
+        return prioridades[heap[0]];
+    }
+
+    /**
+     * Complejidad: O(1)
+     */
+    public boolean contiene(int elemento) {
+        return posiciones[elemento] >= 0;
+    }
+
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Vacía la cola.
+     * Complejidad: O(elementos en la cola), no O(capacidad)
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamano; i++) {
+            posiciones[heap[i]] = -1;
+        }
+        tamano = 0;
+    }
+
+    private void subir(int posicion) {
+        int elemento = heap[posicion];
+        double prioridad = prioridades[elemento];
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            int elementoPadre = heap[padre];
+            if (prioridades[elementoPadre] <= prioridad) {
+                break;
+            }
+            heap[posicion] = elementoPadre;
+            posiciones[elementoPadre] = posicion;
+            posicion = padre;
+        }
+        heap[posicion] = elemento;
+        posiciones[elemento] = posicion;
+    }
+
+    private void bajar(int posicion) {
+        int elemento = heap[posicion];
+        double prioridad = prioridades[elemento];
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= tamano) {
+                break;
+            }
+            if (hijo + 1 < tamano && prioridades[heap[hijo + 1]] < prioridades[heap[hijo]]) {
+                hijo++;
+            }
+            if (prioridad <= prioridades[heap[hijo]]) {
+                break;
+            }
+            heap[posicion] = heap[hijo];
+            posiciones[heap[posicion]] = posicion;
+            posicion = hijo;
+        }
+        heap[posicion] = elemento;
+        posiciones[elemento] = posicion;
+    }
+}
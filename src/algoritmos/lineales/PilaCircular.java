@@ -0,0 +1,144 @@
+package algoritmos.lineales;
+
+/**
+ * Pila de capacidad fija sobre un arreglo circular (ring buffer).
+ * LIFO como {@link Pila}, pero cuando está llena apilar descarta el elemento
+ * más antiguo (el del fondo) en lugar de crecer.
+ *
+ * Casos de uso en el proyecto:
+ * - Historial de Deshacer/Rehacer acotado (HistorialAccionesController)
+ *
+ * No crea un nodo por elemento: la memoria es un único arreglo de tamaño fijo.
+ *
+ * @param <T> Tipo de dato a almacenar
+ */
+public class PilaCircular<T> {
+
+    private final Object[] elementos;
+    private int fondo;   // Índice del elemento más antiguo
+    private int tamano;
+
+    /**
+     * @param capacidad Número máximo de elementos (mayor que 0)
+     */
+    public PilaCircular(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que 0");
+        }
+        this.elementos = new Object[capacidad];
+    }
+
+    /**
+     * Verifica si la pila está vacía.
+     * Complejidad: O(1)
+     */
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    /**
+     * Verifica si la pila alcanzó su capacidad.
+     * Complejidad: O(1)
+     */
+    public boolean estaLlena() {
+        return tamano == elementos.length;
+    }
+
+    /**
+     * Inserta un elemento en el tope. Si la pila está llena, descarta el más antiguo.
+     * Complejidad: O(1)
+     * @param dato Elemento a insertar
+     * @return El elemento descartado, o null si había espacio
+     */
+    public T apilar(T dato) {
+        T descartado = null;
+        if (estaLlena()) {
+            descartado = elemento(fondo);
+            elementos[fondo] = dato; // El tope nuevo ocupa el lugar del fondo viejo
+            fondo = siguiente(fondo);
+        } else {
+            elementos[indice(tamano)] = dato;
+            tamano++;
+        }
+        return descartado;
+    }
+
+    /**
+     * Elimina y retorna el elemento en el tope.
+     * Complejidad: O(1)
+     * @return El elemento en el tope
+     */
+    public T desapilar() {
+        if (estaVacia()) {
+            throw new IllegalStateException("La pila está vacía");
+        }
+        int tope = indice(tamano - 1);
+        T dato = elemento(tope);
+        elementos[tope] = null; // Sin referencias colgando: el GC puede liberar el elemento
+        tamano--;
+        return dato;
+    }
+
+    /**
+     * Retorna el elemento en el tope sin eliminarlo.
+     * Complejidad: O(1)
+     * @return El elemento en el tope, o null si está vacía
+     */
+    public T verTope() {
+        return estaVacia() ? null : elemento(indice(tamano - 1));
+    }
+
+    /**
+     * Retorna el elemento en una posición contando desde el fondo (0 = el más antiguo).
+     * Complejidad: O(1)
+     * @param posicion Posición entre 0 y getTamano() - 1
+     * @return El elemento
+     */
+    public T obtener(int posicion) {
+        if (posicion < 0 || posicion >= tamano) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + " fuera de rango (tamaño " + tamano + ")");
+        }
+        return elemento(indice(posicion));
+    }
+
+    /**
+     * Retorna el número de elementos en la pila.
+     * Complejidad: O(1)
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Retorna el número máximo de elementos.
+     * Complejidad: O(1)
+     */
+    public int getCapacidad() {
+        return elementos.length;
+    }
+
+    /**
+     * Vacía completamente la pila.
+     * Complejidad: O(n), para soltar las referencias a los elementos
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamano; i++) {
+            elementos[indice(i)] = null;
+        }
+        fondo = 0;
+        tamano = 0;
+    }
+
+    private int indice(int posicion) {
+        return (fondo + posicion) % elementos.length;
+    }
+
+    private int siguiente(int i) {
+        return i + 1 == elementos.length ? 0 : i + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elemento(int i) {
+        return (T) elementos[i];
+    }
+}
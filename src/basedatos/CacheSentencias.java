@@ -0,0 +1,297 @@
+package basedatos;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU de PreparedStatements asociada a una conexión física del pool.
+ * La clave es el texto SQL (más el modo de claves generadas), de modo que una
+ * consulta repetida como "SELECT * FROM clientes WHERE dni = ?" se analiza y
+ * planifica una sola vez por conexión.
+ *
+ * Las sentencias entregadas son envoltorios: close() limpia los parámetros y el
+ * batch pendiente, cierra el ResultSet abierto y restaura maxRows, fetchSize y
+ * queryTimeout si se cambiaron, pero deja la sentencia preparada en la caché.
+ * Si se cambió otro ajuste de la sentencia, o no se pudo limpiar, se saca de la caché.
+ * Si la misma sentencia ya está en uso (p. ej. consultas anidadas), se prepara
+ * una sentencia fuera de la caché, que se cierra de verdad al cerrarla.
+ *
+ * Cuando la conexión vuelve al pool, los envoltorios que el llamador no cerró
+ * quedan invalidados: usarlos después lanza SQLException en lugar de tocar una
+ * sentencia que ya podría estar usando otro hilo.
+ */
+class CacheSentencias {
+
+    /**
+     * Sentencia física cacheada y su estado de uso.
+     */
+    private static class Entrada {
+        final String clave;
+        final PreparedStatement sentencia;
+        // Ajustes con los que se preparó, para restaurarlos al liberar
+        final int maxRows;
+        final int fetchSize;
+        final int queryTimeout;
+        boolean enUso;
+        boolean ajustesModificados;
+        boolean descartar;
+        final List<ResultSet> resultadosAbiertos = new ArrayList<>(1);
+
+        Entrada(String clave, PreparedStatement sentencia) throws SQLException {
+            this.clave = clave;
+            this.sentencia = sentencia;
+            this.maxRows = sentencia.getMaxRows();
+            this.fetchSize = sentencia.getFetchSize();
+            this.queryTimeout = sentencia.getQueryTimeout();
+        }
+
+        /**
+         * Deja la sentencia como recién preparada: sin resultados, parámetros ni
+         * filas de batch pendientes (p. ej. si falló un lote después de addBatch()).
+         * @return false si no se pudo limpiar y hay que sacarla de la caché
+         */
+        boolean liberar() {
+            for (ResultSet rs : resultadosAbiertos) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    // El statement se reutiliza igual; el siguiente execute reinicia el cursor
+                }
+            }
+            resultadosAbiertos.clear();
+            enUso = false;
+            try {
+                sentencia.clearParameters();
+                sentencia.clearBatch();
+                if (ajustesModificados) {
+                    sentencia.setMaxRows(maxRows);
+                    sentencia.setFetchSize(fetchSize);
+                    sentencia.setQueryTimeout(queryTimeout);
+                    ajustesModificados = false;
+                }
+            } catch (SQLException e) {
+                return false;
+            }
+            return !descartar;
+        }
+    }
+
+    private final Connection conexion;
+    private final int capacidad;
+    private final LinkedHashMap<String, Entrada> entradas;
+    // Envoltorios entregados y aún no cerrados
+    private final Set<ManejadorSentencia> abiertas = new HashSet<>();
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final AtomicLong expulsiones;
+
+    /**
+     * @param conexion Conexión física dueña de las sentencias.
+     * @param capacidad Número máximo de sentencias cacheadas.
+     * @param aciertos Contador compartido de aciertos.
+     * @param fallos Contador compartido de fallos.
+     * @param expulsiones Contador compartido de expulsiones LRU.
+     */
+    CacheSentencias(Connection conexion, int capacidad, AtomicLong aciertos, AtomicLong fallos, AtomicLong expulsiones) {
+        this.conexion = conexion;
+        this.capacidad = capacidad;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.expulsiones = expulsiones;
+        // accessOrder = true convierte al LinkedHashMap en una lista LRU
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Obtiene una sentencia preparada para el SQL, reutilizándola si ya existe.
+     * @param sql Texto SQL.
+     * @param clavesGeneradas Statement.RETURN_GENERATED_KEYS o Statement.NO_GENERATED_KEYS.
+     * @param proxyConexion Conexión que se devolverá en getConnection().
+     * @return La sentencia lista para recibir parámetros.
+     * @throws SQLException Si no se pudo preparar.
+     */
+    PreparedStatement preparar(String sql, int clavesGeneradas, Connection proxyConexion) throws SQLException {
+        String clave = clavesGeneradas == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entrada entrada = entradas.get(clave);
+
+        if (entrada != null && entrada.enUso) {
+            // Uso anidado de la misma sentencia: no se comparte y se cierra al liberarla
+            fallos.incrementAndGet();
+            entrada = new Entrada(clave, conexion.prepareStatement(sql, clavesGeneradas));
+            entrada.descartar = true;
+            entrada.enUso = true;
+        } else if (entrada == null) {
+            fallos.incrementAndGet();
+            entrada = new Entrada(clave, conexion.prepareStatement(sql, clavesGeneradas));
+            entrada.enUso = true;
+            entradas.put(clave, entrada);
+            expulsarSobrantes();
+        } else {
+            aciertos.incrementAndGet();
+            entrada.enUso = true;
+        }
+
+        ManejadorSentencia manejador = new ManejadorSentencia(entrada, proxyConexion);
+        abiertas.add(manejador);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                manejador);
+    }
+
+    // Expulsa las sentencias libres menos usadas hasta volver a la capacidad; las que están
+    // en uso se saltan (si todas lo están, la caché queda excedida hasta que se liberen)
+    private void expulsarSobrantes() {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (entradas.size() > capacidad && it.hasNext()) {
+            Entrada candidata = it.next();
+            if (!candidata.enUso) {
+                it.remove();
+                cerrarSilenciosamente(candidata.sentencia);
+                expulsiones.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Libera una sentencia y la saca de la caché si no quedó reutilizable.
+     */
+    private void liberar(Entrada entrada) {
+        if (!entrada.liberar()) {
+            entradas.remove(entrada.clave, entrada);
+            cerrarSilenciosamente(entrada.sentencia);
+        } else {
+            expulsarSobrantes(); // Pudo quedar excedida mientras todas estaban en uso
+        }
+    }
+
+    /**
+     * Libera todas las sentencias en uso e invalida sus envoltorios. Se llama cuando la
+     * conexión vuelve al pool, ya que cerrar una conexión JDBC implica cerrar sus sentencias.
+     */
+    void liberarTodas() {
+        for (ManejadorSentencia manejador : new ArrayList<>(abiertas)) {
+            manejador.cerrar();
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias cacheadas. Se llama antes de cerrar la conexión física.
+     */
+    void cerrarTodas() {
+        liberarTodas();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            cerrarSilenciosamente(it.next().sentencia);
+            it.remove();
+        }
+    }
+
+    /**
+     * @return Número de sentencias actualmente cacheadas
+     */
+    int getTamano() {
+        return entradas.size();
+    }
+
+    private static void cerrarSilenciosamente(Statement sentencia) {
+        try {
+            sentencia.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar sentencia cacheada: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Intercepta close() para devolver la sentencia a la caché, registra el
+     * ResultSet abierto para cerrarlo al liberar y anota los ajustes cambiados.
+     */
+    private class ManejadorSentencia implements InvocationHandler {
+        private final Entrada entrada;
+        private final Connection proxyConexion;
+        private boolean cerrada;
+
+        ManejadorSentencia(Entrada entrada, Connection proxyConexion) {
+            this.entrada = entrada;
+            this.proxyConexion = proxyConexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    cerrar();
+                    return null;
+                case "isClosed":
+                    return cerrada || entrada.sentencia.isClosed();
+                case "getConnection":
+                    return proxyConexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + entrada.sentencia + "]";
+                default:
+                    break;
+            }
+            if (cerrada) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            anotarAjuste(metodo.getName());
+            try {
+                Object resultado = metodo.invoke(entrada.sentencia, args);
+                if (resultado instanceof ResultSet) {
+                    entrada.resultadosAbiertos.add((ResultSet) resultado);
+                }
+                return resultado;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void cerrar() {
+            if (!cerrada) {
+                cerrada = true;
+                abiertas.remove(this);
+                liberar(entrada);
+            }
+        }
+
+        private void anotarAjuste(String metodo) {
+            switch (metodo) {
+                case "setMaxRows":
+                case "setFetchSize":
+                case "setQueryTimeout":
+                    entrada.ajustesModificados = true;
+                    break;
+                case "setLargeMaxRows":
+                case "setMaxFieldSize":
+                case "setFetchDirection":
+                case "setEscapeProcessing":
+                case "setCursorName":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    // Ajustes que no se restauran: la sentencia no vuelve a la caché
+                    entrada.descartar = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
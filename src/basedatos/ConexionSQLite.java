@@ -1,9 +1,9 @@
 package basedatos;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
 
 /**
  * Gestiona la conexión con la base de datos SQLite.
@@ -14,22 +14,198 @@ public class ConexionSQLite {
 
     private static final String URL = "jdbc:sqlite:veterinaria_dias_vet.db";
 
+    // Configuración del pool de conexiones
+    private static final int MAX_CONEXIONES = 4;
+    private static final long TIEMPO_MAX_ESPERA_MS = 5_000;
+    private static final long TIEMPO_MAX_INACTIVIDAD_MS = 60_000;
+    private static final int MAX_SENTENCIAS_POR_CONEXION = 64;
+
+    private static PoolConexiones pool;
+    private static PerfilRendimiento perfilRendimiento = PerfilRendimiento.predeterminado();
+
+    /**
+     * Cambia el perfil de rendimiento (PRAGMAs) que se aplica a cada conexión.
+     * Debe llamarse antes de la primera conexión; después no tiene efecto sobre el pool ya creado.
+     * @param perfil El perfil a usar.
+     */
+    public static synchronized void setPerfilRendimiento(PerfilRendimiento perfil) {
+        if (pool != null) {
+            System.err.println("Advertencia: el pool ya fue creado, el nuevo perfil de rendimiento no se aplicará.");
+        }
+        perfilRendimiento = perfil;
+    }
+
+    /**
+     * @return El perfil de rendimiento configurado.
+     */
+    public static synchronized PerfilRendimiento getPerfilRendimiento() {
+        return perfilRendimiento;
+    }
+
+    /**
+     * Obtiene la única instancia del pool de conexiones (patrón Singleton).
+     * Se crea de forma perezosa la primera vez que se necesita.
+     * @return El pool de conexiones de la aplicación.
+     */
+    public static synchronized PoolConexiones getPool() {
+        if (pool == null) {
+            pool = new PoolConexiones(URL, MAX_CONEXIONES, TIEMPO_MAX_ESPERA_MS, TIEMPO_MAX_INACTIVIDAD_MS,
+                    perfilRendimiento, MAX_SENTENCIAS_POR_CONEXION);
+            Runtime.getRuntime().addShutdownHook(new Thread(ConexionSQLite::cerrarPool, "pool-sqlite-cierre"));
+        }
+        return pool;
+    }
+
     /**
      * Establece una conexión con la base de datos.
-     * Implementa el patrón Singleton para mantener una única instancia de conexión.
-     * @return La conexión a la base de datos.
+     * La conexión se toma del pool compartido; al cerrarla (close) vuelve al pool
+     * en lugar de cerrar el archivo, por lo que puede usarse con try-with-resources.
+     * Sus prepareStatement() se sirven desde la caché de sentencias de la conexión.
+     * @return La conexión a la base de datos, o null si no se pudo obtener.
      */
 
     public static Connection conectar() {
 
         try {
-            return DriverManager.getConnection(URL);
+            return getPool().obtenerConexion();
         } catch (SQLException e) {
             System.err.println("Error en la conexión a SQLite: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Autoverificación de arranque: lee los PRAGMAs activos de una conexión del pool
+     * y los muestra en consola, advirtiendo si SQLite no aceptó el modo del diario.
+     * @return true si la configuración activa coincide con el perfil.
+     */
+    public static boolean verificarConfiguracion() {
+        try (Connection conn = conectar()) {
+            if (conn == null) return false;
+
+            Map<String, String> valores = PerfilRendimiento.leerConfiguracion(conn);
+            System.out.println("Configuración SQLite activa: " + valores);
+            if (!perfilRendimiento.coincideCon(valores)) {
+                System.err.println("Advertencia: se solicitó journal_mode=" + perfilRendimiento.getJournalMode()
+                        + " pero SQLite está usando " + valores.get("journal_mode"));
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al verificar la configuración de SQLite: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Cierra el pool de conexiones. Se invoca automáticamente al salir de la aplicación.
+     */
+    public static synchronized void cerrarPool() {
+        if (pool != null) {
+            System.out.println(pool.getEstadisticas());
+            pool.cerrar();
+        }
+    }
+
+    /**
+     * Define las migraciones del esquema de la clínica, en orden de versión.
+     * Para cambiar el esquema se agrega una nueva versión al final; nunca se
+     * modifica una migración ya publicada.
+     * @return El migrador con todas las migraciones registradas.
+     */
+    public static MigradorEsquema crearMigrador() {
+        return new MigradorEsquema()
+            .registrar(1, "Columna foto_mascota_ruta en mascotas",
+                    MigradorEsquema.agregarColumnaSiFalta("mascotas", "foto_mascota_ruta", "TEXT"))
+            .registrar(2, "Columna registro_vacunas_ruta en historiales",
+                    MigradorEsquema.agregarColumnaSiFalta("historiales", "registro_vacunas_ruta", "TEXT"))
+            .registrarSql(3, "Índices de búsqueda por cliente, fecha y mascota",
+                    "CREATE INDEX IF NOT EXISTS idx_mascotas_dni_cliente ON mascotas(dni_cliente)",
+                    "CREATE INDEX IF NOT EXISTS idx_citas_fecha_hora ON citas(fecha_hora)",
+                    "CREATE INDEX IF NOT EXISTS idx_citas_dni_cliente ON citas(dni_cliente)",
+                    "CREATE INDEX IF NOT EXISTS idx_historiales_id_mascota ON historiales(id_mascota)")
+            .registrarSql(4, "Índice de citas por mascota",
+                    "CREATE INDEX IF NOT EXISTS idx_citas_id_mascota ON citas(id_mascota, fecha_hora)")
+            .registrarSql(5, "Índice de clientes por nombre para búsqueda por prefijo",
+                    "CREATE INDEX IF NOT EXISTS idx_clientes_nombre ON clientes(nombre COLLATE NOCASE)")
+            // Tablas FTS5 de contenido externo: el texto vive en historiales/citas y los
+            // triggers mantienen el índice invertido sincronizado con cualquier escritura
+            .registrarSql(6, "Búsqueda de texto completo en historiales y motivos de citas",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS historiales_fts USING fts5("
+                            + "vacunas_aplicadas, vacunas_pendientes, content='historiales', content_rowid='id', "
+                            + "tokenize='unicode61 remove_diacritics 2')",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_fts_ai AFTER INSERT ON historiales BEGIN "
+                            + "INSERT INTO historiales_fts(rowid, vacunas_aplicadas, vacunas_pendientes) "
+                            + "VALUES (new.id, new.vacunas_aplicadas, new.vacunas_pendientes); END",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_fts_ad AFTER DELETE ON historiales BEGIN "
+                            + "INSERT INTO historiales_fts(historiales_fts, rowid, vacunas_aplicadas, vacunas_pendientes) "
+                            + "VALUES ('delete', old.id, old.vacunas_aplicadas, old.vacunas_pendientes); END",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_fts_au AFTER UPDATE OF vacunas_aplicadas, vacunas_pendientes "
+                            + "ON historiales BEGIN "
+                            + "INSERT INTO historiales_fts(historiales_fts, rowid, vacunas_aplicadas, vacunas_pendientes) "
+                            + "VALUES ('delete', old.id, old.vacunas_aplicadas, old.vacunas_pendientes); "
+                            + "INSERT INTO historiales_fts(rowid, vacunas_aplicadas, vacunas_pendientes) "
+                            + "VALUES (new.id, new.vacunas_aplicadas, new.vacunas_pendientes); END",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS citas_fts USING fts5("
+                            + "motivo, content='citas', content_rowid='id', tokenize='unicode61 remove_diacritics 2')",
+                    "CREATE TRIGGER IF NOT EXISTS citas_fts_ai AFTER INSERT ON citas BEGIN "
+                            + "INSERT INTO citas_fts(rowid, motivo) VALUES (new.id, new.motivo); END",
+                    "CREATE TRIGGER IF NOT EXISTS citas_fts_ad AFTER DELETE ON citas BEGIN "
+                            + "INSERT INTO citas_fts(citas_fts, rowid, motivo) VALUES ('delete', old.id, old.motivo); END",
+                    "CREATE TRIGGER IF NOT EXISTS citas_fts_au AFTER UPDATE OF motivo ON citas BEGIN "
+                            + "INSERT INTO citas_fts(citas_fts, rowid, motivo) VALUES ('delete', old.id, old.motivo); "
+                            + "INSERT INTO citas_fts(rowid, motivo) VALUES (new.id, new.motivo); END",
+                    // Indexa las filas que ya existían antes de la migración
+                    "INSERT INTO historiales_fts(historiales_fts) VALUES ('rebuild')",
+                    "INSERT INTO citas_fts(citas_fts) VALUES ('rebuild')")
+            // Mismas expresiones que usa ConsultaPaginada para ordenar, para paginar sin ordenar la tabla entera
+            .registrarSql(7, "Índices de orden para las tablas paginadas",
+                    "CREATE INDEX IF NOT EXISTS idx_productos_orden_nombre ON productos(COALESCE(nombre, ''), codigo)",
+                    "CREATE INDEX IF NOT EXISTS idx_productos_orden_precio ON productos(COALESCE(precio, ''), codigo)",
+                    "CREATE INDEX IF NOT EXISTS idx_productos_orden_stock ON productos(COALESCE(stock, ''), codigo)",
+                    "CREATE INDEX IF NOT EXISTS idx_clientes_orden_nombre ON clientes(COALESCE(nombre, ''), dni)")
+            // Conteo de referencias del almacén de uploads (AlmacenContenido): los triggers lo mantienen
+            // al insertar, cambiar o borrar una ruta; las rutas antiguas (fuera de uploads/blobs) no se cuentan
+            .registrarSql(8, "Conteo de referencias de archivos subidos",
+                    "CREATE TABLE IF NOT EXISTS archivos (ruta TEXT PRIMARY KEY, referencias INTEGER NOT NULL DEFAULT 0)",
+                    "CREATE TRIGGER IF NOT EXISTS usuarios_archivos_ai AFTER INSERT ON usuarios "
+                            + "WHEN new.foto_perfil_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "INSERT OR IGNORE INTO archivos(ruta) VALUES (new.foto_perfil_ruta); "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.foto_perfil_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS usuarios_archivos_ad AFTER DELETE ON usuarios "
+                            + "WHEN old.foto_perfil_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.foto_perfil_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS usuarios_archivos_au AFTER UPDATE OF foto_perfil_ruta ON usuarios "
+                            + "WHEN old.foto_perfil_ruta IS NOT new.foto_perfil_ruta BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.foto_perfil_ruta; "
+                            + "INSERT OR IGNORE INTO archivos(ruta) SELECT new.foto_perfil_ruta WHERE new.foto_perfil_ruta LIKE 'uploads/blobs/%'; "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.foto_perfil_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS mascotas_archivos_ai AFTER INSERT ON mascotas "
+                            + "WHEN new.foto_mascota_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "INSERT OR IGNORE INTO archivos(ruta) VALUES (new.foto_mascota_ruta); "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.foto_mascota_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS mascotas_archivos_ad AFTER DELETE ON mascotas "
+                            + "WHEN old.foto_mascota_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.foto_mascota_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS mascotas_archivos_au AFTER UPDATE OF foto_mascota_ruta ON mascotas "
+                            + "WHEN old.foto_mascota_ruta IS NOT new.foto_mascota_ruta BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.foto_mascota_ruta; "
+                            + "INSERT OR IGNORE INTO archivos(ruta) SELECT new.foto_mascota_ruta WHERE new.foto_mascota_ruta LIKE 'uploads/blobs/%'; "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.foto_mascota_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_archivos_ai AFTER INSERT ON historiales "
+                            + "WHEN new.registro_vacunas_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "INSERT OR IGNORE INTO archivos(ruta) VALUES (new.registro_vacunas_ruta); "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.registro_vacunas_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_archivos_ad AFTER DELETE ON historiales "
+                            + "WHEN old.registro_vacunas_ruta LIKE 'uploads/blobs/%' BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.registro_vacunas_ruta; END",
+                    "CREATE TRIGGER IF NOT EXISTS historiales_archivos_au AFTER UPDATE OF registro_vacunas_ruta ON historiales "
+                            + "WHEN old.registro_vacunas_ruta IS NOT new.registro_vacunas_ruta BEGIN "
+                            + "UPDATE archivos SET referencias = referencias - 1 WHERE ruta = old.registro_vacunas_ruta; "
+                            + "INSERT OR IGNORE INTO archivos(ruta) SELECT new.registro_vacunas_ruta WHERE new.registro_vacunas_ruta LIKE 'uploads/blobs/%'; "
+                            + "UPDATE archivos SET referencias = referencias + 1 WHERE ruta = new.registro_vacunas_ruta; END");
+    }
+
     /**
      * Crea las tablas necesarias para el sistema si no existen.
      * @param connection La conexión a la base de datos.
@@ -54,10 +230,6 @@ public class ConexionSQLite {
                     "    FOREIGN KEY (dni_cliente) REFERENCES clientes(dni)" +
                     ");";
 
-        // 2. Añadir columnas para las rutas de archivos a las tablas existentes
-        String sqlAlterMascotas = "ALTER TABLE mascotas ADD COLUMN foto_mascota_ruta TEXT;";
-        String sqlAlterHistorial = "ALTER TABLE historiales ADD COLUMN registro_vacunas_ruta TEXT;";
-
         try (Connection conn = conectar();
              Statement stmt = conn.createStatement()) {
 
@@ -69,9 +241,10 @@ public class ConexionSQLite {
                 stmt.execute(sqlHistorial);
                 stmt.execute(sqlUsuario);
                 System.out.println("Base de datos inicializada y tablas verificadas.");
+                verificarConfiguracion();
 
-            try { stmt.execute(sqlAlterMascotas); } catch (SQLException e) { /* Ignorar si ya existe */ }
-            try { stmt.execute(sqlAlterHistorial); } catch (SQLException e) { /* Ignorar si ya existe */ }
+                // 2. Cambios posteriores del esquema mediante migraciones versionadas
+                crearMigrador().migrar(conn);
             }
         }
             catch (SQLException e) {
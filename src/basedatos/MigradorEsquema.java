@@ -0,0 +1,199 @@
+package basedatos;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Motor de migraciones versionadas del esquema.
+ * Cada migración tiene un número de versión y se aplica una sola vez; las versiones
+ * aplicadas se registran en la tabla schema_version junto con su duración.
+ *
+ * Las migraciones se ejecutan en orden ascendente de versión, cada una dentro de
+ * su propia transacción. Si una falla, se revierte y las siguientes no se aplican.
+ */
+public class MigradorEsquema {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Paso ejecutable de una migración.
+     */
+    @FunctionalInterface
+    public interface PasoMigracion {
+        void aplicar(Connection conn) throws SQLException;
+    }
+
+    private static class Migracion {
+        final int version;
+        final String descripcion;
+        final PasoMigracion paso;
+
+        Migracion(int version, String descripcion, PasoMigracion paso) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.paso = paso;
+        }
+    }
+
+    private final List<Migracion> migraciones = new ArrayList<>();
+
+    /**
+     * Registra una migración con lógica arbitraria.
+     * @param version Número de versión (único y mayor que 0).
+     * @param descripcion Descripción legible de la migración.
+     * @param paso Lógica a ejecutar.
+     * @return El propio migrador, para encadenar llamadas.
+     */
+    public MigradorEsquema registrar(int version, String descripcion, PasoMigracion paso) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("La versión de la migración debe ser mayor que 0");
+        }
+        for (Migracion m : migraciones) {
+            if (m.version == version) {
+                throw new IllegalArgumentException("Versión de migración duplicada: " + version);
+            }
+        }
+        migraciones.add(new Migracion(version, descripcion, paso));
+        return this;
+    }
+
+    /**
+     * Registra una migración formada por sentencias SQL.
+     * @param version Número de versión.
+     * @param descripcion Descripción legible de la migración.
+     * @param sentencias Sentencias SQL a ejecutar en orden.
+     * @return El propio migrador, para encadenar llamadas.
+     */
+    public MigradorEsquema registrarSql(int version, String descripcion, String... sentencias) {
+        return registrar(version, descripcion, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : sentencias) {
+                    stmt.execute(sql);
+                }
+            }
+        });
+    }
+
+    /**
+     * Aplica todas las migraciones pendientes.
+     * @param conn La conexión a la base de datos.
+     * @return Número de migraciones aplicadas.
+     * @throws SQLException Si alguna migración falla (ya revertida).
+     */
+    public int migrar(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INTEGER PRIMARY KEY, descripcion TEXT, aplicada_en TEXT, duracion_ms REAL)");
+        }
+
+        int versionActual = obtenerVersionActual(conn);
+        migraciones.sort(Comparator.comparingInt(m -> m.version));
+
+        int aplicadas = 0;
+        long inicioTotal = System.nanoTime();
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            for (Migracion m : migraciones) {
+                if (m.version <= versionActual) {
+                    continue;
+                }
+                long inicio = System.nanoTime();
+                try {
+                    m.paso.aplicar(conn);
+                    double duracionMs = (System.nanoTime() - inicio) / 1_000_000.0;
+                    registrarVersion(conn, m, duracionMs);
+                    conn.commit();
+                    aplicadas++;
+                    System.out.printf("Migración v%d aplicada (%s) en %.2f ms%n", m.version, m.descripcion, duracionMs);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Falló la migración v" + m.version + " (" + m.descripcion + "): "
+                            + e.getMessage(), e);
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        if (aplicadas > 0) {
+            System.out.printf("Esquema actualizado a v%d: %d migraciones en %.2f ms%n",
+                    obtenerVersionActual(conn), aplicadas, (System.nanoTime() - inicioTotal) / 1_000_000.0);
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Obtiene la versión más alta aplicada.
+     * @param conn La conexión a la base de datos.
+     * @return La versión actual del esquema, 0 si no hay ninguna.
+     * @throws SQLException Si la consulta falla.
+     */
+    public static int obtenerVersionActual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void registrarVersion(Connection conn, Migracion m, double duracionMs) throws SQLException {
+        String sql = "INSERT INTO schema_version(version, descripcion, aplicada_en, duracion_ms) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, m.version);
+            pstmt.setString(2, m.descripcion);
+            pstmt.setString(3, LocalDateTime.now().format(FORMATTER));
+            pstmt.setDouble(4, duracionMs);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // =====================================================
+    // AYUDANTES PARA MIGRACIONES IDEMPOTENTES
+    // =====================================================
+
+    /**
+     * Verifica si una tabla tiene una columna.
+     * @param conn La conexión a la base de datos.
+     * @param tabla Nombre de la tabla.
+     * @param columna Nombre de la columna.
+     * @return true si la columna existe.
+     * @throws SQLException Si la consulta falla.
+     */
+    public static boolean existeColumna(Connection conn, String tabla, String columna) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabla + ")")) {
+            while (rs.next()) {
+                if (columna.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Crea un paso que agrega una columna solo si todavía no existe.
+     * Reemplaza el antiguo "intentar ALTER e ignorar la excepción".
+     * @param tabla Nombre de la tabla.
+     * @param columna Nombre de la columna.
+     * @param tipo Tipo SQL de la columna.
+     * @return El paso de migración.
+     */
+    public static PasoMigracion agregarColumnaSiFalta(String tabla, String columna, String tipo) {
+        return conn -> {
+            if (!existeColumna(conn, tabla, columna)) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + tabla + " ADD COLUMN " + columna + " " + tipo);
+                }
+            }
+        };
+    }
+}
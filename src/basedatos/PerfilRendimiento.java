@@ -0,0 +1,124 @@
+package basedatos;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perfil de rendimiento de SQLite: conjunto de PRAGMAs que se aplican a cada
+ * conexión nueva del pool.
+ *
+ * El perfil por defecto activa el modo WAL (Write-Ahead Logging) para que las
+ * lecturas de la agenda no queden bloqueadas mientras se guarda una cita.
+ */
+public class PerfilRendimiento {
+
+    private final String journalMode;   // WAL, DELETE, TRUNCATE...
+    private final String synchronous;   // OFF, NORMAL, FULL
+    private final long mmapSize;        // Bytes mapeados en memoria (0 = desactivado)
+    private final int cacheSize;        // Negativo = KiB, positivo = páginas
+    private final String tempStore;     // DEFAULT, FILE, MEMORY
+    private final int busyTimeoutMs;    // Espera ante bloqueos antes de fallar
+
+    /**
+     * Constructor para crear un perfil de rendimiento.
+     * @param journalMode Modo del diario de transacciones.
+     * @param synchronous Nivel de sincronización con el disco.
+     * @param mmapSize Tamaño máximo de memoria mapeada en bytes.
+     * @param cacheSize Tamaño de la caché de páginas (negativo en KiB).
+     * @param tempStore Ubicación de las tablas temporales.
+     * @param busyTimeoutMs Tiempo de espera ante bloqueos en milisegundos.
+     */
+    public PerfilRendimiento(String journalMode, String synchronous, long mmapSize,
+                             int cacheSize, String tempStore, int busyTimeoutMs) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /**
+     * Perfil recomendado para la clínica: WAL, sincronización NORMAL,
+     * 64 MiB de memoria mapeada, 8 MiB de caché y temporales en memoria.
+     * @return El perfil por defecto.
+     */
+    public static PerfilRendimiento predeterminado() {
+        return new PerfilRendimiento("WAL", "NORMAL", 64L * 1024 * 1024, -8000, "MEMORY", 5000);
+    }
+
+    /**
+     * Perfil equivalente a la configuración original de SQLite (diario de
+     * reversión y sincronización completa). Útil si la base de datos vive
+     * en una carpeta de red donde WAL no está soportado.
+     * @return El perfil conservador.
+     */
+    public static PerfilRendimiento conservador() {
+        return new PerfilRendimiento("DELETE", "FULL", 0, -2000, "DEFAULT", 5000);
+    }
+
+    /**
+     * Aplica los PRAGMAs del perfil a una conexión.
+     * @param conexion La conexión recién abierta.
+     * @throws SQLException Si algún PRAGMA falla.
+     */
+    public void aplicar(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            // busy_timeout primero, para que el cambio de journal_mode espere si hay bloqueo
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Lee los valores activos de los PRAGMAs en una conexión.
+     * @param conexion La conexión a inspeccionar.
+     * @return Un mapa ordenado PRAGMA -> valor actual.
+     * @throws SQLException Si la consulta falla.
+     */
+    public static Map<String, String> leerConfiguracion(Connection conexion) throws SQLException {
+        String[] pragmas = {"journal_mode", "synchronous", "mmap_size", "cache_size", "temp_store", "busy_timeout"};
+        Map<String, String> valores = new LinkedHashMap<>();
+        try (Statement stmt = conexion.createStatement()) {
+            for (String pragma : pragmas) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    valores.put(pragma, rs.next() ? rs.getString(1) : "?");
+                }
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Verifica que el modo del diario solicitado haya sido aceptado por SQLite.
+     * SQLite ignora en silencio WAL en sistemas de archivos que no lo soportan.
+     * @param valores Los valores leídos con {@link #leerConfiguracion(Connection)}.
+     * @return true si el journal_mode activo coincide con el del perfil.
+     */
+    public boolean coincideCon(Map<String, String> valores) {
+        return journalMode.equalsIgnoreCase(valores.get("journal_mode"));
+    }
+
+    // --- Getters ---
+
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public long getMmapSize() { return mmapSize; }
+    public int getCacheSize() { return cacheSize; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+
+    @Override
+    public String toString() {
+        return String.format("journal_mode=%s, synchronous=%s, mmap_size=%d, cache_size=%d, temp_store=%s, busy_timeout=%d",
+                journalMode, synchronous, mmapSize, cacheSize, tempStore, busyTimeoutMs);
+    }
+}
@@ -0,0 +1,424 @@
+package basedatos;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones a SQLite.
+ * Reutiliza las conexiones físicas en lugar de abrir el archivo de la base de datos
+ * en cada consulta. Las conexiones entregadas son "envoltorios": al llamar a close()
+ * regresan al pool en vez de cerrarse, por lo que los controladores pueden seguir
+ * usando try-with-resources sin cambios.
+ *
+ * Características:
+ * - Número máximo de conexiones (las peticiones extra esperan hasta un tiempo límite)
+ * - Validación de la conexión al momento de prestarla
+ * - Expulsión de conexiones inactivas por un hilo en segundo plano
+ * - Caché de PreparedStatements por conexión física (ver {@link CacheSentencias})
+ * - Métricas: tiempo de espera, conexiones activas e inactivas, aciertos de la caché
+ */
+public class PoolConexiones {
+
+    /**
+     * Conexión física junto con su caché de sentencias y el instante en que volvió al pool.
+     */
+    private static class ConexionFisica {
+        final Connection conexion;
+        final CacheSentencias sentencias;
+        long ultimoUso;
+
+        ConexionFisica(Connection conexion, CacheSentencias sentencias) {
+            this.conexion = conexion;
+            this.sentencias = sentencias;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+    }
+
+    private final String url;
+    private final int maxConexiones;
+    private final long tiempoMaxEsperaMs;
+    private final long tiempoMaxInactividadMs;
+    private final PerfilRendimiento perfil;
+    private final int capacidadCacheSentencias;
+
+    // Conexiones libres; la más reciente queda al frente (LIFO) para que las viejas expiren
+    private final ArrayDeque<ConexionFisica> disponibles = new ArrayDeque<>();
+    private final ScheduledExecutorService limpiador;
+    private int activas;
+    private boolean cerrado;
+
+    // --- Métricas ---
+    private long totalPrestamos;
+    private long totalEsperaNanos;
+    private long maxEsperaNanos;
+    private long conexionesCreadas;
+    private long conexionesDescartadas;
+    private final AtomicLong aciertosSentencias = new AtomicLong();
+    private final AtomicLong fallosSentencias = new AtomicLong();
+    private final AtomicLong expulsionesSentencias = new AtomicLong();
+
+    /**
+     * Crea un pool de conexiones.
+     * @param url La URL JDBC de la base de datos.
+     * @param maxConexiones Número máximo de conexiones abiertas a la vez.
+     * @param tiempoMaxEsperaMs Tiempo máximo que se espera por una conexión libre.
+     * @param tiempoMaxInactividadMs Tiempo tras el cual una conexión libre se cierra.
+     * @param perfil PRAGMAs a aplicar en cada conexión nueva (puede ser null).
+     * @param capacidadCacheSentencias Sentencias preparadas a cachear por conexión (0 desactiva la caché).
+     */
+    public PoolConexiones(String url, int maxConexiones, long tiempoMaxEsperaMs, long tiempoMaxInactividadMs,
+                          PerfilRendimiento perfil, int capacidadCacheSentencias) {
+        if (maxConexiones <= 0) {
+            throw new IllegalArgumentException("El pool necesita al menos una conexión");
+        }
+        this.url = url;
+        this.maxConexiones = maxConexiones;
+        this.tiempoMaxEsperaMs = tiempoMaxEsperaMs;
+        this.tiempoMaxInactividadMs = tiempoMaxInactividadMs;
+        this.perfil = perfil;
+        this.capacidadCacheSentencias = capacidadCacheSentencias;
+
+        this.limpiador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-sqlite-limpiador");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1000, tiempoMaxInactividadMs / 2);
+        limpiador.scheduleAtFixedRate(this::expulsarInactivas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Debe cerrarse (close) para devolverla.
+     * Complejidad: O(1) si hay conexiones libres.
+     * @return Una conexión válida.
+     * @throws SQLException Si no se pudo abrir la conexión o se agotó el tiempo de espera.
+     */
+    public Connection obtenerConexion() throws SQLException {
+        long inicio = System.nanoTime();
+        ConexionFisica fisica = null;
+
+        synchronized (this) {
+            long limite = inicio + TimeUnit.MILLISECONDS.toNanos(tiempoMaxEsperaMs);
+            while (!cerrado && disponibles.isEmpty() && activas >= maxConexiones) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    throw new SQLException("Tiempo de espera agotado al obtener una conexión del pool ("
+                            + maxConexiones + " conexiones en uso)");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+                }
+            }
+            if (cerrado) {
+                throw new SQLException("El pool de conexiones está cerrado");
+            }
+            fisica = disponibles.pollFirst();
+            // Reservamos el lugar antes de abrir fuera del bloque sincronizado
+            activas++;
+        }
+
+        try {
+            // Validación al prestar: si la conexión libre murió, se reemplaza
+            if (fisica != null && !esValida(fisica.conexion)) {
+                cerrarSilenciosamente(fisica);
+                synchronized (this) {
+                    conexionesDescartadas++;
+                }
+                fisica = null;
+            }
+            if (fisica == null) {
+                Connection conexion = abrirConexion();
+                CacheSentencias cache = capacidadCacheSentencias > 0
+                        ? new CacheSentencias(conexion, capacidadCacheSentencias,
+                                aciertosSentencias, fallosSentencias, expulsionesSentencias)
+                        : null;
+                fisica = new ConexionFisica(conexion, cache);
+                synchronized (this) {
+                    conexionesCreadas++;
+                }
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                activas--;
+                notifyAll();
+            }
+            throw e;
+        }
+
+        long espera = System.nanoTime() - inicio;
+        synchronized (this) {
+            totalPrestamos++;
+            totalEsperaNanos += espera;
+            maxEsperaNanos = Math.max(maxEsperaNanos, espera);
+        }
+        return envolver(fisica);
+    }
+
+    /**
+     * Abre una nueva conexión física y le aplica el perfil de rendimiento.
+     * Los PRAGMAs se ejecutan una sola vez por conexión física, no por préstamo.
+     * @return La conexión física abierta.
+     * @throws SQLException Si no se pudo abrir.
+     */
+    private Connection abrirConexion() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        if (perfil != null) {
+            try {
+                perfil.aplicar(conexion);
+            } catch (SQLException e) {
+                try {
+                    conexion.close();
+                } catch (SQLException ignorada) {
+                    // Se informa el error original
+                }
+                throw e;
+            }
+        }
+        return conexion;
+    }
+
+    /**
+     * @return El perfil de rendimiento aplicado a las conexiones, o null
+     */
+    public PerfilRendimiento getPerfil() {
+        return perfil;
+    }
+
+    private boolean esValida(Connection conexion) {
+        try {
+            return !conexion.isClosed() && conexion.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Devuelve una conexión física al pool, restaurando su estado por defecto.
+     */
+    private void devolver(ConexionFisica fisica) {
+        boolean reutilizable = true;
+        try {
+            if (fisica.sentencias != null) {
+                fisica.sentencias.liberarTodas();
+            }
+            if (!fisica.conexion.getAutoCommit()) {
+                // Una transacción sin confirmar no debe filtrarse al siguiente usuario
+                fisica.conexion.rollback();
+                fisica.conexion.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reutilizable = false;
+        }
+
+        synchronized (this) {
+            activas--;
+            if (reutilizable && !cerrado) {
+                fisica.ultimoUso = System.currentTimeMillis();
+                disponibles.addFirst(fisica);
+            } else {
+                conexionesDescartadas++;
+                cerrarSilenciosamente(fisica);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Cierra las conexiones libres que llevan más tiempo inactivas que el permitido.
+     * Se ejecuta periódicamente en segundo plano.
+     */
+    public synchronized void expulsarInactivas() {
+        long ahora = System.currentTimeMillis();
+        Iterator<ConexionFisica> it = disponibles.descendingIterator();
+        while (it.hasNext()) {
+            ConexionFisica fisica = it.next();
+            if (ahora - fisica.ultimoUso < tiempoMaxInactividadMs) {
+                break; // Las siguientes son más recientes
+            }
+            it.remove();
+            conexionesDescartadas++;
+            cerrarSilenciosamente(fisica);
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres y rechaza nuevos préstamos.
+     * Las conexiones en uso se cierran al ser devueltas.
+     */
+    public void cerrar() {
+        limpiador.shutdownNow();
+        synchronized (this) {
+            cerrado = true;
+            for (ConexionFisica fisica : disponibles) {
+                cerrarSilenciosamente(fisica);
+            }
+            disponibles.clear();
+            notifyAll();
+        }
+    }
+
+    private static void cerrarSilenciosamente(ConexionFisica fisica) {
+        if (fisica.sentencias != null) {
+            fisica.sentencias.cerrarTodas();
+        }
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión del pool: " + e.getMessage());
+        }
+    }
+
+    // =====================================================
+    // MÉTRICAS
+    // =====================================================
+
+    /**
+     * @return Número de conexiones prestadas en este momento
+     */
+    public synchronized int getConexionesActivas() {
+        return activas;
+    }
+
+    /**
+     * @return Número de conexiones libres dentro del pool
+     */
+    public synchronized int getConexionesInactivas() {
+        return disponibles.size();
+    }
+
+    /**
+     * @return Número total de préstamos realizados
+     */
+    public synchronized long getTotalPrestamos() {
+        return totalPrestamos;
+    }
+
+    /**
+     * @return Tiempo promedio de espera para obtener una conexión, en milisegundos
+     */
+    public synchronized double getEsperaPromedioMs() {
+        return totalPrestamos == 0 ? 0 : (totalEsperaNanos / (double) totalPrestamos) / 1_000_000.0;
+    }
+
+    /**
+     * @return Mayor tiempo de espera registrado, en milisegundos
+     */
+    public synchronized double getEsperaMaximaMs() {
+        return maxEsperaNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Número de sentencias preparadas reutilizadas desde la caché
+     */
+    public long getAciertosSentencias() {
+        return aciertosSentencias.get();
+    }
+
+    /**
+     * @return Número de sentencias que tuvieron que prepararse (no estaban en caché)
+     */
+    public long getFallosSentencias() {
+        return fallosSentencias.get();
+    }
+
+    /**
+     * @return Porcentaje de aciertos de la caché de sentencias (0-100)
+     */
+    public double getTasaAciertosSentencias() {
+        long aciertos = aciertosSentencias.get();
+        long total = aciertos + fallosSentencias.get();
+        return total == 0 ? 0 : aciertos * 100.0 / total;
+    }
+
+    /**
+     * Retorna información sobre el estado del pool.
+     */
+    public synchronized String getEstadisticas() {
+        return String.format("Pool: %d activas | %d inactivas | máx %d | préstamos %d | "
+                        + "espera prom %.3f ms, máx %.3f ms | creadas %d, descartadas %d | "
+                        + "sentencias: %d aciertos, %d fallos (%.1f%%), %d expulsadas",
+                activas, disponibles.size(), maxConexiones, totalPrestamos,
+                getEsperaPromedioMs(), getEsperaMaximaMs(), conexionesCreadas, conexionesDescartadas,
+                aciertosSentencias.get(), fallosSentencias.get(), getTasaAciertosSentencias(),
+                expulsionesSentencias.get());
+    }
+
+    // =====================================================
+    // ENVOLTORIO DE CONEXIÓN
+    // =====================================================
+
+    private Connection envolver(ConexionFisica fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ManejadorConexion(fisica));
+    }
+
+    /**
+     * Intercepta close() para devolver la conexión al pool y prepareStatement()
+     * para servir sentencias desde la caché; el resto de métodos se delega a la
+     * conexión física.
+     */
+    private class ManejadorConexion implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private boolean devuelta;
+
+        ManejadorConexion(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPool[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if (fisica.sentencias != null && metodo.getName().equals("prepareStatement")) {
+                Class<?>[] tipos = metodo.getParameterTypes();
+                if (tipos.length == 1) {
+                    return fisica.sentencias.preparar((String) args[0], Statement.NO_GENERATED_KEYS, (Connection) proxy);
+                }
+                if (tipos.length == 2 && tipos[1] == int.class) {
+                    return fisica.sentencias.preparar((String) args[0], (Integer) args[1], (Connection) proxy);
+                }
+            }
+            try {
+                return metodo.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
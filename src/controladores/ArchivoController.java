@@ -0,0 +1,138 @@
+package controladores;
+
+import basedatos.ConexionSQLite;
+import utilidades.AlmacenContenido;
+import utilidades.CacheMiniaturas;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Referencias y limpieza de los archivos del almacén de uploads (AlmacenContenido).
+ *
+ * La tabla "archivos" guarda cuántas filas apuntan a cada archivo desde
+ * usuarios.foto_perfil_ruta, mascotas.foto_mascota_ruta e historiales.registro_vacunas_ruta.
+ * El conteo lo mantienen triggers de SQLite (migración 8) en la misma transacción que la
+ * escritura, así que ningún controlador tiene que acordarse de actualizarlo.
+ */
+public class ArchivoController {
+
+    /** Tiempo mínimo sin referencias antes de borrar un archivo: cubre las subidas cuyo registro aún no terminó. */
+    public static final long GRACIA_HUERFANOS_MS = 24L * 60 * 60 * 1000;
+
+    /**
+     * Obtiene el número de referencias de un archivo del almacén.
+     * @param ruta Ruta del archivo.
+     * @return Las referencias (0 si nadie lo usa), o -1 si la consulta falla.
+     */
+    public int contarReferencias(String ruta) {
+        String sql = "SELECT referencias FROM archivos WHERE ruta = ?";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, ruta);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al contar referencias de " + ruta + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Borra los archivos del almacén que nadie referencia desde hace más del tiempo de gracia,
+     * junto con sus miniaturas y su fila en "archivos".
+     * @param graciaMs Antigüedad mínima (según la fecha del archivo) para considerarlo huérfano.
+     * @return El número de archivos borrados, o -1 si no se pudo leer el almacén o la base de datos.
+     */
+    public int recolectarHuerfanos(long graciaMs) {
+        List<String> enDisco;
+        try {
+            enDisco = AlmacenContenido.listar();
+        } catch (IOException e) {
+            System.err.println("Error al recorrer el almacén de archivos: " + e.getMessage());
+            return -1;
+        }
+        long limite = System.currentTimeMillis() - graciaMs;
+        int borrados = 0;
+        try (Connection conn = ConexionSQLite.conectar()) {
+            Map<String, Integer> referencias = leerReferencias(conn);
+            for (String ruta : enDisco) {
+                Integer cuenta = referencias.remove(ruta);
+                try {
+                    if ((cuenta != null && cuenta > 0) || !esAnterior(ruta, limite) || estaReferenciado(conn, ruta)) {
+                        continue;
+                    }
+                    Files.deleteIfExists(Paths.get(ruta));
+                } catch (IOException e) {
+                    System.err.println("No se pudo borrar el archivo huérfano " + ruta + ": " + e.getMessage());
+                    continue;
+                }
+                CacheMiniaturas.invalidar(ruta);
+                eliminarFila(conn, ruta);
+                borrados++;
+            }
+            // Filas sin archivo y sin referencias (p. ej. el archivo se borró a mano)
+            for (Map.Entry<String, Integer> sinArchivo : referencias.entrySet()) {
+                if (sinArchivo.getValue() <= 0) {
+                    eliminarFila(conn, sinArchivo.getKey());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al recolectar archivos huérfanos: " + e.getMessage());
+            return -1;
+        }
+        return borrados;
+    }
+
+    private Map<String, Integer> leerReferencias(Connection conn) throws SQLException {
+        Map<String, Integer> referencias = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT ruta, referencias FROM archivos");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                referencias.put(rs.getString("ruta"), rs.getInt("referencias"));
+            }
+        }
+        return referencias;
+    }
+
+    // Comprobación directa antes de borrar, por si el conteo se desincronizó (p. ej. filas editadas a mano)
+    private boolean estaReferenciado(Connection conn, String ruta) throws SQLException {
+        String sql = "SELECT EXISTS(SELECT 1 FROM usuarios WHERE foto_perfil_ruta = ?) "
+                + "OR EXISTS(SELECT 1 FROM mascotas WHERE foto_mascota_ruta = ?) "
+                + "OR EXISTS(SELECT 1 FROM historiales WHERE registro_vacunas_ruta = ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ruta);
+            pstmt.setString(2, ruta);
+            pstmt.setString(3, ruta);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                boolean referenciado = rs.next() && rs.getBoolean(1);
+                if (referenciado) {
+                    System.err.println("Conteo de referencias desincronizado para " + ruta + "; no se borra.");
+                }
+                return referenciado;
+            }
+        }
+    }
+
+    private void eliminarFila(Connection conn, String ruta) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM archivos WHERE ruta = ? AND referencias <= 0")) {
+            pstmt.setString(1, ruta);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean esAnterior(String ruta, long limiteMs) throws IOException {
+        Path archivo = Paths.get(ruta);
+        return Files.getLastModifiedTime(archivo).toMillis() < limiteMs;
+    }
+}
@@ -0,0 +1,93 @@
+package controladores;
+
+import algoritmos.arboles.Trie;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import modelos.Cliente;
+
+/**
+ * Índice en memoria para buscar clientes mientras se escribe.
+ * Cada cliente se indexa en un {@link Trie} bajo su DNI, su nombre completo y cada
+ * palabra del nombre, sin distinguir mayúsculas ni tildes. Así "per", "juan pe" y
+ * "7052" encuentran al mismo cliente sin recorrer la lista completa.
+ *
+ * No es seguro para varios hilos por sí solo: ClienteController lo protege con un bloqueo.
+ */
+class BuscadorClientes {
+
+    private final Trie<String> trie = new Trie<>(); // Clave normalizada -> DNI
+    private final Map<String, Cliente> porDni = new HashMap<>();
+
+    BuscadorClientes(List<Cliente> clientes) {
+        for (Cliente cliente : clientes) {
+            agregar(cliente);
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un cliente (si cambió el nombre se quitan las claves anteriores).
+     */
+    void agregar(Cliente cliente) {
+        eliminar(cliente.getDni());
+        porDni.put(cliente.getDni(), cliente);
+        for (String clave : claves(cliente)) {
+            trie.insertar(clave, cliente.getDni());
+        }
+    }
+
+    void eliminar(String dni) {
+        Cliente anterior = porDni.remove(dni);
+        if (anterior != null) {
+            for (String clave : claves(anterior)) {
+                trie.eliminar(clave, dni);
+            }
+        }
+    }
+
+    /**
+     * @param texto Inicio del DNI, del nombre o de cualquier palabra del nombre.
+     * @param limite Número máximo de resultados.
+     * @return Los clientes encontrados (objetos internos del índice, el llamador debe copiarlos).
+     */
+    List<Cliente> buscar(String texto, int limite) {
+        List<Cliente> resultado = new ArrayList<>();
+        for (String dni : trie.buscarPorPrefijo(normalizar(texto), limite)) {
+            resultado.add(porDni.get(dni));
+        }
+        return resultado;
+    }
+
+    int getTamano() {
+        return porDni.size();
+    }
+
+    private static List<String> claves(Cliente cliente) {
+        List<String> claves = new ArrayList<>();
+        claves.add(cliente.getDni());
+        String nombre = normalizar(cliente.getNombre());
+        if (!nombre.isEmpty()) {
+            claves.add(nombre);
+            String[] palabras = nombre.split(" ");
+            // La primera palabra ya es prefijo del nombre completo
+            for (int i = 1; i < palabras.length; i++) {
+                claves.add(palabras[i]);
+            }
+        }
+        return claves;
+    }
+
+    /**
+     * Pasa a minúsculas, quita tildes y deja un solo espacio entre palabras.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
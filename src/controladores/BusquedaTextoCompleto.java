@@ -0,0 +1,78 @@
+package controladores;
+
+import basedatos.ConexionSQLite;
+import modelos.ResultadoBusqueda;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilidades comunes para las búsquedas FTS5 de HistorialController y CitaController.
+ */
+class BusquedaTextoCompleto {
+
+    private BusquedaTextoCompleto() {
+    }
+
+    /**
+     * Convierte lo que escribe el usuario en una consulta FTS5 segura: cada palabra se
+     * busca como prefijo ("rab" encuentra "rabia") y todas deben aparecer. Las comillas y
+     * operadores del usuario se tratan como texto, no como sintaxis de FTS5.
+     * @param texto El texto escrito por el usuario.
+     * @return La expresión MATCH, o null si no hay palabras que buscar.
+     */
+    static String aConsultaFts(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        StringBuilder consulta = new StringBuilder();
+        for (String palabra : texto.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            if (consulta.length() > 0) {
+                consulta.append(' ');
+            }
+            consulta.append('"').append(palabra).append("\"*");
+        }
+        return consulta.length() == 0 ? null : consulta.toString();
+    }
+
+    /**
+     * Ejecuta una consulta cuyas columnas son, en orden: id, id_mascota, nombre de la mascota,
+     * dni_cliente, fecha, fragmento y bm25. El primer parámetro es la expresión MATCH y el segundo el límite.
+     * @param sql La consulta.
+     * @param consultaFts La expresión MATCH.
+     * @param limite Número máximo de resultados.
+     * @param contexto Texto para el mensaje de error.
+     * @return Los resultados ordenados por relevancia (lista vacía si hay error).
+     */
+    static List<ResultadoBusqueda> ejecutar(String sql, String consultaFts, int limite, String contexto) {
+        List<ResultadoBusqueda> resultados = new ArrayList<>();
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, consultaFts);
+            pstmt.setInt(2, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    resultados.add(new ResultadoBusqueda(
+                        rs.getInt(1),
+                        rs.getInt(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getString(5),
+                        rs.getString(6),
+                        -rs.getDouble(7) // bm25 devuelve valores negativos: más negativo es más relevante
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar en " + contexto + ": " + e.getMessage());
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,187 @@
+package controladores;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché de lectura (read-through) para entidades consultadas con frecuencia.
+ * - Tamaño acotado con expulsión LRU (LinkedHashMap en orden de acceso).
+ * - Cada entrada caduca tras un tiempo de vida (TTL).
+ * - Los controladores la invalidan en cada escritura (registrar, actualizar, eliminar).
+ *
+ * Los modelos son mutables, por lo que la caché guarda y entrega copias: modificar
+ * un objeto devuelto no altera lo que ven los demás hasta que se guarde en la BD.
+ *
+ * @param <K> Tipo de la clave (DNI, código, ...).
+ * @param <V> Tipo del valor cacheado.
+ */
+class CacheEntidades<K, V> {
+
+    private static class Entrada<V> {
+        final V valor;
+        final long expiraEn;
+
+        Entrada(V valor, long expiraEn) {
+            this.valor = valor;
+            this.expiraEn = expiraEn;
+        }
+    }
+
+    private final String nombre;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copiar;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    // Se incrementa en cada invalidación; una carga iniciada antes no se guarda
+    private long version;
+
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+    private long caducadas;
+
+    /**
+     * @param nombre Nombre de la caché (para las estadísticas).
+     * @param capacidad Número máximo de entradas.
+     * @param ttlMs Tiempo de vida de cada entrada en milisegundos.
+     * @param copiar Función que crea una copia independiente de un valor.
+     */
+    CacheEntidades(String nombre, int capacidad, long ttlMs, UnaryOperator<V> copiar) {
+        this.nombre = nombre;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.copiar = copiar;
+        // accessOrder = true convierte al LinkedHashMap en una lista LRU
+        this.entradas = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > capacidad) {
+                    expulsiones++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el valor cacheado o lo carga con {@code cargador} si no está o caducó.
+     * Los resultados null no se cachean.
+     * @param clave La clave a buscar.
+     * @param cargador Consulta a la base de datos en caso de fallo.
+     * @return Una copia del valor, o null si el cargador no encontró nada.
+     */
+    V obtener(K clave, Function<K, V> cargador) {
+        long versionInicial;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null) {
+                if (System.nanoTime() - entrada.expiraEn < 0) {
+                    aciertos++;
+                    return copiar.apply(entrada.valor);
+                }
+                entradas.remove(clave);
+                caducadas++;
+            }
+            fallos++;
+            versionInicial = version;
+        }
+
+        // La consulta se hace fuera del candado para no serializar el acceso a la BD
+        V valor = cargador.apply(clave);
+        if (valor != null) {
+            synchronized (this) {
+                if (version == versionInicial) {
+                    entradas.put(clave, new Entrada<>(copiar.apply(valor), System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Devuelve el valor cacheado sin consultar la base de datos.
+     * @param clave La clave a buscar.
+     * @return Una copia del valor, o null si no está o caducó.
+     */
+    synchronized V obtenerSiPresente(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null) {
+            if (System.nanoTime() - entrada.expiraEn < 0) {
+                aciertos++;
+                return copiar.apply(entrada.valor);
+            }
+            entradas.remove(clave);
+            caducadas++;
+        }
+        fallos++;
+        return null;
+    }
+
+    /**
+     * Guarda un valor obtenido fuera de la caché (p. ej. tras verificar un login).
+     * @param clave La clave.
+     * @param valor El valor (no null).
+     */
+    synchronized void guardar(K clave, V valor) {
+        entradas.put(clave, new Entrada<>(copiar.apply(valor), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Descarta la entrada de una clave tras una escritura.
+     * @param clave La clave modificada.
+     */
+    synchronized void invalidar(K clave) {
+        version++;
+        entradas.remove(clave);
+    }
+
+    /**
+     * Descarta todas las entradas.
+     */
+    synchronized void invalidarTodo() {
+        version++;
+        entradas.clear();
+    }
+
+    /**
+     * @return Número de entradas cacheadas
+     */
+    synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * @return Proporción de lecturas servidas desde la caché (0 a 1)
+     */
+    synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+
+    /**
+     * @return Resumen legible del estado de la caché
+     */
+    synchronized String getEstadisticas() {
+        return String.format("%s: %d entradas, %d aciertos, %d fallos (%.1f%%), %d expulsadas, %d caducadas",
+                nombre, entradas.size(), aciertos, fallos, getTasaAciertos() * 100, expulsiones, caducadas);
+    }
+
+    /**
+     * Copia profunda de una lista usando la función de copia de sus elementos.
+     * @param lista La lista original.
+     * @param copiarElemento Copia de cada elemento.
+     * @param <T> Tipo de los elementos.
+     * @return Una lista nueva con copias de los elementos.
+     */
+    static <T> List<T> copiarLista(List<T> lista, UnaryOperator<T> copiarElemento) {
+        List<T> copia = new ArrayList<>(lista.size());
+        for (T elemento : lista) {
+            copia.add(copiarElemento.apply(elemento));
+        }
+        return copia;
+    }
+}
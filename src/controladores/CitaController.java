@@ -2,12 +2,19 @@ package controladores;
 
 import basedatos.ConexionSQLite;
 import modelos.Cita;
+import modelos.ResultadoBusqueda;
 import java.sql.*;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador para la gestión de Citas.
@@ -16,6 +23,14 @@ import java.util.List;
 public class CitaController {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int DIAS_MAX_BUSQUEDA_TURNOS = 60;
+
+    // Índice compartido de turnos reservados; se llena mes a mes bajo demanda
+    private static final IndiceTurnos INDICE_TURNOS = new IndiceTurnos(mes -> new CitaController()
+            .obtenerCitasEntre(mes.atDay(1).atStartOfDay(), mes.plusMonths(1).atDay(1).atStartOfDay()));
+    // Motor de disponibilidad con el horario precalculado por día de la semana
+    private static final MotorDisponibilidad MOTOR_DISPONIBILIDAD =
+            new MotorDisponibilidad(new CitaController()::validarHorarioDisponible, INDICE_TURNOS);
 
     /**
      * Valida si una fecha y hora están dentro del horario de atención.
@@ -39,31 +54,109 @@ public class CitaController {
         }
     }
 
+    /**
+     * Verifica si el turno de 30 minutos que contiene la fecha aún tiene cupo.
+     * Complejidad: O(log n) sobre el índice en memoria.
+     * @param fechaHora La fecha y hora a consultar.
+     * @return true si el turno no está reservado.
+     */
+    public boolean estaTurnoLibre(LocalDateTime fechaHora) {
+        return INDICE_TURNOS.estaLibre(fechaHora);
+    }
+
+    /**
+     * Obtiene los siguientes turnos libres dentro del horario de atención.
+     * @param desde Fecha a partir de la cual buscar.
+     * @param cantidad Número de turnos a devolver.
+     * @return Lista ordenada con el inicio de cada turno libre.
+     */
+    public List<LocalDateTime> obtenerSiguientesTurnosLibres(LocalDateTime desde, int cantidad) {
+        return MOTOR_DISPONIBILIDAD.buscar(desde, DIAS_MAX_BUSQUEDA_TURNOS, 1, Collections.emptySet(), cantidad);
+    }
+
+    /**
+     * Obtiene todos los turnos libres de un rango de días (por ejemplo, un mes completo).
+     * Se calcula con bitmaps por día, sin parsear cada cita.
+     * @param desde Primer día (inclusive).
+     * @param hasta Último día (exclusivo).
+     * @return Lista ordenada con el inicio de cada turno libre.
+     */
+    public List<LocalDateTime> obtenerTurnosLibresEntre(LocalDate desde, LocalDate hasta) {
+        int dias = (int) ChronoUnit.DAYS.between(desde, hasta);
+        if (dias <= 0) {
+            return new ArrayList<>();
+        }
+        return MOTOR_DISPONIBILIDAD.buscar(desde.atStartOfDay(), dias, 1, Collections.emptySet(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sugiere los próximos horarios disponibles para una mascota y un motivo.
+     * Los motivos largos (cirugía, peluquería, baño) requieren varios turnos seguidos,
+     * y no se proponen días en los que la mascota ya tiene una cita.
+     * @param idMascota El ID de la mascota.
+     * @param motivo El motivo de la cita.
+     * @param desde Momento a partir del cual buscar.
+     * @param cantidad Número de sugerencias.
+     * @return Lista ordenada con la hora de inicio de cada sugerencia.
+     */
+    public List<LocalDateTime> buscarTurnosDisponibles(int idMascota, String motivo, LocalDateTime desde, int cantidad) {
+        LocalDateTime hasta = desde.toLocalDate().plusDays(DIAS_MAX_BUSQUEDA_TURNOS).atStartOfDay();
+        Set<LocalDate> diasOcupados = new HashSet<>();
+        for (Cita cita : obtenerCitasDeMascotaEntre(idMascota, desde.toLocalDate().atStartOfDay(), hasta)) {
+            try {
+                diasOcupados.add(LocalDateTime.parse(cita.getFechaHora(), FORMATTER).toLocalDate());
+            } catch (DateTimeParseException e) {
+                System.err.println("Fecha de cita inválida (ID " + cita.getId() + "): " + cita.getFechaHora());
+            }
+        }
+        return MOTOR_DISPONIBILIDAD.buscar(desde, DIAS_MAX_BUSQUEDA_TURNOS,
+                MotorDisponibilidad.turnosParaMotivo(motivo), diasOcupados, cantidad);
+    }
+
     /**
      * Registra una nueva cita en la base de datos previa validación.
-     * @param cita El objeto Cita a registrar.
+     * Rechaza la cita si alguno de los turnos que ocupa (varios para cirugía, peluquería
+     * o baño) queda fuera del horario o ya está reservado.
+     * @param cita El objeto Cita a registrar. Recibe el ID generado.
      * @return true si el registro fue exitoso.
      */
     public boolean registrarCita(Cita cita) {
         LocalDateTime fechaHoraCita = LocalDateTime.parse(cita.getFechaHora(), FORMATTER);
-        if (!validarHorarioDisponible(fechaHoraCita)) {
+        int turnos = MotorDisponibilidad.turnosParaMotivo(cita.getMotivo());
+        // Se revisan todos los turnos de la cita, no solo el de inicio
+        if (!MOTOR_DISPONIBILIDAD.estaDentroDelHorario(fechaHoraCita, turnos)) {
             System.err.println("Error: El horario seleccionado no está disponible.");
             return false;
         }
 
         String sql = "INSERT INTO citas(fecha_hora, motivo, dni_cliente, id_mascota) VALUES(?,?,?,?)";
-        try (Connection conn = ConexionSQLite.conectar();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, cita.getFechaHora());
-            pstmt.setString(2, cita.getMotivo());
-            pstmt.setString(3, cita.getDniCliente());
-            pstmt.setInt(4, cita.getIdMascota());
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error al registrar la cita: " + e.getMessage());
-            return false;
+        // Bloqueamos el índice para que nadie reserve el mismo turno entre la verificación y el INSERT
+        synchronized (INDICE_TURNOS) {
+            if (!INDICE_TURNOS.estaLibre(fechaHoraCita, turnos)) {
+                System.err.println("Error: El turno seleccionado ya está reservado.");
+                return false;
+            }
+
+            try (Connection conn = ConexionSQLite.conectar();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                pstmt.setString(1, cita.getFechaHora());
+                pstmt.setString(2, cita.getMotivo());
+                pstmt.setString(3, cita.getDniCliente());
+                pstmt.setInt(4, cita.getIdMascota());
+                pstmt.executeUpdate();
+
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        cita.setId(generatedKeys.getInt(1));
+                    }
+                }
+                INDICE_TURNOS.agregar(cita);
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Error al registrar la cita: " + e.getMessage());
+                return false;
+            }
         }
     }
 
@@ -79,13 +172,7 @@ public class CitaController {
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                citas.add(new Cita(
-                    rs.getInt("id"),
-                    rs.getString("fecha_hora"),
-                    rs.getString("motivo"),
-                    rs.getString("dni_cliente"),
-                    rs.getInt("id_mascota")
-                ));
+                citas.add(mapearCita(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error al obtener las citas: " + e.getMessage());
@@ -93,6 +180,149 @@ public class CitaController {
         return citas;
     }
 
+    /**
+     * Obtiene las citas dentro de un rango de fechas, ordenadas por fecha.
+     * Usa el índice sobre fecha_hora: las fechas se guardan como texto
+     * "yyyy-MM-dd HH:mm", cuyo orden alfabético coincide con el cronológico.
+     * @param desde Inicio del rango (inclusive).
+     * @param hasta Fin del rango (exclusivo).
+     * @return Una lista de objetos Cita.
+     */
+    public List<Cita> obtenerCitasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return obtenerCitasEntre(desde, hasta, -1, 0);
+    }
+
+    /**
+     * Obtiene una página de citas dentro de un rango de fechas (paginación por desplazamiento).
+     * @param desde Inicio del rango (inclusive).
+     * @param hasta Fin del rango (exclusivo).
+     * @param limite Máximo de citas a devolver (-1 sin límite).
+     * @param desplazamiento Número de citas a saltar.
+     * @return Una lista de objetos Cita.
+     */
+    public List<Cita> obtenerCitasEntre(LocalDateTime desde, LocalDateTime hasta, int limite, int desplazamiento) {
+        List<Cita> citas = new ArrayList<>();
+        String sql = "SELECT * FROM citas WHERE fecha_hora >= ? AND fecha_hora < ? ORDER BY fecha_hora ASC, id ASC LIMIT ? OFFSET ?";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, desde.format(FORMATTER));
+            pstmt.setString(2, hasta.format(FORMATTER));
+            pstmt.setInt(3, limite);
+            pstmt.setInt(4, desplazamiento);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    citas.add(mapearCita(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener las citas del rango: " + e.getMessage());
+        }
+        return citas;
+    }
+
+    /**
+     * Obtiene la página siguiente a una cita dada (paginación por clave o "keyset").
+     * A diferencia del desplazamiento, el costo no crece con el número de página:
+     * el índice salta directamente a la posición de la última cita vista.
+     * @param desde Inicio del rango (inclusive).
+     * @param hasta Fin del rango (exclusivo).
+     * @param ultima La última cita de la página anterior, o null para la primera página.
+     * @param tamanoPagina Máximo de citas a devolver.
+     * @return Una lista de objetos Cita.
+     */
+    public List<Cita> obtenerCitasSiguientes(LocalDateTime desde, LocalDateTime hasta, Cita ultima, int tamanoPagina) {
+        if (ultima == null) {
+            return obtenerCitasEntre(desde, hasta, tamanoPagina, 0);
+        }
+        List<Cita> citas = new ArrayList<>();
+        String sql = "SELECT * FROM citas WHERE fecha_hora < ? AND (fecha_hora > ? OR (fecha_hora = ? AND id > ?)) "
+                   + "AND fecha_hora >= ? ORDER BY fecha_hora ASC, id ASC LIMIT ?";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, hasta.format(FORMATTER));
+            pstmt.setString(2, ultima.getFechaHora());
+            pstmt.setString(3, ultima.getFechaHora());
+            pstmt.setInt(4, ultima.getId());
+            pstmt.setString(5, desde.format(FORMATTER));
+            pstmt.setInt(6, tamanoPagina);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    citas.add(mapearCita(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener la página de citas: " + e.getMessage());
+        }
+        return citas;
+    }
+
+    /**
+     * Obtiene las citas de una mascota dentro de un rango de fechas.
+     * @param idMascota El ID de la mascota.
+     * @param desde Inicio del rango (inclusive).
+     * @param hasta Fin del rango (exclusivo).
+     * @return Una lista de objetos Cita.
+     */
+    public List<Cita> obtenerCitasDeMascotaEntre(int idMascota, LocalDateTime desde, LocalDateTime hasta) {
+        List<Cita> citas = new ArrayList<>();
+        String sql = "SELECT * FROM citas WHERE id_mascota = ? AND fecha_hora >= ? AND fecha_hora < ? ORDER BY fecha_hora ASC";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, idMascota);
+            pstmt.setString(2, desde.format(FORMATTER));
+            pstmt.setString(3, hasta.format(FORMATTER));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    citas.add(mapearCita(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener las citas de la mascota: " + e.getMessage());
+        }
+        return citas;
+    }
+
+    /**
+     * Cuenta las citas de cada mes de un año sin cargarlas en memoria.
+     * @param anio El año a consultar.
+     * @return Un arreglo de 12 posiciones (enero = 0) con el total de citas por mes.
+     */
+    public int[] contarCitasPorMes(int anio) {
+        int[] conteo = new int[12];
+        String sql = "SELECT substr(fecha_hora, 6, 2) AS mes, COUNT(*) AS total FROM citas "
+                   + "WHERE fecha_hora >= ? AND fecha_hora < ? GROUP BY mes";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, String.format("%04d-01-01", anio));
+            pstmt.setString(2, String.format("%04d-01-01", anio + 1));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int mes = Integer.parseInt(rs.getString("mes"));
+                    if (mes >= 1 && mes <= 12) {
+                        conteo[mes - 1] = rs.getInt("total");
+                    }
+                }
+            }
+        } catch (SQLException | NumberFormatException e) {
+            System.err.println("Error al contar las citas por mes: " + e.getMessage());
+        }
+        return conteo;
+    }
+
+    private Cita mapearCita(ResultSet rs) throws SQLException {
+        return new Cita(
+            rs.getInt("id"),
+            rs.getString("fecha_hora"),
+            rs.getString("motivo"),
+            rs.getString("dni_cliente"),
+            rs.getInt("id_mascota")
+        );
+    }
+
     /**
      * Elimina una cita de la base de datos por su ID.
      * @param idCita El ID de la cita a eliminar.
@@ -103,10 +333,74 @@ public class CitaController {
         try (Connection conn = ConexionSQLite.conectar();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, idCita);
-            return pstmt.executeUpdate() > 0;
+            boolean eliminada = pstmt.executeUpdate() > 0;
+            if (eliminada) {
+                INDICE_TURNOS.eliminar(idCita);
+            }
+            return eliminada;
         } catch (SQLException e) {
             System.err.println("Error al eliminar la cita: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Registra muchas citas en una sola transacción usando batching de JDBC (p. ej. al
+     * migrar la agenda de otro sistema). Se valida el formato y el horario de atención,
+     * pero no se rechazan turnos dobles: los datos importados se aceptan tal cual.
+     * Si una cita trae ID (mayor que 0) se conserva; si no, se genera uno nuevo.
+     * @param citas Citas a registrar.
+     * @param tamanoLote Filas enviadas por cada executeBatch().
+     * @return El resultado fila por fila.
+     */
+    public ResultadoLote registrarCitas(List<Cita> citas, int tamanoLote) {
+        String sql = "INSERT INTO citas(id, fecha_hora, motivo, dni_cliente, id_mascota) VALUES(?,?,?,?,?)";
+        ResultadoLote resultado = EjecutorLotes.ejecutar(sql, citas, tamanoLote,
+                cita -> {
+                    if (cita.getFechaHora() == null) {
+                        return "Falta la fecha, se esperaba yyyy-MM-dd HH:mm";
+                    }
+                    try {
+                        return validarHorarioDisponible(LocalDateTime.parse(cita.getFechaHora(), FORMATTER))
+                                ? null : "Fuera del horario de atención";
+                    } catch (DateTimeParseException e) {
+                        return "Fecha inválida, se esperaba yyyy-MM-dd HH:mm";
+                    }
+                },
+                (pstmt, cita) -> {
+                    if (cita.getId() > 0) {
+                        pstmt.setInt(1, cita.getId());
+                    } else {
+                        pstmt.setNull(1, Types.INTEGER); // SQLite asigna el siguiente ID
+                    }
+                    pstmt.setString(2, cita.getFechaHora());
+                    pstmt.setString(3, cita.getMotivo());
+                    pstmt.setString(4, cita.getDniCliente());
+                    pstmt.setInt(5, cita.getIdMascota());
+                });
+        // Los meses afectados se recargarán desde la BD en la siguiente consulta
+        INDICE_TURNOS.invalidar();
+        return resultado;
+    }
+
+    /**
+     * Busca texto en el motivo de todas las citas (índice FTS5, sin distinguir tildes).
+     * Cada palabra se busca como prefijo: "vacu anti" encuentra "Vacunación antirrábica".
+     * @param texto El texto a buscar.
+     * @param limite Número máximo de resultados.
+     * @return Las citas encontradas, de la más a la menos relevante.
+     */
+    public List<ResultadoBusqueda> buscarEnMotivos(String texto, int limite) {
+        String consulta = BusquedaTextoCompleto.aConsultaFts(texto);
+        if (consulta == null) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT c.id, c.id_mascota, m.nombre, c.dni_cliente, c.fecha_hora, "
+                + "snippet(citas_fts, 0, '[', ']', '…', 12), bm25(citas_fts) AS rango "
+                + "FROM citas_fts "
+                + "JOIN citas c ON c.id = citas_fts.rowid "
+                + "LEFT JOIN mascotas m ON m.id = c.id_mascota "
+                + "WHERE citas_fts MATCH ? ORDER BY rango LIMIT ?";
+        return BusquedaTextoCompleto.ejecutar(sql, consulta, limite, "motivos de citas");
+    }
+}
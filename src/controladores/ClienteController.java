@@ -14,6 +14,25 @@ import utilidades.Validador;
  */
 public class ClienteController {
 
+    private static final int CAPACIDAD_CACHE = 256;
+    private static final long TTL_CACHE_MS = 5 * 60 * 1000;
+    private static final String CLAVE_TODOS = "*";
+    // Filas que muestra como máximo la tabla de clientes mientras hay un texto de búsqueda
+    private static final int LIMITE_FILTRO_TABLA = 200;
+
+    // Compartidas por todas las instancias: cada ventana crea su propio controlador
+    private static final CacheEntidades<String, Cliente> CACHE_CLIENTES =
+            new CacheEntidades<>("Clientes", CAPACIDAD_CACHE, TTL_CACHE_MS, ClienteController::copiar);
+    private static final CacheEntidades<String, List<Cliente>> CACHE_LISTADO =
+            new CacheEntidades<>("Listado de clientes", 1, TTL_CACHE_MS,
+                    lista -> CacheEntidades.copiarLista(lista, ClienteController::copiar));
+
+    // Índice para buscar mientras se escribe; se construye en segundo plano en la primera búsqueda
+    private static final Object BLOQUEO_BUSCADOR = new Object();
+    private static BuscadorClientes buscador;
+    private static boolean construyendoBuscador;
+    private static long versionBuscador; // Cambia con cada escritura para descartar construcciones obsoletas
+
     /**
      * Registra un nuevo cliente en la base de datos.
      * @param cliente El objeto Cliente con los datos a guardar.
@@ -42,6 +61,8 @@ public class ClienteController {
             pstmt.setString(3, cliente.getTelefono());
             pstmt.setString(4, cliente.getDireccion());
             pstmt.executeUpdate();
+            invalidarCache(cliente.getDni());
+            actualizarBuscador(cliente);
             return true;
         } catch (SQLException e) {
             System.err.println("Error al registrar cliente: " + e.getMessage());
@@ -54,6 +75,12 @@ public class ClienteController {
      * @return Una lista de objetos Cliente.
      */
     public List<Cliente> obtenerTodosLosClientes() {
+        List<Cliente> clientes = CACHE_LISTADO.obtener(CLAVE_TODOS, clave -> consultarTodosLosClientes());
+        return clientes != null ? clientes : new ArrayList<>();
+    }
+
+    // Devuelve null si la consulta falla, para no cachear un listado vacío por error
+    private List<Cliente> consultarTodosLosClientes() {
         List<Cliente> clientes = new ArrayList<>();
         String sql = "SELECT * FROM clientes ORDER BY nombre";
         try (Connection conn = ConexionSQLite.conectar();
@@ -71,10 +98,30 @@ public class ClienteController {
             }
         } catch (SQLException e) {
             System.err.println("Error al obtener todos los clientes: " + e.getMessage());
+            return null;
         }
         return clientes;
     }
 
+    /**
+     * Consulta por páginas de los clientes, para tablas que no cargan el listado completo.
+     * El filtro usa el mismo índice por prefijo que {@link #buscarClientesPorPrefijo}
+     * (DNI, nombre o palabra del nombre, hasta 200 coincidencias) y se puede ordenar por
+     * nombre, teléfono o dirección.
+     * @return La consulta paginada.
+     */
+    public ConsultaPaginada<Cliente> consultaPaginada() {
+        return new ConsultaPaginada<>("clientes", "dni, nombre, telefono, direccion", "dni",
+                null, null, new String[]{"dni", "nombre"}, this::buscarDnisPorPrefijo,
+                new String[]{"nombre", "telefono", "direccion"},
+                rs -> new Cliente(
+                    rs.getString("dni"),
+                    rs.getString("nombre"),
+                    rs.getString("telefono"),
+                    rs.getString("direccion")
+                ));
+    }
+
     /**
      * Actualiza los datos de un cliente existente.
      * @param cliente El cliente con los datos modificados.
@@ -103,6 +150,10 @@ public class ClienteController {
             pstmt.setString(4, cliente.getDni());
             
             int filasAfectadas = pstmt.executeUpdate();
+            invalidarCache(cliente.getDni());
+            if (filasAfectadas > 0) {
+                actualizarBuscador(cliente);
+            }
             return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println("Error al actualizar cliente: " + e.getMessage());
@@ -117,6 +168,13 @@ public class ClienteController {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, dni);
             pstmt.executeUpdate();
+            invalidarCache(dni);
+            synchronized (BLOQUEO_BUSCADOR) {
+                versionBuscador++;
+                if (buscador != null) {
+                    buscador.eliminar(dni);
+                }
+            }
         } catch (SQLException e) {
             System.err.println("Error al eliminar cliente durante rollback: " + e.getMessage());
         }
@@ -128,6 +186,10 @@ public class ClienteController {
     * @return Un objeto Cliente si se encuentra, de lo contrario devuelve null.
     */
     public Cliente buscarClientePorDni(String dni) {
+       return CACHE_CLIENTES.obtener(dni, this::consultarClientePorDni);
+   }
+
+    private Cliente consultarClientePorDni(String dni) {
        String sql = "SELECT * FROM clientes WHERE dni = ?";
 
        try (Connection conn = ConexionSQLite.conectar();
@@ -152,5 +214,159 @@ public class ClienteController {
        // Si no se encuentra o hay un error, devuelve null
        return null;
    }
-    
-}
\ No newline at end of file
+
+    /**
+     * Registra muchos clientes en una sola transacción usando batching de JDBC.
+     * @param clientes Clientes a registrar.
+     * @return El resultado fila por fila (DNI o teléfono inválidos y DNI duplicados se rechazan).
+     */
+    public ResultadoLote registrarClientes(List<Cliente> clientes) {
+        return registrarClientes(clientes, EjecutorLotes.TAMANO_LOTE_PREDETERMINADO);
+    }
+
+    /**
+     * Registra muchos clientes en una sola transacción usando batching de JDBC.
+     * @param clientes Clientes a registrar.
+     * @param tamanoLote Filas enviadas por cada executeBatch().
+     * @return El resultado fila por fila (DNI o teléfono inválidos y DNI duplicados se rechazan).
+     */
+    public ResultadoLote registrarClientes(List<Cliente> clientes, int tamanoLote) {
+        String sql = "INSERT INTO clientes(dni, nombre, telefono, direccion) VALUES(?,?,?,?)";
+        ResultadoLote resultado = EjecutorLotes.ejecutar(sql, clientes, tamanoLote,
+                ClienteController::validarCliente,
+                (pstmt, cliente) -> {
+                    pstmt.setString(1, cliente.getDni());
+                    pstmt.setString(2, cliente.getNombre());
+                    pstmt.setString(3, cliente.getTelefono());
+                    pstmt.setString(4, cliente.getDireccion());
+                });
+        CACHE_CLIENTES.invalidarTodo();
+        CACHE_LISTADO.invalidarTodo();
+        synchronized (BLOQUEO_BUSCADOR) {
+            versionBuscador++;
+            buscador = null; // Se reconstruye en la siguiente búsqueda
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca clientes cuyo DNI, nombre o alguna palabra del nombre empiece por el texto,
+     * sin distinguir mayúsculas ni tildes. Pensado para llamarse en cada pulsación de tecla.
+     * Mientras el índice en memoria se construye (primera llamada), la búsqueda se resuelve
+     * con una consulta por prefijo sobre el índice de SQLite.
+     * @param texto El texto escrito por el usuario.
+     * @param limite Número máximo de resultados.
+     * @return Los clientes encontrados (lista vacía si no hay coincidencias).
+     */
+    public List<Cliente> buscarClientesPorPrefijo(String texto, int limite) {
+        synchronized (BLOQUEO_BUSCADOR) {
+            if (buscador != null) {
+                return CacheEntidades.copiarLista(buscador.buscar(texto, limite), ClienteController::copiar);
+            }
+            iniciarConstruccionBuscador();
+        }
+        List<Cliente> clientes = consultarClientesPorPrefijo(texto, limite);
+        return clientes != null ? clientes : new ArrayList<>();
+    }
+
+    private List<String> buscarDnisPorPrefijo(String texto) {
+        List<Cliente> clientes = buscarClientesPorPrefijo(texto, LIMITE_FILTRO_TABLA);
+        List<String> dnis = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            dnis.add(cliente.getDni());
+        }
+        return dnis;
+    }
+
+    // Debe llamarse con BLOQUEO_BUSCADOR tomado
+    private void iniciarConstruccionBuscador() {
+        if (construyendoBuscador) {
+            return;
+        }
+        construyendoBuscador = true;
+        long version = versionBuscador;
+        Thread hilo = new Thread(() -> {
+            List<Cliente> clientes = consultarTodosLosClientes();
+            BuscadorClientes nuevo = clientes != null ? new BuscadorClientes(clientes) : null;
+            synchronized (BLOQUEO_BUSCADOR) {
+                construyendoBuscador = false;
+                // Si hubo escrituras durante la carga el índice podría estar incompleto: se descarta
+                if (nuevo != null && version == versionBuscador) {
+                    buscador = nuevo;
+                }
+            }
+        }, "indice-clientes");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Devuelve null si la consulta falla
+    private List<Cliente> consultarClientesPorPrefijo(String texto, int limite) {
+        List<Cliente> clientes = new ArrayList<>();
+        String prefijo = texto == null ? "" : texto.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String sql = "SELECT * FROM clientes WHERE nombre LIKE ? ESCAPE '\\' OR nombre LIKE ? ESCAPE '\\' "
+                + "OR dni LIKE ? ESCAPE '\\' ORDER BY nombre LIMIT ?";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, prefijo + "%");
+            pstmt.setString(2, "% " + prefijo + "%");
+            pstmt.setString(3, prefijo + "%");
+            pstmt.setInt(4, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    clientes.add(new Cliente(
+                        rs.getString("dni"),
+                        rs.getString("nombre"),
+                        rs.getString("telefono"),
+                        rs.getString("direccion")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar clientes por prefijo: " + e.getMessage());
+            return null;
+        }
+        return clientes;
+    }
+
+    private static void actualizarBuscador(Cliente cliente) {
+        synchronized (BLOQUEO_BUSCADOR) {
+            versionBuscador++;
+            if (buscador != null) {
+                buscador.agregar(copiar(cliente));
+            }
+        }
+    }
+
+    // Mismas reglas que registrarCliente; devuelve el mensaje de error o null si es válido
+    private static String validarCliente(Cliente cliente) {
+        if (!Validador.validarDNI(cliente.getDni())) {
+            return Validador.getMensajeErrorDNI();
+        }
+        if (!Validador.validarTelefono(cliente.getTelefono())) {
+            return Validador.getMensajeErrorTelefono();
+        }
+        return null;
+    }
+
+    /**
+     * Descarta de la caché un cliente y el listado completo.
+     * @param dni El DNI del cliente modificado.
+     */
+    static void invalidarCache(String dni) {
+        CACHE_CLIENTES.invalidar(dni);
+        CACHE_LISTADO.invalidarTodo();
+    }
+
+    /**
+     * @return Estadísticas de aciertos de la caché de clientes
+     */
+    public static String getEstadisticasCache() {
+        return CACHE_CLIENTES.getEstadisticas() + " | " + CACHE_LISTADO.getEstadisticas();
+    }
+
+    private static Cliente copiar(Cliente c) {
+        return new Cliente(c.getDni(), c.getNombre(), c.getTelefono(), c.getDireccion());
+    }
+}
@@ -0,0 +1,267 @@
+package controladores;
+
+import basedatos.ConexionSQLite;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Lectura por páginas de una tabla, con orden y filtro resueltos en SQLite.
+ *
+ * Las páginas se piden por "keyset": en lugar de OFFSET, la consulta continúa justo
+ * después de la última fila ya vista (su ancla), así que pedir la página 500 cuesta
+ * lo mismo que pedir la primera. Si no se conoce el ancla de la página anterior
+ * (p. ej. al arrastrar la barra de desplazamiento hasta el final), se parte del ancla
+ * conocida más cercana y se salta el resto con OFFSET.
+ *
+ * El filtro de texto se resuelve con LIKE sobre las columnas de filtro, o bien con un
+ * buscador en memoria que devuelve las claves coincidentes (clave IN (...)), para no
+ * recorrer la tabla entera en cada pulsación.
+ *
+ * @param <T> Tipo de las filas.
+ */
+public class ConsultaPaginada<T> {
+
+    /**
+     * Convierte la fila actual del ResultSet en un objeto.
+     * @param <T> Tipo de la fila.
+     */
+    @FunctionalInterface
+    public interface LectorFila<T> {
+        T leer(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Una página de resultados y el ancla de su última fila, para pedir la siguiente.
+     * @param <T> Tipo de las filas.
+     */
+    public static class Pagina<T> {
+        private final List<T> filas;
+        private final Object[] anclaFinal;
+
+        Pagina(List<T> filas, Object[] anclaFinal) {
+            this.filas = filas;
+            this.anclaFinal = anclaFinal;
+        }
+
+        /**
+         * @return Las filas de la página
+         */
+        public List<T> getFilas() {
+            return filas;
+        }
+
+        /**
+         * @return Valores (orden, clave) de la última fila, o null si la página está vacía
+         */
+        public Object[] getAnclaFinal() {
+            return anclaFinal;
+        }
+    }
+
+    private final String tabla;
+    private final String columnas;
+    private final String clave;
+    private final String condicionBase;
+    private final Object[] parametrosBase;
+    private final String[] columnasFiltro;
+    private final Function<String, List<?>> buscadorClaves;
+    private final Set<String> columnasOrdenables;
+    private final LectorFila<T> lector;
+
+    /**
+     * @param tabla Tabla a consultar.
+     * @param columnas Lista de columnas del SELECT.
+     * @param clave Columna única que desempata el orden (normalmente la clave primaria).
+     * @param condicionBase Condición fija con parámetros "?" (puede ser null).
+     * @param parametrosBase Valores de los parámetros de la condición fija.
+     * @param columnasFiltro Columnas donde se busca el texto del filtro.
+     * @param columnasOrdenables Columnas por las que se permite ordenar.
+     * @param lector Convierte cada fila del ResultSet.
+     */
+    ConsultaPaginada(String tabla, String columnas, String clave, String condicionBase, Object[] parametrosBase,
+                     String[] columnasFiltro, String[] columnasOrdenables, LectorFila<T> lector) {
+        this(tabla, columnas, clave, condicionBase, parametrosBase, columnasFiltro, null, columnasOrdenables, lector);
+    }
+
+    /**
+     * @param tabla Tabla a consultar.
+     * @param columnas Lista de columnas del SELECT.
+     * @param clave Columna única que desempata el orden (normalmente la clave primaria).
+     * @param condicionBase Condición fija con parámetros "?" (puede ser null).
+     * @param parametrosBase Valores de los parámetros de la condición fija.
+     * @param columnasFiltro Columnas donde se busca el texto del filtro si no hay buscador de claves.
+     * @param buscadorClaves Devuelve las claves de las filas que coinciden con el texto (puede ser null).
+     * @param columnasOrdenables Columnas por las que se permite ordenar.
+     * @param lector Convierte cada fila del ResultSet.
+     */
+    ConsultaPaginada(String tabla, String columnas, String clave, String condicionBase, Object[] parametrosBase,
+                     String[] columnasFiltro, Function<String, List<?>> buscadorClaves, String[] columnasOrdenables,
+                     LectorFila<T> lector) {
+        this.tabla = tabla;
+        this.columnas = columnas;
+        this.clave = clave;
+        this.condicionBase = condicionBase;
+        this.parametrosBase = parametrosBase == null ? new Object[0] : parametrosBase;
+        this.columnasFiltro = columnasFiltro;
+        this.buscadorClaves = buscadorClaves;
+        this.columnasOrdenables = new HashSet<>(Arrays.asList(columnasOrdenables));
+        this.columnasOrdenables.add(clave);
+        this.lector = lector;
+    }
+
+    /**
+     * @return Columna por la que se ordena si no se indica otra
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * @param columna Nombre de una columna.
+     * @return true si se puede ordenar por esa columna
+     */
+    public boolean esOrdenable(String columna) {
+        return columnasOrdenables.contains(columna);
+    }
+
+    /**
+     * Cuenta las filas que cumplen el filtro.
+     * @param filtro Texto buscado al inicio de las columnas de filtro o de alguna de sus palabras (puede ser vacío).
+     * @return El número de filas, o -1 si la consulta falla.
+     */
+    public int contar(String filtro) {
+        List<Object> parametros = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM " + tabla + unirCondiciones(condicionesFiltro(filtro, parametros));
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            asignarParametros(pstmt, parametros);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al contar filas de " + tabla + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Obtiene una página de filas.
+     * @param filtro Texto del filtro (puede ser vacío).
+     * @param columnaOrden Columna de orden (null para ordenar por la clave).
+     * @param ascendente Sentido del orden.
+     * @param ancla Ancla de la última fila anterior a la página, o null para empezar desde el principio.
+     * @param salto Filas a saltar después del ancla (0 si el ancla es la de la página anterior).
+     * @param limite Tamaño de la página.
+     * @return La página, o null si la consulta falla.
+     */
+    public Pagina<T> obtenerPagina(String filtro, String columnaOrden, boolean ascendente, Object[] ancla,
+                                   int salto, int limite) {
+        String orden = columnaOrden == null || !esOrdenable(columnaOrden) ? clave : columnaOrden;
+        boolean soloClave = orden.equals(clave);
+        String expresionOrden = soloClave ? clave : "COALESCE(" + orden + ", '')";
+        String sentido = ascendente ? " ASC" : " DESC";
+
+        List<Object> parametros = new ArrayList<>();
+        List<String> condiciones = condicionesFiltro(filtro, parametros);
+        if (ancla != null) {
+            // Continuar justo después del ancla según el orden activo
+            String comparador = ascendente ? " > ?" : " < ?";
+            if (soloClave) {
+                condiciones.add(clave + comparador);
+                parametros.add(ancla[1]);
+            } else {
+                // El primer término (>= / <=) permite a SQLite empezar a leer el índice justo en el ancla
+                String comparadorInclusivo = ascendente ? " >= ?" : " <= ?";
+                condiciones.add(expresionOrden + comparadorInclusivo);
+                condiciones.add("(" + expresionOrden + comparador + " OR " + clave + comparador + ")");
+                parametros.add(ancla[0]);
+                parametros.add(ancla[0]);
+                parametros.add(ancla[1]);
+            }
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(columnas)
+                .append(", ").append(expresionOrden).append(" AS orden_pagina, ").append(clave).append(" AS clave_pagina")
+                .append(" FROM ").append(tabla)
+                .append(unirCondiciones(condiciones))
+                .append(" ORDER BY ");
+        if (!soloClave) {
+            sql.append(expresionOrden).append(sentido).append(", ");
+        }
+        sql.append(clave).append(sentido).append(" LIMIT ? OFFSET ?");
+        parametros.add(limite);
+        parametros.add(Math.max(0, salto));
+
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            asignarParametros(pstmt, parametros);
+            List<T> filas = new ArrayList<>(limite);
+            Object[] anclaFinal = null;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    filas.add(lector.leer(rs));
+                    anclaFinal = new Object[]{rs.getObject("orden_pagina"), rs.getObject("clave_pagina")};
+                }
+            }
+            return new Pagina<>(filas, anclaFinal);
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de " + tabla + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Condición fija más el filtro de texto; los valores se agregan a parametros en el mismo orden
+    private List<String> condicionesFiltro(String filtro, List<Object> parametros) {
+        List<String> condiciones = new ArrayList<>();
+        if (condicionBase != null) {
+            condiciones.add("(" + condicionBase + ")");
+            parametros.addAll(Arrays.asList(parametrosBase));
+        }
+        String texto = filtro == null ? "" : filtro.trim();
+        if (!texto.isEmpty() && buscadorClaves != null) {
+            // Búsqueda directa por clave primaria en lugar de LIKE sobre toda la tabla
+            List<?> claves = buscadorClaves.apply(texto);
+            if (claves.isEmpty()) {
+                condiciones.add("0");
+            } else {
+                condiciones.add(clave + " IN (" + String.join(", ", Collections.nCopies(claves.size(), "?")) + ")");
+                parametros.addAll(claves);
+            }
+        } else if (!texto.isEmpty() && columnasFiltro.length > 0) {
+            String escapado = texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            StringBuilder condicion = new StringBuilder("(");
+            for (int i = 0; i < columnasFiltro.length; i++) {
+                if (i > 0) {
+                    condicion.append(" OR ");
+                }
+                // Inicio del campo o inicio de cualquiera de sus palabras
+                condicion.append(columnasFiltro[i]).append(" LIKE ? ESCAPE '\\' OR ")
+                        .append(columnasFiltro[i]).append(" LIKE ? ESCAPE '\\'");
+                parametros.add(escapado + "%");
+                parametros.add("% " + escapado + "%");
+            }
+            condiciones.add(condicion.append(")").toString());
+        }
+        return condiciones;
+    }
+
+    private static String unirCondiciones(List<String> condiciones) {
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    private static void asignarParametros(PreparedStatement pstmt, List<Object> parametros) throws SQLException {
+        for (int i = 0; i < parametros.size(); i++) {
+            pstmt.setObject(i + 1, parametros.get(i));
+        }
+    }
+}
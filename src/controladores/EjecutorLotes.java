@@ -0,0 +1,206 @@
+package controladores;
+
+import basedatos.ConexionSQLite;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ejecuta una sentencia de escritura sobre muchas filas usando el batching de JDBC,
+ * en una única transacción y con una sola conexión del pool.
+ *
+ * Las filas se envían en bloques de {@code tamanoLote}. Si un bloque falla
+ * (p. ej. una clave duplicada), se revierte hasta el savepoint del bloque y sus
+ * filas se repiten una por una dentro de la misma transacción, de modo que solo
+ * se rechazan las filas realmente inválidas. En SQLite una violación de
+ * restricción revierte solo la sentencia que falló, no la transacción.
+ */
+class EjecutorLotes {
+
+    static final int TAMANO_LOTE_PREDETERMINADO = 500;
+
+    /**
+     * Asigna los parámetros de una fila a la sentencia.
+     * @param <T> Tipo de la fila.
+     */
+    @FunctionalInterface
+    interface AsignadorParametros<T> {
+        void asignar(PreparedStatement pstmt, T fila) throws SQLException;
+    }
+
+    /**
+     * Paso adicional que se ejecuta en la misma transacción, antes de escribir la primera fila.
+     */
+    @FunctionalInterface
+    interface PasoInicial {
+        void aplicar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Paso adicional que se ejecuta en la misma transacción, justo antes del commit.
+     * Recibe el resultado fila por fila para actuar solo sobre las filas que se escribieron.
+     */
+    @FunctionalInterface
+    interface PasoFinal {
+        void aplicar(Connection conn, ResultadoLote resultado) throws SQLException;
+    }
+
+    private EjecutorLotes() {
+    }
+
+    /**
+     * @param sql Sentencia INSERT/UPDATE con parámetros.
+     * @param filas Filas a escribir.
+     * @param tamanoLote Filas por executeBatch().
+     * @param validar Devuelve el mensaje de error de una fila inválida, o null si es válida.
+     * @param asignador Asigna los parámetros de cada fila.
+     * @param <T> Tipo de la fila.
+     * @return El resultado fila por fila.
+     */
+    static <T> ResultadoLote ejecutar(String sql, List<T> filas, int tamanoLote,
+                                      Function<T, String> validar, AsignadorParametros<T> asignador) {
+        return ejecutar(sql, filas, tamanoLote, validar, asignador, null);
+    }
+
+    /**
+     * @param sql Sentencia INSERT/UPDATE con parámetros.
+     * @param filas Filas a escribir.
+     * @param tamanoLote Filas por executeBatch().
+     * @param validar Devuelve el mensaje de error de una fila inválida, o null si es válida.
+     * @param asignador Asigna los parámetros de cada fila.
+     * @param pasoFinal Trabajo adicional dentro de la transacción (puede ser null).
+     * @param <T> Tipo de la fila.
+     * @return El resultado fila por fila.
+     */
+    static <T> ResultadoLote ejecutar(String sql, List<T> filas, int tamanoLote, Function<T, String> validar,
+                                      AsignadorParametros<T> asignador, PasoFinal pasoFinal) {
+        return ejecutar(sql, filas, tamanoLote, validar, asignador, null, pasoFinal);
+    }
+
+    /**
+     * @param sql Sentencia INSERT/UPDATE con parámetros.
+     * @param filas Filas a escribir.
+     * @param tamanoLote Filas por executeBatch().
+     * @param validar Devuelve el mensaje de error de una fila inválida, o null si es válida.
+     * @param asignador Asigna los parámetros de cada fila.
+     * @param pasoInicial Trabajo previo dentro de la transacción (puede ser null).
+     * @param pasoFinal Trabajo adicional dentro de la transacción (puede ser null).
+     * @param <T> Tipo de la fila.
+     * @return El resultado fila por fila.
+     */
+    static <T> ResultadoLote ejecutar(String sql, List<T> filas, int tamanoLote, Function<T, String> validar,
+                                      AsignadorParametros<T> asignador, PasoInicial pasoInicial,
+                                      PasoFinal pasoFinal) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+        long inicio = System.nanoTime();
+        ResultadoLote resultado = new ResultadoLote(filas.size());
+
+        Connection conn = ConexionSQLite.conectar();
+        if (conn == null) {
+            for (int i = 0; i < filas.size(); i++) {
+                resultado.marcarError(i, "No se pudo obtener una conexión");
+            }
+            return resultado;
+        }
+
+        boolean confirmada = false;
+        try {
+            conn.setAutoCommit(false);
+            if (pasoInicial != null) {
+                pasoInicial.aplicar(conn);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int[] pendientes = new int[tamanoLote]; // Posición original de cada fila del bloque
+                int enBloque = 0;
+                for (int i = 0; i < filas.size(); i++) {
+                    T fila = filas.get(i);
+                    String error = validar.apply(fila);
+                    if (error != null) {
+                        resultado.marcarError(i, error);
+                        continue;
+                    }
+                    asignador.asignar(pstmt, fila);
+                    pstmt.addBatch();
+                    pendientes[enBloque++] = i;
+                    if (enBloque == tamanoLote) {
+                        enviarBloque(conn, pstmt, filas, pendientes, enBloque, asignador, resultado);
+                        enBloque = 0;
+                    }
+                }
+                if (enBloque > 0) {
+                    enviarBloque(conn, pstmt, filas, pendientes, enBloque, asignador, resultado);
+                }
+            }
+            if (pasoFinal != null) {
+                pasoFinal.aplicar(conn, resultado);
+            }
+            conn.commit();
+            confirmada = true;
+        } catch (SQLException e) {
+            System.err.println("Error en la escritura por lotes, se hará rollback: " + e.getMessage());
+            resultado.revertirTodo("Transacción revertida: " + e.getMessage());
+        } finally {
+            // También ante una RuntimeException de validar, asignador o los pasos:
+            // setAutoCommit(true) confirmaría lo escrito hasta ese momento
+            if (!confirmada) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Error al intentar hacer rollback: " + ex.getMessage());
+                }
+            }
+            try {
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar recursos: " + e.getMessage());
+            }
+        }
+        resultado.setDuracionNanos(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    private static <T> void enviarBloque(Connection conn, PreparedStatement pstmt, List<T> filas, int[] pendientes,
+                                         int enBloque, AsignadorParametros<T> asignador, ResultadoLote resultado)
+            throws SQLException {
+        // Los drivers difieren en qué informan tras un fallo a mitad de bloque, así que el
+        // bloque se deshace completo con un savepoint y se repite fila por fila
+        Savepoint inicioBloque = conn.setSavepoint();
+        try {
+            int[] conteos = pstmt.executeBatch();
+            conn.releaseSavepoint(inicioBloque);
+            for (int j = 0; j < enBloque; j++) {
+                registrarConteo(resultado, pendientes[j], j < conteos.length ? conteos[j] : Statement.SUCCESS_NO_INFO);
+            }
+        } catch (SQLException e) {
+            pstmt.clearBatch();
+            conn.rollback(inicioBloque);
+            conn.releaseSavepoint(inicioBloque);
+            for (int j = 0; j < enBloque; j++) {
+                int posicion = pendientes[j];
+                try {
+                    asignador.asignar(pstmt, filas.get(posicion));
+                    registrarConteo(resultado, posicion, pstmt.executeUpdate());
+                } catch (SQLException ex) {
+                    resultado.marcarError(posicion, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void registrarConteo(ResultadoLote resultado, int posicion, int conteo) {
+        if (conteo > 0 || conteo == Statement.SUCCESS_NO_INFO) {
+            resultado.marcarExito(posicion);
+        } else if (conteo == Statement.EXECUTE_FAILED) {
+            resultado.marcarError(posicion, "La fila fue rechazada por la base de datos");
+        } else {
+            resultado.marcarError(posicion, "Ninguna fila coincide con la clave o la condición");
+        }
+    }
+}
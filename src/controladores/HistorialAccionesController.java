@@ -1,88 +1,104 @@
 package controladores;
 
-import algoritmos.lineales.ListaDoble; // Usamos nuestra implementación!
-import controladores.comandos.Command;
+import algoritmos.lineales.PilaCircular;
 import controladores.comandos.Command;
 
 /**
  * Controlador que gestiona el historial de acciones para las funciones
  * de Deshacer (Undo) y Rehacer (Redo).
- * Utiliza una Lista Doblemente Enlazada para almacenar los comandos ejecutados.
+ *
+ * Las dos pilas son de capacidad fija (PilaCircular): al superar el máximo se descarta
+ * la acción más antigua, así que una sesión larga no acumula comandos sin límite.
+ * Los cambios consecutivos sobre la misma entidad se fusionan en una sola entrada
+ * (ver {@link Command#fusionar}), de modo que un deshacer los revierte juntos.
  */
 public class HistorialAccionesController {
 
-    // Clase interna NodoDoble para gestionar el puntero actual
-    private class Nodo<T> {
-        T comando;
-        Nodo<T> anterior;
-        Nodo<T> siguiente;
+    public static final int MAX_HISTORIAL = 50;
 
-        Nodo(T comando) {
-            this.comando = comando;
-        }
-    }
-    
-    private Nodo<Command> punteroActual;
+    private final PilaCircular<Command> pilaDeshacer;
+    private final PilaCircular<Command> pilaRehacer;
+
+    // Solo se fusiona con la acción anterior si esta acaba de ejecutarse (no tras deshacer o rehacer)
+    private boolean ultimaFueEjecucion;
+
+    private long comandosDescartados;
+    private long comandosFusionados;
 
     public HistorialAccionesController() {
-        // El historial comienza con un nodo "nulo" o "base"
-        punteroActual = new Nodo<>(null); 
+        this(MAX_HISTORIAL);
+    }
+
+    /**
+     * @param capacidad Número máximo de acciones que se pueden deshacer.
+     */
+    public HistorialAccionesController(int capacidad) {
+        this.pilaDeshacer = new PilaCircular<>(capacidad);
+        this.pilaRehacer = new PilaCircular<>(capacidad);
     }
 
     /**
      * Ejecuta un nuevo comando y lo añade al historial.
      * Cualquier acción en la pila de "rehacer" es eliminada.
      * @param comando El comando a ejecutar.
+     * @return true si el comando se ejecutó.
      */
-    public void ejecutarComando(Command comando) {
-        if (comando.ejecutar()) {
-            Nodo<Command> nuevoNodo = new Nodo<>(comando);
-            punteroActual.siguiente = nuevoNodo;
-            nuevoNodo.anterior = punteroActual;
-            punteroActual = nuevoNodo;
-            System.out.println("Comando ejecutado y añadido al historial.");
-        } else {
+    public boolean ejecutarComando(Command comando) {
+        if (!comando.ejecutar()) {
             System.err.println("El comando no se pudo ejecutar.");
+            return false;
         }
+        pilaRehacer.limpiar(); // Nueva acción invalida el "Rehacer"
+        Command anterior = pilaDeshacer.verTope();
+        if (ultimaFueEjecucion && anterior != null && anterior.fusionar(comando)) {
+            comandosFusionados++;
+        } else if (pilaDeshacer.apilar(comando) != null) {
+            comandosDescartados++;
+        }
+        ultimaFueEjecucion = true;
+        return true;
     }
 
     /**
-     * Deshace la acción actual.
-     * Mueve el puntero hacia atrás en el historial.
+     * Deshace la última acción.
+     * @return true si se deshizo.
      */
-    public void deshacer() {
+    public boolean deshacer() {
         if (!puedeDeshacer()) {
             System.out.println("Nada que deshacer.");
-            return;
+            return false;
         }
-        
-        if (punteroActual.comando.deshacer()) {
-            punteroActual = punteroActual.anterior;
-            System.out.println("Acción deshecha.");
-        } else {
+        Command comando = pilaDeshacer.verTope();
+        if (!comando.deshacer()) {
             System.err.println("No se pudo deshacer la acción.");
+            return false;
         }
+        pilaDeshacer.desapilar();
+        pilaRehacer.apilar(comando);
+        ultimaFueEjecucion = false;
+        return true;
     }
 
     /**
      * Rehace la última acción deshecha.
-     * Mueve el puntero hacia adelante en el historial.
+     * @return true si se rehízo.
      */
-    public void rehacer() {
+    public boolean rehacer() {
         if (!puedeRehacer()) {
             System.out.println("Nada que rehacer.");
-            return;
+            return false;
         }
-
-        // Movemos el puntero primero
-        punteroActual = punteroActual.siguiente;
-        if (punteroActual.comando.ejecutar()) {
-             System.out.println("Acción rehecha.");
-        } else {
-             System.err.println("No se pudo rehacer la acción.");
-             // Si falla, volvemos para mantener la consistencia
-             punteroActual = punteroActual.anterior;
+        Command comando = pilaRehacer.verTope();
+        if (!comando.ejecutar()) {
+            System.err.println("No se pudo rehacer la acción.");
+            return false;
+        }
+        pilaRehacer.desapilar();
+        if (pilaDeshacer.apilar(comando) != null) {
+            comandosDescartados++;
         }
+        ultimaFueEjecucion = false;
+        return true;
     }
 
     /**
@@ -90,7 +106,7 @@ public class HistorialAccionesController {
      * @return true si hay comandos en la pila de deshacer.
      */
     public boolean puedeDeshacer() {
-        return punteroActual.comando != null;
+        return !pilaDeshacer.estaVacia();
     }
 
     /**
@@ -98,6 +114,76 @@ public class HistorialAccionesController {
      * @return true si hay comandos en la pila de rehacer.
      */
     public boolean puedeRehacer() {
-        return punteroActual.siguiente != null;
+        return !pilaRehacer.estaVacia();
+    }
+
+    /**
+     * Vacía el historial (p. ej. al cerrar la ventana que lo usa).
+     */
+    public void limpiar() {
+        pilaDeshacer.limpiar();
+        pilaRehacer.limpiar();
+        ultimaFueEjecucion = false;
+    }
+
+    /**
+     * @return Número de acciones que se pueden deshacer
+     */
+    public int getTamanoDeshacer() {
+        return pilaDeshacer.getTamano();
+    }
+
+    /**
+     * @return Número de acciones que se pueden rehacer
+     */
+    public int getTamanoRehacer() {
+        return pilaRehacer.getTamano();
+    }
+
+    /**
+     * @return Máximo de acciones que guarda cada pila
+     */
+    public int getCapacidad() {
+        return pilaDeshacer.getCapacidad();
+    }
+
+    /**
+     * @return Acciones antiguas descartadas por superar la capacidad
+     */
+    public long getComandosDescartados() {
+        return comandosDescartados;
+    }
+
+    /**
+     * @return Acciones absorbidas por la anterior al fusionarse
+     */
+    public long getComandosFusionados() {
+        return comandosFusionados;
+    }
+
+    /**
+     * Estimación de la memoria que ocupan los comandos guardados (según cada comando)
+     * más los dos arreglos de las pilas.
+     * Complejidad: O(n) con n = acciones guardadas (a lo sumo 2 x capacidad).
+     * @return Bytes aproximados.
+     */
+    public long getMemoriaEstimadaBytes() {
+        long bytes = 2L * (16 + 4L * getCapacidad()); // Arreglos de referencias comprimidas
+        for (int i = 0; i < pilaDeshacer.getTamano(); i++) {
+            bytes += pilaDeshacer.obtener(i).getTamanoEstimadoBytes();
+        }
+        for (int i = 0; i < pilaRehacer.getTamano(); i++) {
+            bytes += pilaRehacer.obtener(i).getTamanoEstimadoBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Retorna información sobre el estado del historial.
+     */
+    public String getEstadoHistorial() {
+        return String.format("Deshacer: %d/%d acciones | Rehacer: %d acciones | %d fusionadas, %d descartadas | ~%d bytes",
+                           getTamanoDeshacer(), getCapacidad(), getTamanoRehacer(),
+                           comandosFusionados, comandosDescartados, getMemoriaEstimadaBytes());
     }
-}
\ No newline at end of file
+}
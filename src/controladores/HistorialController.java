@@ -5,6 +5,12 @@ import modelos.Historial;
 import java.sql.*;
 import modelos.Mascota;
 
+import modelos.ResultadoBusqueda;
+
+import java.util.ArrayList;
+
+import java.util.List;
+
 public class HistorialController {
 
     /**
@@ -243,6 +249,8 @@ public class HistorialController {
 
             conn.commit(); // Si todo fue bien, confirmamos la transacción
 
+            MascotaController.invalidarCacheCliente(mascota.getDniCliente());
+
             return true;
 
 
@@ -278,4 +286,77 @@ public class HistorialController {
             }
         }
     }
+
+
+
+    /**
+
+     * Busca texto en las vacunas aplicadas y pendientes de todos los historiales.
+
+     * Cada palabra se busca como prefijo y sin distinguir tildes ("rab" encuentra "Rabia").
+
+     * @param texto El texto a buscar.
+
+     * @param limite Número máximo de resultados.
+
+     * @return Los historiales encontrados, del más al menos relevante.
+
+     */
+
+    public List<ResultadoBusqueda> buscarEnHistoriales(String texto, int limite) {
+
+        return buscarHistoriales(BusquedaTextoCompleto.aConsultaFts(texto), limite);
+
+    }
+
+
+
+    /**
+
+     * Busca texto solo en las vacunas aplicadas (p. ej. "qué mascotas recibieron la vacuna antirrábica").
+
+     * @param texto El texto a buscar.
+
+     * @param limite Número máximo de resultados.
+
+     * @return Los historiales encontrados, del más al menos relevante.
+
+     */
+
+    public List<ResultadoBusqueda> buscarVacunasAplicadas(String texto, int limite) {
+
+        String consulta = BusquedaTextoCompleto.aConsultaFts(texto);
+
+        return buscarHistoriales(consulta == null ? null : "{vacunas_aplicadas} : (" + consulta + ")", limite);
+
+    }
+
+
+
+    private List<ResultadoBusqueda> buscarHistoriales(String consultaFts, int limite) {
+
+        if (consultaFts == null) {
+
+            return new ArrayList<>();
+
+        }
+
+        // Las coincidencias en vacunas aplicadas pesan el doble que en pendientes
+
+        String sql = "SELECT h.id, h.id_mascota, m.nombre, m.dni_cliente, h.ultima_visita, "
+
+                + "snippet(historiales_fts, -1, '[', ']', '…', 12), bm25(historiales_fts, 2.0, 1.0) AS rango "
+
+                + "FROM historiales_fts "
+
+                + "JOIN historiales h ON h.id = historiales_fts.rowid "
+
+                + "LEFT JOIN mascotas m ON m.id = h.id_mascota "
+
+                + "WHERE historiales_fts MATCH ? ORDER BY rango LIMIT ?";
+
+        return BusquedaTextoCompleto.ejecutar(sql, consultaFts, limite, "historiales");
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package controladores;
+
+import modelos.Cita;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Índice en memoria de los turnos de 30 minutos ya reservados.
+ * Usa un TreeMap (árbol rojo-negro) con la hora de inicio del turno como clave,
+ * por lo que consultar si un turno está libre cuesta O(log n) en lugar de una
+ * consulta SQL por intento.
+ *
+ * Una cita ocupa todos los turnos que dura según su motivo
+ * ({@link MotorDisponibilidad#turnosParaMotivo}): una cirugía a las 7:00 ocupa
+ * 7:00, 7:30, 8:00 y 8:30.
+ *
+ * Los meses se cargan de forma incremental desde la base de datos la primera vez
+ * que se consultan, y el índice se mantiene sincronizado al registrar o eliminar citas.
+ * (Una cita no cruza la medianoche porque el horario de atención termina a las 19:00,
+ * así que cargar solo las citas que empiezan en el mes basta para conocer su ocupación.)
+ */
+class IndiceTurnos {
+
+    static final int MINUTOS_POR_TURNO = 30;
+    static final int CITAS_POR_TURNO = 1;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    // Inicio del turno -> número de citas en ese turno
+    private final TreeMap<LocalDateTime, Integer> ocupados = new TreeMap<>();
+    // ID de cita -> su reserva (inicio y duración), para poder eliminarla del índice
+    private final Map<Integer, Reserva> reservaPorCita = new HashMap<>();
+    private final Set<YearMonth> mesesCargados = new HashSet<>();
+
+    // Carga las citas de un mes [inicio, fin) desde la base de datos
+    private final Function<YearMonth, List<Cita>> cargadorMes;
+
+    /**
+     * @param cargadorMes Función que obtiene las citas de un mes.
+     */
+    IndiceTurnos(Function<YearMonth, List<Cita>> cargadorMes) {
+        this.cargadorMes = cargadorMes;
+    }
+
+    /**
+     * Redondea una fecha hacia abajo al inicio de su turno de 30 minutos.
+     * @param fechaHora La fecha y hora.
+     * @return El inicio del turno que la contiene.
+     */
+    static LocalDateTime inicioTurno(LocalDateTime fechaHora) {
+        LocalDateTime truncada = fechaHora.truncatedTo(ChronoUnit.MINUTES);
+        return truncada.minusMinutes(truncada.getMinute() % MINUTOS_POR_TURNO);
+    }
+
+    /**
+     * Verifica si un turno tiene cupo. Complejidad: O(log n)
+     * @param fechaHora Cualquier instante dentro del turno.
+     * @return true si el turno no alcanzó su capacidad.
+     */
+    synchronized boolean estaLibre(LocalDateTime fechaHora) {
+        return estaLibre(fechaHora, 1);
+    }
+
+    /**
+     * Verifica si hay cupo en varios turnos consecutivos. Complejidad: O(turnos * log n)
+     * @param fechaHora Cualquier instante dentro del primer turno.
+     * @param turnos Número de turnos que dura la cita.
+     * @return true si ninguno de los turnos alcanzó su capacidad.
+     */
+    synchronized boolean estaLibre(LocalDateTime fechaHora, int turnos) {
+        LocalDateTime inicio = inicioTurno(fechaHora);
+        for (int k = 0; k < turnos; k++) {
+            LocalDateTime turno = inicio.plusMinutes((long) k * MINUTOS_POR_TURNO);
+            asegurarMesCargado(YearMonth.from(turno));
+            if (ocupados.getOrDefault(turno, 0) >= CITAS_POR_TURNO) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Construye el mapa de ocupación de un rango de días como bitmaps:
+     * el bit i del día d vale 1 si el turno i (i = hora * 2 + media hora) está lleno.
+     * Complejidad: O(log n + k), con k el número de turnos ocupados en el rango.
+     * @param desde Primer día (inclusive).
+     * @param dias Número de días.
+     * @return Un arreglo con un bitmap por día.
+     */
+    synchronized long[] mapaOcupacion(LocalDate desde, int dias) {
+        long[] mapa = new long[dias];
+        LocalDate hasta = desde.plusDays(dias);
+        for (YearMonth mes = YearMonth.from(desde); mes.atDay(1).isBefore(hasta); mes = mes.plusMonths(1)) {
+            asegurarMesCargado(mes);
+        }
+        for (Map.Entry<LocalDateTime, Integer> e
+                : ocupados.subMap(desde.atStartOfDay(), hasta.atStartOfDay()).entrySet()) {
+            if (e.getValue() >= CITAS_POR_TURNO) {
+                LocalDateTime turno = e.getKey();
+                int dia = (int) ChronoUnit.DAYS.between(desde, turno.toLocalDate());
+                mapa[dia] |= 1L << indiceTurnoDelDia(turno);
+            }
+        }
+        return mapa;
+    }
+
+    /**
+     * @param turno Inicio de un turno.
+     * @return Posición del turno dentro del día (0 a 47).
+     */
+    static int indiceTurnoDelDia(LocalDateTime turno) {
+        return (turno.getHour() * 60 + turno.getMinute()) / MINUTOS_POR_TURNO;
+    }
+
+    /**
+     * Registra una cita recién guardada en todos los turnos que ocupa. Complejidad: O(log n)
+     * @param cita La cita con su ID asignado.
+     */
+    synchronized void agregar(Cita cita) {
+        LocalDateTime turno = parsear(cita.getFechaHora());
+        if (turno == null || !mesesCargados.contains(YearMonth.from(turno))) {
+            return; // El mes se leerá completo de la BD cuando se consulte
+        }
+        agregarSinCargar(cita, turno);
+    }
+
+    /**
+     * Quita una cita eliminada del índice. Complejidad: O(log n)
+     * @param idCita El ID de la cita.
+     */
+    synchronized void eliminar(int idCita) {
+        Reserva reserva = reservaPorCita.remove(idCita);
+        if (reserva != null) {
+            for (int k = 0; k < reserva.turnos; k++) {
+                ocupados.computeIfPresent(reserva.inicio.plusMinutes((long) k * MINUTOS_POR_TURNO),
+                        (t, n) -> n > 1 ? n - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * Descarta todo el contenido; los meses se recargarán al consultarse.
+     */
+    synchronized void invalidar() {
+        ocupados.clear();
+        reservaPorCita.clear();
+        mesesCargados.clear();
+    }
+
+    /**
+     * @return Número de turnos ocupados actualmente en memoria
+     */
+    synchronized int getTurnosOcupados() {
+        return ocupados.size();
+    }
+
+    private void asegurarMesCargado(YearMonth mes) {
+        if (mesesCargados.add(mes)) {
+            for (Cita cita : cargadorMes.apply(mes)) {
+                LocalDateTime turno = parsear(cita.getFechaHora());
+                if (turno != null) {
+                    agregarSinCargar(cita, turno);
+                }
+            }
+        }
+    }
+
+    private void agregarSinCargar(Cita cita, LocalDateTime turno) {
+        Reserva reserva = new Reserva(turno, MotorDisponibilidad.turnosParaMotivo(cita.getMotivo()));
+        if (reservaPorCita.putIfAbsent(cita.getId(), reserva) == null) {
+            for (int k = 0; k < reserva.turnos; k++) {
+                ocupados.merge(turno.plusMinutes((long) k * MINUTOS_POR_TURNO), 1, Integer::sum);
+            }
+        }
+    }
+
+    private static LocalDateTime parsear(String fechaHora) {
+        if (fechaHora == null) {
+            return null;
+        }
+        try {
+            return inicioTurno(LocalDateTime.parse(fechaHora, FORMATTER));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static class Reserva {
+        final LocalDateTime inicio;
+        final int turnos;
+
+        Reserva(LocalDateTime inicio, int turnos) {
+            this.inicio = inicio;
+            this.turnos = turnos;
+        }
+    }
+}
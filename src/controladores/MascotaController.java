@@ -12,6 +12,8 @@ import java.util.ArrayList;
 
 import java.util.List;
 
+import utilidades.Validador;
+
 
 
 /**
@@ -22,7 +24,17 @@ import java.util.List;
 
 public class MascotaController {
 
+    private static final int CAPACIDAD_CACHE = 256;
+
+    private static final long TTL_CACHE_MS = 5 * 60 * 1000;
+
+    // DNI del cliente -> sus mascotas; compartida por todas las instancias
 
+    private static final CacheEntidades<String, List<Mascota>> CACHE_POR_CLIENTE =
+
+            new CacheEntidades<>("Mascotas por cliente", CAPACIDAD_CACHE, TTL_CACHE_MS,
+
+                    lista -> CacheEntidades.copiarLista(lista, MascotaController::copiar));
 
     /**
 
@@ -88,6 +100,8 @@ public class MascotaController {
 
             pstmtMascota.setString(6, mascota.getDniCliente());
 
+            pstmtMascota.setString(7, rutaFotoMascota);
+
             pstmtMascota.executeUpdate();
 
 
@@ -124,6 +138,8 @@ public class MascotaController {
 
             pstmtHistorial.setString(5, "No registrada");
 
+            pstmtHistorial.setString(6, rutaRegistroVacunas);
+
             pstmtHistorial.executeUpdate();
 
 
@@ -132,6 +148,8 @@ public class MascotaController {
 
             conn.commit();
 
+            invalidarCacheCliente(mascota.getDniCliente());
+
             return true;
 
 
@@ -220,9 +238,11 @@ public class MascotaController {
 
            pstmt.setString(6, mascota.getDniCliente());
 
+           int filasAfectadas = pstmt.executeUpdate();
 
+           invalidarCacheCliente(mascota.getDniCliente());
 
-           return pstmt.executeUpdate() > 0;
+           return filasAfectadas > 0;
 
        } catch (SQLException e) {
 
@@ -248,6 +268,16 @@ public class MascotaController {
 
     public List<Mascota> buscarMascotasPorCliente(String dniCliente) {
 
+        List<Mascota> mascotas = CACHE_POR_CLIENTE.obtener(dniCliente, this::consultarMascotasPorCliente);
+
+        return mascotas != null ? mascotas : new ArrayList<>();
+
+    }
+
+    // Devuelve null si la consulta falla, para no cachear una lista vacía por error
+
+    private List<Mascota> consultarMascotasPorCliente(String dniCliente) {
+
         List<Mascota> mascotas = new ArrayList<>();
 
         String sql = "SELECT * FROM mascotas WHERE dni_cliente = ?";
@@ -292,6 +322,8 @@ public class MascotaController {
 
             System.err.println("Error al buscar mascotas por cliente: " + e.getMessage());
 
+            return null;
+
         }
 
         return mascotas;
@@ -332,9 +364,11 @@ public class MascotaController {
 
             pstmt.setInt(6, mascota.getId());
 
+            int filasAfectadas = pstmt.executeUpdate();
 
+            invalidarCacheCliente(mascota.getDniCliente());
 
-            return pstmt.executeUpdate() > 0;
+            return filasAfectadas > 0;
 
         } catch (SQLException e) {
 
@@ -370,7 +404,13 @@ public class MascotaController {
 
             pstmt.setInt(1, idMascota);
 
-            return pstmt.executeUpdate() > 0;
+            int filasAfectadas = pstmt.executeUpdate();
+
+            // Solo se conoce el ID: se descarta toda la caché
+
+            CACHE_POR_CLIENTE.invalidarTodo();
+
+            return filasAfectadas > 0;
 
         } catch (SQLException e) {
 
@@ -382,4 +422,243 @@ public class MascotaController {
 
     }
 
-}
\ No newline at end of file
+    /**
+
+     * Registra muchas mascotas en una sola transacción usando batching de JDBC,
+
+     * creando también su historial clínico inicial.
+
+     * Si una mascota trae ID (mayor que 0) se conserva; si no, se genera uno nuevo.
+
+     * @param mascotas Mascotas a registrar.
+
+     * @param tamanoLote Filas enviadas por cada executeBatch().
+
+     * @return El resultado fila por fila.
+
+     */
+
+    public ResultadoLote registrarMascotas(List<Mascota> mascotas, int tamanoLote) {
+
+        String sql = "INSERT INTO mascotas(id, nombre, especie, raza, edad, peso, dni_cliente) VALUES(?,?,?,?,?,?,?)";
+
+        // Los historiales se crean solo para las mascotas de este lote: las que recibieron un ID
+
+        // mayor al máximo previo (AUTOINCREMENT nunca reutiliza IDs) y las que traían un ID propio
+
+        // menor y se insertaron bien. Las mascotas que ya existían no se tocan.
+
+        String sqlHistorialesNuevos = "INSERT INTO historiales (id_mascota, vacunas_aplicadas, vacunas_pendientes, ultima_desparasitacion, ultima_visita) "
+
+                + "SELECT m.id, 'Ninguna', 'Ninguna', 'No registrada', 'No registrada' FROM mascotas m "
+
+                + "WHERE m.id > ? AND NOT EXISTS (SELECT 1 FROM historiales h WHERE h.id_mascota = m.id)";
+
+        String sqlHistorialPorId = "INSERT INTO historiales (id_mascota, vacunas_aplicadas, vacunas_pendientes, ultima_desparasitacion, ultima_visita) "
+
+                + "SELECT ?, 'Ninguna', 'Ninguna', 'No registrada', 'No registrada' "
+
+                + "WHERE NOT EXISTS (SELECT 1 FROM historiales h WHERE h.id_mascota = ?)";
+
+        long[] maxIdPrevio = new long[1];
+
+        ResultadoLote resultado = EjecutorLotes.ejecutar(sql, mascotas, tamanoLote,
+
+                MascotaController::validarMascota,
+
+                (pstmt, mascota) -> {
+
+                    if (mascota.getId() > 0) {
+
+                        pstmt.setInt(1, mascota.getId());
+
+                    } else {
+
+                        pstmt.setNull(1, Types.INTEGER); // SQLite asigna el siguiente ID
+
+                    }
+
+                    pstmt.setString(2, mascota.getNombre());
+
+                    pstmt.setString(3, mascota.getEspecie());
+
+                    pstmt.setString(4, mascota.getRaza());
+
+                    pstmt.setInt(5, mascota.getEdad());
+
+                    pstmt.setDouble(6, mascota.getPeso());
+
+                    pstmt.setString(7, mascota.getDniCliente());
+
+                },
+
+                conn -> {
+
+                    try (Statement stmt = conn.createStatement();
+
+                         ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM mascotas")) {
+
+                        maxIdPrevio[0] = rs.next() ? rs.getLong(1) : 0;
+
+                    }
+
+                },
+
+                (conn, res) -> {
+
+                    try (PreparedStatement pstmt = conn.prepareStatement(sqlHistorialesNuevos)) {
+
+                        pstmt.setLong(1, maxIdPrevio[0]);
+
+                        pstmt.executeUpdate();
+
+                    }
+
+                    try (PreparedStatement pstmt = conn.prepareStatement(sqlHistorialPorId)) {
+
+                        boolean hayFilas = false;
+
+                        for (int i = 0; i < mascotas.size(); i++) {
+
+                            int id = mascotas.get(i).getId();
+
+                            if (res.isExito(i) && id > 0 && id <= maxIdPrevio[0]) {
+
+                                pstmt.setInt(1, id);
+
+                                pstmt.setInt(2, id);
+
+                                pstmt.addBatch();
+
+                                hayFilas = true;
+
+                            }
+
+                        }
+
+                        if (hayFilas) {
+
+                            pstmt.executeBatch();
+
+                        }
+
+                    }
+
+                });
+
+        CACHE_POR_CLIENTE.invalidarTodo();
+
+        return resultado;
+
+    }
+
+    private static String validarMascota(Mascota mascota) {
+
+        if (mascota.getNombre() == null || mascota.getNombre().trim().isEmpty()) {
+
+            return "El nombre de la mascota es obligatorio";
+
+        }
+
+        if (!Validador.validarDNI(mascota.getDniCliente())) {
+
+            return Validador.getMensajeErrorDNI();
+
+        }
+
+        if (mascota.getEdad() < 0 || mascota.getPeso() < 0) {
+
+            return "La edad y el peso no pueden ser negativos";
+
+        }
+
+        return null;
+
+    }
+
+    /**
+
+     * Descarta de la caché las mascotas de un cliente tras una escritura.
+
+     * @param dniCliente El DNI del dueño; si es null se descarta toda la caché.
+
+     */
+
+    static void invalidarCacheCliente(String dniCliente) {
+
+        if (dniCliente == null) {
+
+            CACHE_POR_CLIENTE.invalidarTodo();
+
+        } else {
+
+            CACHE_POR_CLIENTE.invalidar(dniCliente);
+
+        }
+
+    }
+
+    /**
+
+     * @return Estadísticas de aciertos de la caché de mascotas
+
+     */
+
+    public static String getEstadisticasCache() {
+
+        return CACHE_POR_CLIENTE.getEstadisticas();
+
+    }
+
+    /**
+
+     * Consulta por páginas de las mascotas de un cliente.
+
+     * Se filtra por nombre o especie y se puede ordenar por nombre, especie, raza o edad.
+
+     * @param dniCliente El DNI del dueño.
+
+     * @return La consulta paginada.
+
+     */
+
+    public ConsultaPaginada<Mascota> consultaPaginadaPorCliente(String dniCliente) {
+
+        return new ConsultaPaginada<>("mascotas", "id, nombre, especie, raza, edad, peso, dni_cliente", "id",
+
+                "dni_cliente = ?", new Object[]{dniCliente}, new String[]{"nombre", "especie"},
+
+                new String[]{"nombre", "especie", "raza", "edad"},
+
+                rs -> new Mascota(
+
+                    rs.getInt("id"),
+
+                    rs.getString("nombre"),
+
+                    rs.getString("especie"),
+
+                    rs.getString("raza"),
+
+                    rs.getInt("edad"),
+
+                    rs.getDouble("peso"),
+
+                    rs.getString("dni_cliente")
+
+                ));
+
+    }
+
+    private static Mascota copiar(Mascota m) {
+
+        Mascota copia = new Mascota(m.getId(), m.getNombre(), m.getEspecie(), m.getRaza(), m.getEdad(), m.getPeso(), m.getDniCliente());
+
+        copia.setFotoMascotaRuta(m.getFotoMascotaRuta());
+
+        return copia;
+
+    }
+
+}
+
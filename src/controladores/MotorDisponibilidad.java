@@ -0,0 +1,154 @@
+package controladores;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Motor de disponibilidad de la agenda.
+ * Representa cada día como un bitmap de 48 turnos de 30 minutos (un long):
+ * - El horario de atención se precalcula una sola vez por día de la semana,
+ *   evaluando la regla de {@link CitaController#validarHorarioDisponible}.
+ * - La ocupación se obtiene del {@link IndiceTurnos} sin volver a parsear fechas.
+ * - Libre = atención AND NOT ocupado, por lo que un mes completo se resuelve
+ *   con unas decenas de operaciones de bits.
+ */
+class MotorDisponibilidad {
+
+    static final int TURNOS_POR_DIA = 24 * 60 / IndiceTurnos.MINUTOS_POR_TURNO;
+
+    // Duración (en turnos) de los motivos que requieren más de 30 minutos.
+    // Las claves van sin tildes: el motivo se normaliza antes de comparar ("Baño" y "bano" coinciden)
+    private static final Map<String, Integer> DURACION_POR_MOTIVO = new LinkedHashMap<>();
+    static {
+        DURACION_POR_MOTIVO.put("cirug", 4);
+        DURACION_POR_MOTIVO.put("peluquer", 2);
+        DURACION_POR_MOTIVO.put("bano", 2);
+    }
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    // Bitmap del horario de atención por día de la semana (índice 0 = lunes)
+    private final long[] horarioPorDia = new long[7];
+    private final IndiceTurnos indice;
+
+    /**
+     * @param horarioAtencion Regla que indica si un turno está dentro del horario.
+     * @param indice Índice de turnos reservados.
+     */
+    MotorDisponibilidad(Predicate<LocalDateTime> horarioAtencion, IndiceTurnos indice) {
+        this.indice = indice;
+        // Cualquier semana sirve: la regla solo depende del día y la hora
+        LocalDate lunes = LocalDate.of(2024, 1, 1);
+        for (int d = 0; d < 7; d++) {
+            LocalDate dia = lunes.plusDays(d);
+            for (int t = 0; t < TURNOS_POR_DIA; t++) {
+                if (horarioAtencion.test(dia.atStartOfDay().plusMinutes((long) t * IndiceTurnos.MINUTOS_POR_TURNO))) {
+                    horarioPorDia[d] |= 1L << t;
+                }
+            }
+        }
+    }
+
+    /**
+     * Número de turnos consecutivos que requiere un motivo.
+     * Lo usan tanto la búsqueda de horarios como {@link IndiceTurnos}, que marca ocupados
+     * todos los turnos de cada cita.
+     * @param motivo El motivo de la cita.
+     * @return Turnos de 30 minutos necesarios (mínimo 1).
+     */
+    static int turnosParaMotivo(String motivo) {
+        if (motivo != null) {
+            String m = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(motivo, Normalizer.Form.NFD))
+                    .replaceAll("").toLowerCase(Locale.ROOT);
+            for (Map.Entry<String, Integer> e : DURACION_POR_MOTIVO.entrySet()) {
+                if (m.contains(e.getKey())) {
+                    return e.getValue();
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Indica si todos los turnos de una cita caen dentro del horario de atención, con la
+     * misma regla con la que {@link #buscar} ofrece horarios (una cirugía a las 11:30 no
+     * cabe antes del cierre del mediodía).
+     * @param inicio Fecha y hora de inicio de la cita.
+     * @param turnos Duración de la cita en turnos.
+     * @return true si la cita empieza y termina dentro del horario, sin cortes.
+     */
+    boolean estaDentroDelHorario(LocalDateTime inicio, int turnos) {
+        int primerTurno = (inicio.getHour() * 60 + inicio.getMinute()) / IndiceTurnos.MINUTOS_POR_TURNO;
+        if (primerTurno + turnos > TURNOS_POR_DIA) {
+            return false;
+        }
+        long necesarios = ((1L << turnos) - 1) << primerTurno;
+        long horario = horarioPorDia[inicio.getDayOfWeek().getValue() - 1];
+        return (horario & necesarios) == necesarios;
+    }
+
+    /**
+     * Calcula los bitmaps de turnos libres de un rango de días.
+     * @param desde Primer día (inclusive).
+     * @param dias Número de días.
+     * @return Un bitmap por día: bit t = 1 si el turno t está libre y dentro del horario.
+     */
+    long[] calcularLibres(LocalDate desde, int dias) {
+        long[] libres = indice.mapaOcupacion(desde, dias);
+        int diaSemana = desde.getDayOfWeek().getValue() - 1;
+        for (int i = 0; i < dias; i++) {
+            libres[i] = horarioPorDia[(diaSemana + i) % 7] & ~libres[i];
+        }
+        return libres;
+    }
+
+    /**
+     * Busca los primeros turnos donde caben {@code turnosNecesarios} turnos consecutivos libres.
+     * @param desde Momento a partir del cual buscar.
+     * @param dias Días hacia adelante a revisar.
+     * @param turnosNecesarios Duración de la cita en turnos.
+     * @param diasExcluidos Días que no deben ofrecerse (p. ej. la mascota ya tiene cita).
+     * @param cantidad Máximo de turnos a devolver.
+     * @return Lista ordenada con la hora de inicio de cada opción.
+     */
+    List<LocalDateTime> buscar(LocalDateTime desde, int dias, int turnosNecesarios,
+                               Set<LocalDate> diasExcluidos, int cantidad) {
+        List<LocalDateTime> resultado = new ArrayList<>();
+        LocalDate primerDia = desde.toLocalDate();
+        long[] libres = calcularLibres(primerDia, dias);
+
+        // Los turnos del primer día anteriores a 'desde' no se ofrecen
+        int primerTurno = (int) Math.ceil(ChronoUnit.MINUTES.between(primerDia.atStartOfDay(), desde)
+                / (double) IndiceTurnos.MINUTOS_POR_TURNO);
+        if (primerTurno > 0) {
+            libres[0] &= primerTurno >= 64 ? 0 : -1L << primerTurno;
+        }
+
+        for (int i = 0; i < dias && resultado.size() < cantidad; i++) {
+            LocalDate dia = primerDia.plusDays(i);
+            if (diasExcluidos.contains(dia)) {
+                continue;
+            }
+            // Un bit sobrevive solo si los (turnosNecesarios - 1) turnos siguientes también están libres
+            long inicios = libres[i];
+            for (int k = 1; k < turnosNecesarios; k++) {
+                inicios &= libres[i] >>> k;
+            }
+            while (inicios != 0 && resultado.size() < cantidad) {
+                int t = Long.numberOfTrailingZeros(inicios);
+                resultado.add(dia.atStartOfDay().plusMinutes((long) t * IndiceTurnos.MINUTOS_POR_TURNO));
+                inicios &= inicios - 1; // Apaga el bit menos significativo
+            }
+        }
+        return resultado;
+    }
+}
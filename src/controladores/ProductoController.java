@@ -1,16 +1,33 @@
 package controladores;
 
+import algoritmos.busqueda.ProductoIndex;
 import basedatos.ConexionSQLite;
 import modelos.Producto;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador para gestionar las operaciones CRUD de los Productos del Pet Shop.
  */
 public class ProductoController {
 
+    private static final int CAPACIDAD_CACHE = 512;
+    private static final long TTL_CACHE_MS = 5 * 60 * 1000;
+    private static final String CLAVE_TODOS = "*";
+
+    // Compartidas por todas las instancias: cada ventana crea su propio controlador
+    private static final CacheEntidades<String, Producto> CACHE_PRODUCTOS =
+            new CacheEntidades<>("Productos", CAPACIDAD_CACHE, TTL_CACHE_MS, ProductoController::copiar);
+    private static final CacheEntidades<String, List<Producto>> CACHE_CATALOGO =
+            new CacheEntidades<>("Catálogo de productos", 1, TTL_CACHE_MS,
+                    lista -> CacheEntidades.copiarLista(lista, ProductoController::copiar));
+
+    // Índice del catálogo; se construye con la primera búsqueda por nombre y se mantiene con cada escritura
+    private static final Object BLOQUEO_INDICE = new Object();
+    private static ProductoIndex indice;
+
     /**
      * Registra un nuevo producto en el inventario.
      * @param producto El objeto Producto a registrar.
@@ -27,6 +44,8 @@ public class ProductoController {
             pstmt.setDouble(4, producto.getPrecio());
             pstmt.setInt(5, producto.getStock());
             pstmt.executeUpdate();
+            invalidarCache(producto.getCodigo());
+            actualizarIndice(producto);
             return true;
         } catch (SQLException e) {
             System.err.println("Error al registrar producto: " + e.getMessage());
@@ -42,6 +61,30 @@ public class ProductoController {
  * @return Un objeto Producto si se encuentra, de lo contrario devuelve null.
  */
     public Producto buscarProductoPorCodigo(String codigo) {
+        // Una búsqueda por código no justifica cargar todo el catálogo: se usa el índice solo si ya existe
+        ProductoIndex indiceActual = indiceConstruido();
+        if (indiceActual != null) {
+            Producto producto = indiceActual.buscarPorCodigo(codigo);
+            return producto != null ? copiar(producto) : null;
+        }
+        return CACHE_PRODUCTOS.obtener(codigo, this::consultarProductoPorCodigo);
+    }
+
+    /**
+     * Busca los productos cuyo nombre empieza por el texto indicado, sin distinguir mayúsculas.
+     * @param prefijo El inicio del nombre.
+     * @param limite Número máximo de resultados.
+     * @return Los productos encontrados ordenados por nombre (lista vacía si no hay coincidencias).
+     */
+    public List<Producto> buscarProductosPorNombre(String prefijo, int limite) {
+        ProductoIndex indiceActual = obtenerIndice();
+        if (indiceActual == null) {
+            return new ArrayList<>();
+        }
+        return CacheEntidades.copiarLista(indiceActual.buscarPorPrefijoNombre(prefijo, limite), ProductoController::copiar);
+    }
+
+    private Producto consultarProductoPorCodigo(String codigo) {
         String sql = "SELECT * FROM productos WHERE codigo = ?";
 
         try (Connection conn = ConexionSQLite.conectar();
@@ -76,6 +119,12 @@ public class ProductoController {
      * @return Una lista de objetos Producto.
      */
     public List<Producto> obtenerTodosLosProductos() {
+        List<Producto> productos = CACHE_CATALOGO.obtener(CLAVE_TODOS, clave -> consultarTodosLosProductos());
+        return productos != null ? productos : new ArrayList<>();
+    }
+
+    // Devuelve null si la consulta falla, para no cachear un catálogo vacío por error
+    private List<Producto> consultarTodosLosProductos() {
         List<Producto> productos = new ArrayList<>();
         String sql = "SELECT * FROM productos ORDER BY nombre";
         try (Connection conn = ConexionSQLite.conectar();
@@ -93,10 +142,40 @@ public class ProductoController {
             }
         } catch (SQLException e) {
             System.err.println("Error al obtener todos los productos: " + e.getMessage());
+            return null;
         }
         return productos;
     }
     
+    /**
+     * Consulta por páginas de todo el inventario, para tablas que no cargan el catálogo completo.
+     * Se filtra por código o nombre y se puede ordenar por nombre, precio o stock.
+     * @return La consulta paginada.
+     */
+    public ConsultaPaginada<Producto> consultaPaginada() {
+        return crearConsultaPaginada(null);
+    }
+
+    /**
+     * Consulta por páginas de los productos con stock disponible (catálogo del Pet Shop).
+     * @return La consulta paginada.
+     */
+    public ConsultaPaginada<Producto> consultaPaginadaConStock() {
+        return crearConsultaPaginada("stock > 0");
+    }
+
+    private static ConsultaPaginada<Producto> crearConsultaPaginada(String condicion) {
+        return new ConsultaPaginada<>("productos", "codigo, nombre, descripcion, precio, stock", "codigo",
+                condicion, null, new String[]{"codigo", "nombre"}, new String[]{"nombre", "precio", "stock"},
+                rs -> new Producto(
+                    rs.getString("codigo"),
+                    rs.getString("nombre"),
+                    rs.getString("descripcion"),
+                    rs.getDouble("precio"),
+                    rs.getInt("stock")
+                ));
+    }
+
     /**
      * Actualiza la información de un producto, incluyendo el stock.
      * @param producto El producto con la información actualizada.
@@ -113,7 +192,12 @@ public class ProductoController {
             pstmt.setInt(4, producto.getStock());
             pstmt.setString(5, producto.getCodigo());
 
-            return pstmt.executeUpdate() > 0;
+            int filasAfectadas = pstmt.executeUpdate();
+            invalidarCache(producto.getCodigo());
+            if (filasAfectadas > 0) {
+                actualizarIndice(producto);
+            }
+            return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println("Error al actualizar producto: " + e.getMessage());
             return false;
@@ -131,10 +215,151 @@ public class ProductoController {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, codigo);
-            return pstmt.executeUpdate() > 0;
+            int filasAfectadas = pstmt.executeUpdate();
+            invalidarCache(codigo);
+            synchronized (BLOQUEO_INDICE) {
+                if (indice != null) {
+                    indice.eliminar(codigo);
+                }
+            }
+            return filasAfectadas > 0;
         } catch (SQLException e) {
             System.err.println("Error al eliminar producto: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Registra muchos productos en una sola transacción usando batching de JDBC.
+     * @param productos Productos a registrar.
+     * @return El resultado fila por fila (códigos duplicados o vacíos se rechazan).
+     */
+    public ResultadoLote registrarProductos(List<Producto> productos) {
+        return registrarProductos(productos, EjecutorLotes.TAMANO_LOTE_PREDETERMINADO);
+    }
+
+    /**
+     * Registra muchos productos en una sola transacción usando batching de JDBC.
+     * @param productos Productos a registrar.
+     * @param tamanoLote Filas enviadas por cada executeBatch().
+     * @return El resultado fila por fila (códigos duplicados o vacíos se rechazan).
+     */
+    public ResultadoLote registrarProductos(List<Producto> productos, int tamanoLote) {
+        String sql = "INSERT INTO productos(codigo, nombre, descripcion, precio, stock) VALUES(?,?,?,?,?)";
+        ResultadoLote resultado = EjecutorLotes.ejecutar(sql, productos, tamanoLote,
+                ProductoController::validarProducto,
+                (pstmt, producto) -> {
+                    pstmt.setString(1, producto.getCodigo());
+                    pstmt.setString(2, producto.getNombre());
+                    pstmt.setString(3, producto.getDescripcion());
+                    pstmt.setDouble(4, producto.getPrecio());
+                    pstmt.setInt(5, producto.getStock());
+                });
+        invalidarCacheCompleta();
+        return resultado;
+    }
+
+    /**
+     * Suma (o resta, si es negativo) una cantidad al stock de muchos productos en una sola transacción.
+     * Una fila se rechaza si el código no existe o si el stock quedaría negativo.
+     * @param deltas Código del producto -> cantidad a sumar. El resultado sigue el orden de iteración del mapa.
+     * @return El resultado fila por fila.
+     */
+    public ResultadoLote actualizarStockMasivo(Map<String, Integer> deltas) {
+        return actualizarStockMasivo(deltas, EjecutorLotes.TAMANO_LOTE_PREDETERMINADO);
+    }
+
+    /**
+     * Suma (o resta, si es negativo) una cantidad al stock de muchos productos en una sola transacción.
+     * Una fila se rechaza si el código no existe o si el stock quedaría negativo.
+     * @param deltas Código del producto -> cantidad a sumar. El resultado sigue el orden de iteración del mapa.
+     * @param tamanoLote Filas enviadas por cada executeBatch().
+     * @return El resultado fila por fila.
+     */
+    public ResultadoLote actualizarStockMasivo(Map<String, Integer> deltas, int tamanoLote) {
+        String sql = "UPDATE productos SET stock = stock + ? WHERE codigo = ? AND stock + ? >= 0";
+        List<Map.Entry<String, Integer>> filas = new ArrayList<>(deltas.entrySet());
+        ResultadoLote resultado = EjecutorLotes.ejecutar(sql, filas, tamanoLote,
+                fila -> fila.getValue() == null ? "Cantidad vacía" : null,
+                (pstmt, fila) -> {
+                    pstmt.setInt(1, fila.getValue());
+                    pstmt.setString(2, fila.getKey());
+                    pstmt.setInt(3, fila.getValue());
+                });
+        invalidarCacheCompleta();
+        return resultado;
+    }
+
+    private static String validarProducto(Producto producto) {
+        if (producto.getCodigo() == null || producto.getCodigo().trim().isEmpty()) {
+            return "El código del producto es obligatorio";
+        }
+        if (producto.getPrecio() < 0 || producto.getStock() < 0) {
+            return "El precio y el stock no pueden ser negativos";
+        }
+        return null;
+    }
+
+    /**
+     * Descarta de la caché un producto y el catálogo completo.
+     * @param codigo El código del producto modificado.
+     */
+    static void invalidarCache(String codigo) {
+        CACHE_PRODUCTOS.invalidar(codigo);
+        CACHE_CATALOGO.invalidarTodo();
+    }
+
+    // Tras una escritura masiva es más barato vaciar la caché que invalidar clave por clave
+    static void invalidarCacheCompleta() {
+        CACHE_PRODUCTOS.invalidarTodo();
+        CACHE_CATALOGO.invalidarTodo();
+        synchronized (BLOQUEO_INDICE) {
+            indice = null; // Se reconstruye en la siguiente búsqueda
+        }
+    }
+
+    /**
+     * Devuelve el índice del catálogo, construyéndolo desde la base de datos si aún no existe.
+     * @return El índice, o null si no se pudo leer el catálogo.
+     */
+    private ProductoIndex obtenerIndice() {
+        synchronized (BLOQUEO_INDICE) {
+            // Se construye dentro del bloqueo: una escritura concurrente espera y se aplica sobre el índice nuevo
+            if (indice == null) {
+                List<Producto> productos = CACHE_CATALOGO.obtener(CLAVE_TODOS, clave -> consultarTodosLosProductos());
+                if (productos != null) {
+                    indice = new ProductoIndex(productos);
+                }
+            }
+            return indice;
+        }
+    }
+
+    /**
+     * @return El índice del catálogo si ya se construyó, o null sin leer la base de datos.
+     */
+    private static ProductoIndex indiceConstruido() {
+        synchronized (BLOQUEO_INDICE) {
+            return indice;
+        }
+    }
+
+    private static void actualizarIndice(Producto producto) {
+        synchronized (BLOQUEO_INDICE) {
+            if (indice != null) {
+                indice.agregar(copiar(producto));
+            }
+        }
+    }
+
+    /**
+     * @return Estadísticas de aciertos de la caché de productos
+     */
+    public static String getEstadisticasCache() {
+        return CACHE_PRODUCTOS.getEstadisticas() + " | " + CACHE_CATALOGO.getEstadisticas();
+    }
+
+    private static Producto copiar(Producto p) {
+        return new Producto(p.getCodigo(), p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock());
+    }
+}
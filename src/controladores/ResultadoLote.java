@@ -0,0 +1,110 @@
+package controladores;
+
+/**
+ * Resultado de una escritura masiva: indica, fila por fila, si se guardó o por qué no,
+ * junto con el tiempo total para medir el rendimiento (filas por segundo).
+ */
+public class ResultadoLote {
+
+    private final boolean[] exitos;
+    private final String[] errores;
+    private long duracionNanos;
+
+    /**
+     * @param total Número de filas del lote.
+     */
+    ResultadoLote(int total) {
+        this.exitos = new boolean[total];
+        this.errores = new String[total];
+    }
+
+    void marcarExito(int fila) {
+        exitos[fila] = true;
+        errores[fila] = null;
+    }
+
+    void marcarError(int fila, String mensaje) {
+        exitos[fila] = false;
+        errores[fila] = mensaje;
+    }
+
+    /**
+     * Marca como fallidas todas las filas que no tienen un rechazo propio (p. ej. si la
+     * transacción se revirtió): las que se daban por guardadas y las que no se llegaron a procesar.
+     * @param mensaje Motivo del fallo.
+     */
+    void revertirTodo(String mensaje) {
+        for (int i = 0; i < exitos.length; i++) {
+            if (exitos[i] || errores[i] == null) {
+                marcarError(i, mensaje);
+            }
+        }
+    }
+
+    void setDuracionNanos(long duracionNanos) {
+        this.duracionNanos = duracionNanos;
+    }
+
+    /**
+     * @return Número de filas del lote
+     */
+    public int getTotal() {
+        return exitos.length;
+    }
+
+    /**
+     * @return Número de filas guardadas
+     */
+    public int getExitosos() {
+        int n = 0;
+        for (boolean exito : exitos) {
+            if (exito) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return Número de filas rechazadas
+     */
+    public int getFallidos() {
+        return exitos.length - getExitosos();
+    }
+
+    /**
+     * @param fila Posición de la fila en la entrada (desde 0).
+     * @return true si esa fila se guardó
+     */
+    public boolean isExito(int fila) {
+        return exitos[fila];
+    }
+
+    /**
+     * @param fila Posición de la fila en la entrada (desde 0).
+     * @return El motivo del rechazo, o null si la fila se guardó
+     */
+    public String getError(int fila) {
+        return errores[fila];
+    }
+
+    /**
+     * @return Duración total de la operación en milisegundos
+     */
+    public double getDuracionMs() {
+        return duracionNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Filas procesadas por segundo
+     */
+    public double getFilasPorSegundo() {
+        return duracionNanos == 0 ? 0.0 : exitos.length * 1_000_000_000.0 / duracionNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d filas: %d guardadas, %d rechazadas en %.2f ms (%.0f filas/s)",
+                getTotal(), getExitosos(), getFallidos(), getDuracionMs(), getFilasPorSegundo());
+    }
+}
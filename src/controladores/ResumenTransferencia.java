@@ -0,0 +1,96 @@
+package controladores;
+
+import java.nio.file.Path;
+
+/**
+ * Resumen de una importación o exportación CSV: filas procesadas, rechazadas y rendimiento.
+ */
+public class ResumenTransferencia {
+
+    private final String entidad;
+    private long filasLeidas;
+    private long filasGuardadas;
+    private long filasRechazadas;
+    private long duracionNanos;
+    private Path archivoRechazos;
+
+    ResumenTransferencia(String entidad) {
+        this.entidad = entidad;
+    }
+
+    void sumarLeidas(long n) {
+        filasLeidas += n;
+    }
+
+    void sumarGuardadas(long n) {
+        filasGuardadas += n;
+    }
+
+    void sumarRechazadas(long n) {
+        filasRechazadas += n;
+    }
+
+    void setDuracionNanos(long duracionNanos) {
+        this.duracionNanos = duracionNanos;
+    }
+
+    void setArchivoRechazos(Path archivoRechazos) {
+        this.archivoRechazos = archivoRechazos;
+    }
+
+    /**
+     * @return Nombre de la entidad transferida (clientes, mascotas, ...)
+     */
+    public String getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * @return Filas de datos leídas del archivo o de la base de datos
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * @return Filas guardadas en la base de datos o escritas en el archivo
+     */
+    public long getFilasGuardadas() {
+        return filasGuardadas;
+    }
+
+    /**
+     * @return Filas rechazadas por validación o por la base de datos
+     */
+    public long getFilasRechazadas() {
+        return filasRechazadas;
+    }
+
+    /**
+     * @return Archivo con las filas rechazadas y su motivo, o null si no hubo rechazos
+     */
+    public Path getArchivoRechazos() {
+        return archivoRechazos;
+    }
+
+    /**
+     * @return Duración total en milisegundos
+     */
+    public double getDuracionMs() {
+        return duracionNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Filas procesadas por segundo
+     */
+    public double getFilasPorSegundo() {
+        return duracionNanos == 0 ? 0.0 : filasLeidas * 1_000_000_000.0 / duracionNanos;
+    }
+
+    @Override
+    public String toString() {
+        String resumen = String.format("%s: %d leídas, %d guardadas, %d rechazadas en %.2f ms (%.0f filas/s)",
+                entidad, filasLeidas, filasGuardadas, filasRechazadas, getDuracionMs(), getFilasPorSegundo());
+        return archivoRechazos == null ? resumen : resumen + " - rechazos en " + archivoRechazos;
+    }
+}
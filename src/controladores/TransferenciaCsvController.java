@@ -0,0 +1,404 @@
+package controladores;
+
+import basedatos.ConexionSQLite;
+import modelos.Cita;
+import modelos.Cliente;
+import modelos.Mascota;
+import modelos.Producto;
+import utilidades.EscritorCsv;
+import utilidades.LectorCsv;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Importación y exportación de datos en formato CSV (UTF-8, con encabezado).
+ *
+ * Los archivos se procesan fila por fila: la importación solo mantiene en memoria
+ * el bloque actual ({@code tamanoLote} filas), que se guarda con la escritura por
+ * lotes del controlador correspondiente en una transacción; la exportación escribe directamente
+ * desde el ResultSet. Así se pueden mover archivos de millones de filas.
+ *
+ * Las filas rechazadas se escriben en "&lt;archivo&gt;.rechazados.csv" junto con la
+ * línea de origen y el motivo.
+ */
+public class TransferenciaCsvController {
+
+    public static final int TAMANO_LOTE_IMPORTACION = 1000;
+
+    private static final String[] COLUMNAS_CLIENTES = {"dni", "nombre", "telefono", "direccion"};
+    private static final String[] COLUMNAS_MASCOTAS = {"id", "nombre", "especie", "raza", "edad", "peso", "dni_cliente"};
+    private static final String[] COLUMNAS_PRODUCTOS = {"codigo", "nombre", "descripcion", "precio", "stock"};
+    private static final String[] COLUMNAS_CITAS = {"id", "fecha_hora", "motivo", "dni_cliente", "id_mascota"};
+
+    /**
+     * Convierte los valores de una fila (en el orden de las columnas) en un objeto.
+     * @param <T> Tipo del objeto.
+     */
+    @FunctionalInterface
+    private interface ConvertidorFila<T> {
+        T convertir(String[] valores);
+    }
+
+    // =====================================================
+    // IMPORTACIÓN
+    // =====================================================
+
+    /**
+     * Importa clientes. Columnas: dni, nombre, telefono, direccion.
+     * @param archivo El archivo CSV.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarClientes(Path archivo) {
+        return importarClientes(archivo, TAMANO_LOTE_IMPORTACION);
+    }
+
+    /**
+     * Importa clientes. Columnas: dni, nombre, telefono, direccion.
+     * @param archivo El archivo CSV.
+     * @param tamanoLote Filas por transacción.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarClientes(Path archivo, int tamanoLote) {
+        ClienteController controller = new ClienteController();
+        return importar(archivo, "clientes", COLUMNAS_CLIENTES, tamanoLote,
+                v -> new Cliente(v[0].trim(), requerido(v[1], "nombre"), v[2].trim(), v[3]),
+                controller::registrarClientes);
+    }
+
+    /**
+     * Importa mascotas y crea su historial inicial. Columnas: id (opcional), nombre,
+     * especie, raza, edad, peso, dni_cliente.
+     * @param archivo El archivo CSV.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarMascotas(Path archivo) {
+        return importarMascotas(archivo, TAMANO_LOTE_IMPORTACION);
+    }
+
+    /**
+     * Importa mascotas y crea su historial inicial. Columnas: id (opcional), nombre,
+     * especie, raza, edad, peso, dni_cliente.
+     * @param archivo El archivo CSV.
+     * @param tamanoLote Filas por transacción.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarMascotas(Path archivo, int tamanoLote) {
+        MascotaController controller = new MascotaController();
+        return importar(archivo, "mascotas", COLUMNAS_MASCOTAS, tamanoLote,
+                v -> new Mascota(enteroOpcional(v[0], "id"), requerido(v[1], "nombre"), v[2], v[3],
+                        entero(v[4], "edad"), decimal(v[5], "peso"), v[6].trim()),
+                controller::registrarMascotas);
+    }
+
+    /**
+     * Importa productos. Columnas: codigo, nombre, descripcion, precio, stock.
+     * @param archivo El archivo CSV.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarProductos(Path archivo) {
+        return importarProductos(archivo, TAMANO_LOTE_IMPORTACION);
+    }
+
+    /**
+     * Importa productos. Columnas: codigo, nombre, descripcion, precio, stock.
+     * @param archivo El archivo CSV.
+     * @param tamanoLote Filas por transacción.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarProductos(Path archivo, int tamanoLote) {
+        ProductoController controller = new ProductoController();
+        return importar(archivo, "productos", COLUMNAS_PRODUCTOS, tamanoLote,
+                v -> new Producto(requerido(v[0], "codigo"), requerido(v[1], "nombre"), v[2],
+                        decimal(v[3], "precio"), entero(v[4], "stock")),
+                controller::registrarProductos);
+    }
+
+    /**
+     * Importa citas. Columnas: id (opcional), fecha_hora (yyyy-MM-dd HH:mm), motivo,
+     * dni_cliente, id_mascota.
+     * @param archivo El archivo CSV.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarCitas(Path archivo) {
+        return importarCitas(archivo, TAMANO_LOTE_IMPORTACION);
+    }
+
+    /**
+     * Importa citas. Columnas: id (opcional), fecha_hora (yyyy-MM-dd HH:mm), motivo,
+     * dni_cliente, id_mascota.
+     * @param archivo El archivo CSV.
+     * @param tamanoLote Filas por transacción.
+     * @return El resumen de la importación, o null si no se pudo leer el archivo.
+     */
+    public ResumenTransferencia importarCitas(Path archivo, int tamanoLote) {
+        CitaController controller = new CitaController();
+        return importar(archivo, "citas", COLUMNAS_CITAS, tamanoLote,
+                v -> new Cita(enteroOpcional(v[0], "id"), requerido(v[1], "fecha_hora"), v[2],
+                        v[3].trim(), entero(v[4], "id_mascota")),
+                controller::registrarCitas);
+    }
+
+    private <T> ResumenTransferencia importar(Path archivo, String entidad, String[] columnas, int tamanoLote,
+                                              ConvertidorFila<T> convertidor,
+                                              BiFunction<List<T>, Integer, ResultadoLote> guardar) {
+        long inicio = System.nanoTime();
+        ResumenTransferencia resumen = new ResumenTransferencia(entidad);
+        Path archivoRechazos = archivo.resolveSibling(archivo.getFileName() + ".rechazados.csv");
+
+        try (LectorCsv lector = new LectorCsv(Files.newBufferedReader(archivo, StandardCharsets.UTF_8));
+             RegistroRechazos rechazos = new RegistroRechazos(archivoRechazos, columnas)) {
+
+            String[] encabezado = lector.leerFila();
+            if (encabezado == null) {
+                System.err.println("Error al importar " + entidad + ": el archivo está vacío.");
+                return null;
+            }
+            int[] posiciones = ubicarColumnas(encabezado, columnas);
+
+            // Solo el bloque actual vive en memoria
+            List<T> lote = new ArrayList<>(tamanoLote);
+            long[] lineas = new long[tamanoLote];
+            String[][] valoresLote = new String[tamanoLote][];
+
+            String[] fila;
+            while ((fila = lector.leerFila()) != null) {
+                if (esFilaVacia(fila)) {
+                    continue;
+                }
+                resumen.sumarLeidas(1);
+                String[] valores = reordenar(fila, posiciones);
+                try {
+                    T objeto = convertidor.convertir(valores);
+                    lineas[lote.size()] = lector.getLineaFila();
+                    valoresLote[lote.size()] = valores;
+                    lote.add(objeto);
+                } catch (IllegalArgumentException e) {
+                    rechazos.registrar(lector.getLineaFila(), e.getMessage(), valores);
+                    resumen.sumarRechazadas(1);
+                }
+                if (lote.size() == tamanoLote) {
+                    guardarLote(lote, lineas, valoresLote, guardar, tamanoLote, resumen, rechazos);
+                }
+            }
+            if (!lote.isEmpty()) {
+                guardarLote(lote, lineas, valoresLote, guardar, tamanoLote, resumen, rechazos);
+            }
+            if (rechazos.hayRechazos()) {
+                resumen.setArchivoRechazos(archivoRechazos);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error al importar " + entidad + " desde " + archivo + ": " + e.getMessage());
+            return null;
+        }
+
+        resumen.setDuracionNanos(System.nanoTime() - inicio);
+        System.out.println("Importación CSV - " + resumen);
+        return resumen;
+    }
+
+    private <T> void guardarLote(List<T> lote, long[] lineas, String[][] valoresLote,
+                                 BiFunction<List<T>, Integer, ResultadoLote> guardar, int tamanoLote,
+                                 ResumenTransferencia resumen, RegistroRechazos rechazos) throws IOException {
+        ResultadoLote resultado = guardar.apply(lote, tamanoLote);
+        for (int i = 0; i < resultado.getTotal(); i++) {
+            if (!resultado.isExito(i)) {
+                rechazos.registrar(lineas[i], resultado.getError(i), valoresLote[i]);
+            }
+        }
+        resumen.sumarGuardadas(resultado.getExitosos());
+        resumen.sumarRechazadas(resultado.getFallidos());
+        lote.clear();
+    }
+
+    // Posición de cada columna esperada dentro del encabezado del archivo (-1 si es opcional y falta)
+    private static int[] ubicarColumnas(String[] encabezado, String[] columnas) {
+        Map<String, Integer> indice = new HashMap<>();
+        for (int i = 0; i < encabezado.length; i++) {
+            indice.put(encabezado[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] posiciones = new int[columnas.length];
+        for (int c = 0; c < columnas.length; c++) {
+            Integer posicion = indice.get(columnas[c]);
+            if (posicion == null && !columnas[c].equals("id")) {
+                throw new IllegalArgumentException("Falta la columna '" + columnas[c] + "' en el encabezado");
+            }
+            posiciones[c] = posicion == null ? -1 : posicion;
+        }
+        return posiciones;
+    }
+
+    private static String[] reordenar(String[] fila, int[] posiciones) {
+        String[] valores = new String[posiciones.length];
+        for (int c = 0; c < posiciones.length; c++) {
+            int p = posiciones[c];
+            valores[c] = p >= 0 && p < fila.length ? fila[p] : "";
+        }
+        return valores;
+    }
+
+    private static boolean esFilaVacia(String[] fila) {
+        for (String campo : fila) {
+            if (!campo.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String requerido(String valor, String columna) {
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException("La columna '" + columna + "' es obligatoria");
+        }
+        return valor.trim();
+    }
+
+    private static int entero(String valor, String columna) {
+        try {
+            return Integer.parseInt(requerido(valor, columna));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La columna '" + columna + "' debe ser un número entero");
+        }
+    }
+
+    private static int enteroOpcional(String valor, String columna) {
+        return valor == null || valor.trim().isEmpty() ? 0 : entero(valor, columna);
+    }
+
+    private static double decimal(String valor, String columna) {
+        try {
+            return Double.parseDouble(requerido(valor, columna));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La columna '" + columna + "' debe ser un número");
+        }
+    }
+
+    /**
+     * Archivo de filas rechazadas; se crea solo si aparece el primer rechazo.
+     */
+    private static class RegistroRechazos implements AutoCloseable {
+        private final Path archivo;
+        private final String[] columnas;
+        private EscritorCsv escritor;
+
+        RegistroRechazos(Path archivo, String[] columnas) {
+            this.archivo = archivo;
+            this.columnas = columnas;
+        }
+
+        void registrar(long linea, String motivo, String[] valores) throws IOException {
+            if (escritor == null) {
+                escritor = new EscritorCsv(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8));
+                Object[] encabezado = new Object[columnas.length + 2];
+                encabezado[0] = "linea";
+                encabezado[1] = "motivo";
+                System.arraycopy(columnas, 0, encabezado, 2, columnas.length);
+                escritor.escribirFila(encabezado);
+            }
+            Object[] fila = new Object[valores.length + 2];
+            fila[0] = linea;
+            fila[1] = motivo;
+            System.arraycopy(valores, 0, fila, 2, valores.length);
+            escritor.escribirFila(fila);
+        }
+
+        boolean hayRechazos() {
+            return escritor != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (escritor != null) {
+                escritor.close();
+            }
+        }
+    }
+
+    // =====================================================
+    // EXPORTACIÓN
+    // =====================================================
+
+    /**
+     * Exporta todos los clientes. Columnas: dni, nombre, telefono, direccion.
+     * @param archivo El archivo CSV de destino (se sobrescribe).
+     * @return El resumen de la exportación, o null si falló.
+     */
+    public ResumenTransferencia exportarClientes(Path archivo) {
+        return exportar(archivo, "clientes", COLUMNAS_CLIENTES, "SELECT dni, nombre, telefono, direccion FROM clientes ORDER BY dni");
+    }
+
+    /**
+     * Exporta todas las mascotas. Columnas: id, nombre, especie, raza, edad, peso, dni_cliente.
+     * @param archivo El archivo CSV de destino (se sobrescribe).
+     * @return El resumen de la exportación, o null si falló.
+     */
+    public ResumenTransferencia exportarMascotas(Path archivo) {
+        return exportar(archivo, "mascotas", COLUMNAS_MASCOTAS,
+                "SELECT id, nombre, especie, raza, edad, peso, dni_cliente FROM mascotas ORDER BY id");
+    }
+
+    /**
+     * Exporta todos los productos. Columnas: codigo, nombre, descripcion, precio, stock.
+     * @param archivo El archivo CSV de destino (se sobrescribe).
+     * @return El resumen de la exportación, o null si falló.
+     */
+    public ResumenTransferencia exportarProductos(Path archivo) {
+        return exportar(archivo, "productos", COLUMNAS_PRODUCTOS,
+                "SELECT codigo, nombre, descripcion, precio, stock FROM productos ORDER BY codigo");
+    }
+
+    /**
+     * Exporta todas las citas. Columnas: id, fecha_hora, motivo, dni_cliente, id_mascota.
+     * @param archivo El archivo CSV de destino (se sobrescribe).
+     * @return El resumen de la exportación, o null si falló.
+     */
+    public ResumenTransferencia exportarCitas(Path archivo) {
+        return exportar(archivo, "citas", COLUMNAS_CITAS,
+                "SELECT id, fecha_hora, motivo, dni_cliente, id_mascota FROM citas ORDER BY fecha_hora, id");
+    }
+
+    private ResumenTransferencia exportar(Path archivo, String entidad, String[] columnas, String sql) {
+        long inicio = System.nanoTime();
+        ResumenTransferencia resumen = new ResumenTransferencia(entidad);
+
+        try (Connection conn = ConexionSQLite.conectar()) {
+            if (conn == null) {
+                System.err.println("Error al exportar " + entidad + ": no se pudo obtener una conexión");
+                return null;
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql);
+                 EscritorCsv escritor = new EscritorCsv(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8))) {
+
+                escritor.escribirFila((Object[]) columnas);
+                Object[] fila = new Object[columnas.length];
+                while (rs.next()) {
+                    for (int c = 0; c < columnas.length; c++) {
+                        fila[c] = rs.getString(c + 1);
+                    }
+                    escritor.escribirFila(fila);
+                    resumen.sumarLeidas(1);
+                    resumen.sumarGuardadas(1);
+                }
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error al exportar " + entidad + " a " + archivo + ": " + e.getMessage());
+            return null;
+        }
+
+        resumen.setDuracionNanos(System.nanoTime() - inicio);
+        System.out.println("Exportación CSV - " + resumen);
+        return resumen;
+    }
+}
@@ -1,16 +1,44 @@
 package controladores;
 
 import basedatos.ConexionSQLite;
+import modelos.Cliente;
+import modelos.SesionUsuario;
 import modelos.Usuario; // <-- Importación necesaria
+import utilidades.Contrasenas;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Base64;
+import java.util.function.UnaryOperator;
 
 public class UsuarioController {
 
+    /**
+     * Una contraseña ya verificada con PBKDF2: permite repetir el login del mismo usuario
+     * (p. ej. en el kiosco de recepción) sin volver a pagar el costo del hash mientras no caduque.
+     * Guarda el hash de la BD con el que se verificó, así un cambio de contraseña la invalida.
+     */
+    private static class CredencialVerificada {
+        final String hashGuardado;
+        final byte[] huella;
+
+        CredencialVerificada(String hashGuardado, byte[] huella) {
+            this.hashGuardado = hashGuardado;
+            this.huella = huella;
+        }
+    }
+
+    private static final long TTL_CREDENCIALES_MS = 10 * 60 * 1000L;
+    // Inmutables: no hace falta copiarlas
+    private static final CacheEntidades<String, CredencialVerificada> CREDENCIALES =
+            new CacheEntidades<>("Credenciales", 256, TTL_CREDENCIALES_MS, UnaryOperator.identity());
+    // Secreto aleatorio del proceso: las huellas en memoria no sirven fuera de esta ejecución
+    private static final String SECRETO_HUELLAS = generarSecreto();
+
     /**
      * -- MÉTODO CORREGIDO --
      * Registra un nuevo usuario en la base de datos a partir de un objeto Usuario.
@@ -23,7 +51,7 @@ public class UsuarioController {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, usuario.getNickname());
-            pstmt.setString(2, hashPassword(usuario.getPassword()));
+            pstmt.setString(2, Contrasenas.generarHash(usuario.getPassword()));
             pstmt.setString(3, usuario.getDniCliente());
             pstmt.setString(4, usuario.getRol());
             pstmt.setString(5, usuario.getFotoPerfilRuta());
@@ -36,33 +64,60 @@ public class UsuarioController {
     }
 
     /**
-     * -- MÉTODO CORREGIDO --
-     * Verifica las credenciales de un usuario y devuelve su rol.
+     * Verifica las credenciales y obtiene en una sola consulta el rol, el DNI y los datos del cliente.
+     * El tiempo de respuesta es el mismo exista o no el usuario. Los hashes antiguos (SHA-256)
+     * se reemplazan por PBKDF2 en el primer login correcto.
      * @param nickname El nickname ingresado.
      * @param password La contraseña en texto plano ingresada.
-     * @return El rol ("admin", "cliente") si las credenciales son correctas, o null si falla.
+     * @return La sesión, o null si las credenciales son incorrectas o la consulta falla.
      */
-    public String verificarLoginYObtenerRol(String nickname, String password) {
-        String sql = "SELECT password_hash, rol FROM usuarios WHERE nickname = ?";
+    public SesionUsuario iniciarSesion(String nickname, String password) {
+        String sql = "SELECT u.password_hash, u.rol, u.dni_cliente, c.dni, c.nombre, c.telefono, c.direccion "
+                + "FROM usuarios u LEFT JOIN clientes c ON c.dni = u.dni_cliente WHERE u.nickname = ?";
+        String hashGuardado = null;
+        SesionUsuario sesion = null;
         try (Connection conn = ConexionSQLite.conectar();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, nickname);
-            ResultSet rs = pstmt.executeQuery();
-
-            // Solo necesitamos un bloque 'if', no dos.
-            if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
-                String enteredHash = hashPassword(password);
-
-                if (storedHash.equals(enteredHash)) {
-                    return rs.getString("rol"); // ¡Éxito! Devolvemos el rol.
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    hashGuardado = rs.getString("password_hash");
+                    Cliente cliente = rs.getString(4) == null ? null
+                            : new Cliente(rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7));
+                    sesion = new SesionUsuario(nickname, rs.getString("rol"), rs.getString("dni_cliente"), cliente);
                 }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            System.err.println("Error al verificar login: " + e.getMessage());
+            return null;
         }
-        return null; // Login fallido
+
+        byte[] huella = huella(nickname, password);
+        CredencialVerificada verificada = CREDENCIALES.obtenerSiPresente(nickname);
+        if (hashGuardado != null && verificada != null && hashGuardado.equals(verificada.hashGuardado)
+                && MessageDigest.isEqual(huella, verificada.huella)) {
+            return sesion;
+        }
+        if (!Contrasenas.verificar(password, hashGuardado)) {
+            return null;
+        }
+        if (Contrasenas.necesitaActualizar(hashGuardado)) {
+            hashGuardado = actualizarHash(nickname, hashGuardado, password);
+        }
+        CREDENCIALES.guardar(nickname, new CredencialVerificada(hashGuardado, huella));
+        return sesion;
+    }
+
+    /**
+     * Verifica las credenciales de un usuario y devuelve su rol.
+     * @param nickname El nickname ingresado.
+     * @param password La contraseña en texto plano ingresada.
+     * @return El rol ("admin", "cliente") si las credenciales son correctas, o null si falla.
+     */
+    public String verificarLoginYObtenerRol(String nickname, String password) {
+        SesionUsuario sesion = iniciarSesion(nickname, password);
+        return sesion != null ? sesion.getRol() : null;
     }
 
     /**
@@ -76,6 +131,7 @@ public class UsuarioController {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, nickname);
             pstmt.executeUpdate();
+            CREDENCIALES.invalidar(nickname);
         } catch (SQLException e) {
             System.err.println("Error al eliminar usuario durante rollback: " + e.getMessage());
         }
@@ -96,18 +152,29 @@ public class UsuarioController {
        return null;
    }
 
-    /**
-     * Cifra una contraseña usando el algoritmo SHA-256.
-     * @param password La contraseña en texto plano.
-     * @return La contraseña cifrada en formato Base64.
-     */
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes("UTF-8"));
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (Exception ex) {
-            throw new RuntimeException("Error al cifrar la contraseña", ex);
+    // Reemplaza un hash antiguo; devuelve el hash vigente (el anterior si no se pudo actualizar)
+    private String actualizarHash(String nickname, String hashAnterior, String password) {
+        String nuevoHash = Contrasenas.generarHash(password);
+        String sql = "UPDATE usuarios SET password_hash = ? WHERE nickname = ? AND password_hash = ?";
+        try (Connection conn = ConexionSQLite.conectar();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, nuevoHash);
+            pstmt.setString(2, nickname);
+            pstmt.setString(3, hashAnterior);
+            return pstmt.executeUpdate() > 0 ? nuevoHash : hashAnterior;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar el hash de contraseña: " + e.getMessage());
+            return hashAnterior;
         }
     }
-}
\ No newline at end of file
+
+    private static byte[] huella(String nickname, String password) {
+        return Contrasenas.sha256(SECRETO_HUELLAS + '\0' + nickname + '\0' + password).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String generarSecreto() {
+        byte[] secreto = new byte[32];
+        new SecureRandom().nextBytes(secreto);
+        return Base64.getEncoder().encodeToString(secreto);
+    }
+}
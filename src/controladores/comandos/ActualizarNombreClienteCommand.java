@@ -41,4 +41,28 @@ public class ActualizarNombreClienteCommand implements Command {
         cliente.setNombre(nombreAntiguo);
         return controller.actualizarCliente(cliente);
     }
+
+    @Override
+    public boolean fusionar(Command siguiente) {
+        if (!(siguiente instanceof ActualizarNombreClienteCommand)) {
+            return false;
+        }
+        ActualizarNombreClienteCommand otro = (ActualizarNombreClienteCommand) siguiente;
+        if (!dni.equals(otro.dni) || controller != otro.controller) {
+            return false;
+        }
+        // Deshacer vuelve al nombre previo al primer cambio; rehacer aplica el último
+        this.nombreNuevo = otro.nombreNuevo;
+        return true;
+    }
+
+    @Override
+    public long getTamanoEstimadoBytes() {
+        // Objeto con 4 referencias + las tres cadenas (cabecera y 1 byte por carácter latino)
+        return 32 + tamanoCadena(dni) + tamanoCadena(nombreNuevo) + tamanoCadena(nombreAntiguo);
+    }
+
+    private static long tamanoCadena(String texto) {
+        return texto == null ? 0 : 40 + texto.length();
+    }
 }
\ No newline at end of file
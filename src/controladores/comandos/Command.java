@@ -16,4 +16,23 @@ public interface Command {
      * @return true si la acción de deshacer fue exitosa, false en caso contrario.
      */
     boolean deshacer();
+
+    /**
+     * Intenta absorber un comando posterior sobre la misma entidad, de modo que un solo
+     * deshacer revierta ambos (p. ej. dos cambios seguidos del nombre de un cliente).
+     * Ambos comandos ya fueron ejecutados; este conserva su estado anterior y adopta el final del otro.
+     * @param siguiente El comando ejecutado justo después de este.
+     * @return true si lo absorbió y el otro puede descartarse.
+     */
+    default boolean fusionar(Command siguiente) {
+        return false;
+    }
+
+    /**
+     * Estimación de la memoria que ocupa el comando en el historial.
+     * @return Bytes aproximados.
+     */
+    default long getTamanoEstimadoBytes() {
+        return 16; // Cabecera de un objeto sin campos
+    }
 }
\ No newline at end of file
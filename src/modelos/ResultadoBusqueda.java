@@ -0,0 +1,51 @@
+package modelos;
+
+/**
+ * Modelo que representa una coincidencia de la búsqueda de texto completo
+ * en historiales clínicos o en motivos de citas.
+ */
+public class ResultadoBusqueda {
+
+    private int id; // ID del historial o de la cita encontrada
+    private int idMascota;
+    private String nombreMascota;
+    private String dniCliente;
+    private String fecha; // Última visita (historiales) o fecha y hora (citas)
+    private String fragmento; // Texto alrededor de la coincidencia, con los términos entre [corchetes]
+    private double relevancia; // Mayor es mejor
+
+    /**
+     * Constructor para crear un resultado de búsqueda.
+     * @param id El ID del historial o de la cita.
+     * @param idMascota El ID de la mascota.
+     * @param nombreMascota El nombre de la mascota.
+     * @param dniCliente El DNI del dueño.
+     * @param fecha La fecha asociada al registro.
+     * @param fragmento El fragmento de texto con los términos resaltados.
+     * @param relevancia La puntuación de relevancia (BM25, mayor es mejor).
+     */
+    public ResultadoBusqueda(int id, int idMascota, String nombreMascota, String dniCliente, String fecha,
+                             String fragmento, double relevancia) {
+        this.id = id;
+        this.idMascota = idMascota;
+        this.nombreMascota = nombreMascota;
+        this.dniCliente = dniCliente;
+        this.fecha = fecha;
+        this.fragmento = fragmento;
+        this.relevancia = relevancia;
+    }
+
+    // --- Getters ---
+    public int getId() { return id; }
+    public int getIdMascota() { return idMascota; }
+    public String getNombreMascota() { return nombreMascota; }
+    public String getDniCliente() { return dniCliente; }
+    public String getFecha() { return fecha; }
+    public String getFragmento() { return fragmento; }
+    public double getRelevancia() { return relevancia; }
+
+    @Override
+    public String toString() {
+        return nombreMascota + " (" + dniCliente + "): " + fragmento;
+    }
+}
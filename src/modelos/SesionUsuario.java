@@ -0,0 +1,30 @@
+package modelos;
+
+/**
+ * Datos de un login correcto: el usuario, su rol y, si es un cliente, sus datos de cliente.
+ */
+public class SesionUsuario {
+
+    private final String nickname;
+    private final String rol;
+    private final String dniCliente;
+    private final Cliente cliente;
+
+    public SesionUsuario(String nickname, String rol, String dniCliente, Cliente cliente) {
+        this.nickname = nickname;
+        this.rol = rol;
+        this.dniCliente = dniCliente;
+        this.cliente = cliente;
+    }
+
+    public String getNickname() { return nickname; }
+    public String getRol() { return rol; }
+    public String getDniCliente() { return dniCliente; }
+
+    /**
+     * @return Los datos del cliente asociado, o null si no existe en la tabla clientes
+     */
+    public Cliente getCliente() { return cliente; }
+
+    public boolean esAdmin() { return "admin".equals(rol); }
+}
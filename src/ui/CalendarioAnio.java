@@ -0,0 +1,80 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Vista de año de la agenda: doce celdas con el número de citas de cada mes,
+ * dibujadas directamente en lugar de recrear doce paneles en cada navegación.
+ */
+public class CalendarioAnio extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] NOMBRES_MESES = new String[12];
+    static {
+        Locale espanol = new Locale("es", "ES");
+        for (int i = 0; i < 12; i++) {
+            NOMBRES_MESES[i] = Month.of(i + 1).getDisplayName(TextStyle.FULL, espanol).toUpperCase(espanol);
+        }
+    }
+
+    private static final Font FUENTE_MES = new Font("Arial", Font.BOLD, 13);
+    private static final Font FUENTE_CONTADOR = new Font("Arial", Font.BOLD, 24);
+    private static final int COLUMNAS = 4;
+    private static final int FILAS = 3;
+    private static final int SEPARACION = 10;
+
+    private int[] citasPorMes = new int[12];
+
+    public CalendarioAnio() {
+        setOpaque(true);
+    }
+
+    /**
+     * @param citasPorMes Número de citas de enero (posición 0) a diciembre (posición 11).
+     */
+    public void setCitasPorMes(int[] citasPorMes) {
+        this.citasPorMes = citasPorMes.clone();
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            FontMetrics fmMes = g2.getFontMetrics(FUENTE_MES);
+            FontMetrics fmContador = g2.getFontMetrics(FUENTE_CONTADOR);
+            int ancho = (getWidth() - SEPARACION * (COLUMNAS - 1)) / COLUMNAS;
+            int alto = (getHeight() - SEPARACION * (FILAS - 1)) / FILAS;
+            for (int i = 0; i < 12; i++) {
+                int x = (i % COLUMNAS) * (ancho + SEPARACION);
+                int y = (i / COLUMNAS) * (alto + SEPARACION);
+                g2.setColor(Color.GRAY);
+                g2.drawRect(x, y + fmMes.getAscent() / 2, ancho - 1, alto - 1 - fmMes.getAscent() / 2);
+
+                // Título sobre el borde, como un TitledBorder
+                g2.setFont(FUENTE_MES);
+                int anchoTitulo = fmMes.stringWidth(NOMBRES_MESES[i]);
+                g2.setColor(getBackground());
+                g2.fillRect(x + 6, y, anchoTitulo + 6, fmMes.getHeight());
+                g2.setColor(Color.BLACK);
+                g2.drawString(NOMBRES_MESES[i], x + 9, y + fmMes.getAscent());
+
+                String contador = citasPorMes[i] + " citas";
+                g2.setFont(FUENTE_CONTADOR);
+                g2.drawString(contador, x + (ancho - fmContador.stringWidth(contador)) / 2,
+                        y + (alto + fmContador.getAscent()) / 2);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+}
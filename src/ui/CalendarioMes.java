@@ -0,0 +1,210 @@
+package ui;
+
+import modelos.Cita;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista de mes de la agenda dibujada directamente con Graphics2D.
+ *
+ * En lugar de crear un JPanel + JTextArea por día en cada navegación, el componente
+ * es uno solo: {@link #setMes} agrupa las citas por día una única vez y
+ * {@link #paintComponent} dibuja solo las líneas que caben en cada celda,
+ * por lo que el costo de pintar no depende del número de citas del mes.
+ */
+public class CalendarioMes extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter FORMATO_CITA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String[] DIAS = {"LUN", "MAR", "MIÉ", "JUE", "VIE", "SÁB", "DOM"};
+    private static final long PRESUPUESTO_PINTADO_NANOS = 16_000_000L; // Un cuadro a 60 Hz
+
+    private static final Font FUENTE_CABECERA = new Font("Arial", Font.BOLD, 14);
+    private static final Font FUENTE_DIA = new Font("Arial", Font.BOLD, 12);
+    private static final Font FUENTE_CITA = new Font("Monospaced", Font.PLAIN, 10);
+    private static final Color COLOR_BORDE = Color.LIGHT_GRAY;
+    private static final Color COLOR_HOY = new Color(255, 248, 220);
+    private static final Color COLOR_MAS = Color.GRAY;
+
+    private YearMonth mes = YearMonth.now();
+    private List<List<String>> lineasPorDia = new ArrayList<>();
+    private long ultimoPintadoNanos;
+    private boolean avisoPresupuesto;
+
+    public CalendarioMes() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        ToolTipManager.sharedInstance().registerComponent(this);
+    }
+
+    /**
+     * Cambia el mes mostrado y sus citas. Las citas con fecha inválida o de otro mes se ignoran.
+     * @param nuevoMes El mes a mostrar.
+     * @param citas Las citas del mes (en el orden en que deben listarse).
+     */
+    public void setMes(YearMonth nuevoMes, List<Cita> citas) {
+        List<List<String>> lineas = new ArrayList<>(nuevoMes.lengthOfMonth());
+        for (int i = 0; i < nuevoMes.lengthOfMonth(); i++) {
+            lineas.add(new ArrayList<>());
+        }
+        int invalidas = 0;
+        for (Cita cita : citas) {
+            if (cita.getFechaHora() == null) {
+                invalidas++;
+                continue;
+            }
+            LocalDateTime fecha;
+            try {
+                fecha = LocalDateTime.parse(cita.getFechaHora(), FORMATO_CITA);
+            } catch (DateTimeParseException e) {
+                invalidas++;
+                continue;
+            }
+            if (YearMonth.from(fecha).equals(nuevoMes)) {
+                lineas.get(fecha.getDayOfMonth() - 1).add(fecha.format(FORMATO_HORA) + " " + cita.getMotivo());
+            }
+        }
+        if (invalidas > 0) {
+            System.err.println("Agenda: " + invalidas + " citas con fecha inválida no se muestran en " + nuevoMes);
+        }
+        this.mes = nuevoMes;
+        this.lineasPorDia = lineas;
+        this.avisoPresupuesto = false;
+        repaint();
+    }
+
+    /**
+     * @return Duración del último pintado en milisegundos
+     */
+    public double getUltimoPintadoMs() {
+        return ultimoPintadoNanos / 1_000_000.0;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long inicio = System.nanoTime();
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            pintar(g2);
+        } finally {
+            g2.dispose();
+        }
+        ultimoPintadoNanos = System.nanoTime() - inicio;
+        if (ultimoPintadoNanos > PRESUPUESTO_PINTADO_NANOS && !avisoPresupuesto) {
+            avisoPresupuesto = true; // Un aviso por mes cargado, no uno por cada repintado
+            System.err.printf("Agenda: pintar %s tomó %.1f ms (presupuesto 16 ms)%n", mes, getUltimoPintadoMs());
+        }
+    }
+
+    private void pintar(Graphics2D g2) {
+        FontMetrics fmCabecera = g2.getFontMetrics(FUENTE_CABECERA);
+        FontMetrics fmDia = g2.getFontMetrics(FUENTE_DIA);
+        FontMetrics fmCita = g2.getFontMetrics(FUENTE_CITA);
+
+        int altoCabecera = fmCabecera.getHeight() + 8;
+        int anchoCelda = getWidth() / 7;
+        int semanas = semanasVisibles();
+        int altoCelda = (getHeight() - altoCabecera) / semanas;
+
+        g2.setFont(FUENTE_CABECERA);
+        g2.setColor(Color.BLACK);
+        for (int c = 0; c < 7; c++) {
+            int x = c * anchoCelda + (anchoCelda - fmCabecera.stringWidth(DIAS[c])) / 2;
+            g2.drawString(DIAS[c], x, fmCabecera.getAscent() + 4);
+        }
+
+        int desfase = mes.atDay(1).getDayOfWeek().getValue() - 1;
+        LocalDate hoy = LocalDate.now();
+        int altoLinea = fmCita.getHeight();
+        for (int dia = 1; dia <= mes.lengthOfMonth(); dia++) {
+            int posicion = desfase + dia - 1;
+            int x = (posicion % 7) * anchoCelda;
+            int y = altoCabecera + (posicion / 7) * altoCelda;
+
+            if (mes.atDay(dia).equals(hoy)) {
+                g2.setColor(COLOR_HOY);
+                g2.fillRect(x + 1, y + 1, anchoCelda - 2, altoCelda - 2);
+            }
+            g2.setColor(COLOR_BORDE);
+            g2.drawRect(x + 1, y + 1, anchoCelda - 3, altoCelda - 3);
+
+            g2.setColor(Color.BLACK);
+            g2.setFont(FUENTE_DIA);
+            g2.drawString(String.valueOf(dia), x + 5, y + 3 + fmDia.getAscent());
+
+            // Solo se dibujan las líneas que caben; el resto se resume como "+N más"
+            List<String> lineas = lineasPorDia.get(dia - 1);
+            int yLinea = y + 6 + fmDia.getHeight();
+            int disponibles = Math.max(0, (y + altoCelda - 4 - yLinea) / altoLinea);
+            int visibles = lineas.size() <= disponibles ? lineas.size() : Math.max(0, disponibles - 1);
+            g2.setFont(FUENTE_CITA);
+            int anchoTexto = anchoCelda - 12;
+            for (int i = 0; i < visibles; i++) {
+                g2.drawString(recortar("• " + lineas.get(i), fmCita, anchoTexto), x + 5, yLinea + fmCita.getAscent());
+                yLinea += altoLinea;
+            }
+            if (visibles < lineas.size() && disponibles > 0) {
+                g2.setColor(COLOR_MAS);
+                g2.drawString("+" + (lineas.size() - visibles) + " más", x + 5, yLinea + fmCita.getAscent());
+            }
+        }
+    }
+
+    // Recorta el texto con "…" para que quepa en el ancho dado
+    private static String recortar(String texto, FontMetrics fm, int ancho) {
+        if (fm.stringWidth(texto) <= ancho) {
+            return texto;
+        }
+        int anchoPuntos = fm.stringWidth("…");
+        int fin = texto.length();
+        // Estimación inicial por ancho medio de carácter y ajuste fino después
+        int estimado = Math.max(0, Math.min(fin, (ancho - anchoPuntos) / Math.max(1, fm.charWidth('m'))));
+        while (estimado < fin && fm.stringWidth(texto.substring(0, estimado + 1)) + anchoPuntos <= ancho) {
+            estimado++;
+        }
+        while (estimado > 0 && fm.stringWidth(texto.substring(0, estimado)) + anchoPuntos > ancho) {
+            estimado--;
+        }
+        return texto.substring(0, estimado) + "…";
+    }
+
+    private int semanasVisibles() {
+        int desfase = mes.atDay(1).getDayOfWeek().getValue() - 1;
+        return (desfase + mes.lengthOfMonth() + 6) / 7;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        // Muestra todas las citas del día bajo el cursor, incluidas las que no caben en la celda
+        int altoCabecera = getFontMetrics(FUENTE_CABECERA).getHeight() + 8;
+        int anchoCelda = getWidth() / 7;
+        int altoCelda = (getHeight() - altoCabecera) / semanasVisibles();
+        if (e.getY() < altoCabecera || anchoCelda == 0 || altoCelda <= 0) {
+            return null;
+        }
+        int posicion = ((e.getY() - altoCabecera) / altoCelda) * 7 + Math.min(6, e.getX() / anchoCelda);
+        int dia = posicion - (mes.atDay(1).getDayOfWeek().getValue() - 1) + 1;
+        if (dia < 1 || dia > mes.lengthOfMonth() || lineasPorDia.get(dia - 1).isEmpty()) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder("<html><b>").append(dia).append("</b>");
+        for (String linea : lineasPorDia.get(dia - 1)) {
+            html.append("<br>").append(linea.replace("&", "&amp;").replace("<", "&lt;"));
+        }
+        return html.append("</html>").toString();
+    }
+}
@@ -0,0 +1,221 @@
+package ui;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Window;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Carga datos en segundo plano para las pantallas Swing, de modo que las
+ * consultas JDBC nunca se ejecuten en el hilo de eventos (EDT).
+ *
+ * Cada instancia representa un "canal" de carga (p. ej. la tabla de productos):
+ * - Una nueva petición deja obsoleta a la anterior: la consulta en curso se cancela
+ *   (se interrumpe su hilo, así deja de esperar una conexión del pool) y su resultado
+ *   se descarta.
+ * - Las peticiones que llegan seguidas se agrupan y solo se ejecuta la última
+ *   (útil cuando un combo dispara varios eventos seguidos).
+ * - Mientras trabaja, la ventana muestra el cursor de espera y, si se configuró,
+ *   un indicador visible.
+ *
+ * Todos los métodos públicos deben llamarse desde el EDT; la consulta se ejecuta
+ * en un hilo de fondo y el callback vuelve al EDT.
+ */
+public class CargadorAsincrono {
+
+    // Ventana -> número de tareas en curso, para restaurar el cursor solo al terminar la última
+    private static final Map<Window, Integer> TAREAS_POR_VENTANA = new HashMap<>();
+
+    private final Component componente;
+    private JComponent indicador;
+
+    private Peticion<?> enCurso;
+    private Peticion<?> pendiente;
+    private long generacion;
+
+    /**
+     * @param componente Componente de la pantalla; se usa para mostrar el cursor de espera.
+     */
+    public CargadorAsincrono(Component componente) {
+        this.componente = componente;
+    }
+
+    /**
+     * Define un componente (p. ej. una etiqueta "Cargando...") que se muestra solo mientras hay una carga.
+     * @param indicador El componente indicador.
+     */
+    public void setIndicador(JComponent indicador) {
+        this.indicador = indicador;
+        indicador.setVisible(enCurso != null);
+    }
+
+    /**
+     * Solicita una carga. Si hay otra en curso, esta la reemplaza.
+     * @param consulta Trabajo a ejecutar fuera del EDT (normalmente una llamada a un controlador).
+     * @param alTerminar Recibe el resultado en el EDT, solo si la petición sigue vigente
+     *                   y la consulta devolvió un valor distinto de null.
+     * @param <T> Tipo del resultado.
+     */
+    public <T> void cargar(Callable<T> consulta, Consumer<T> alTerminar) {
+        Peticion<T> peticion = new Peticion<>(++generacion, consulta, alTerminar);
+        if (enCurso == null) {
+            iniciar(peticion);
+        } else {
+            // Se agrupa: la pendiente anterior ya no interesa. La nueva arranca cuando
+            // el trabajador cancelado pase por done()
+            pendiente = peticion;
+            enCurso.cancelarTrabajo();
+        }
+    }
+
+    /**
+     * Descarta la carga en curso y las pendientes.
+     */
+    public void cancelar() {
+        generacion++;
+        pendiente = null;
+        if (enCurso != null) {
+            enCurso.cancelarTrabajo();
+        }
+    }
+
+    /**
+     * @return true si hay una consulta ejecutándose
+     */
+    public boolean estaCargando() {
+        return enCurso != null;
+    }
+
+    /**
+     * Ejecuta una operación puntual (guardar, eliminar, ...) fuera del EDT.
+     * A diferencia de {@link #cargar}, no se cancela ni se agrupa con otras.
+     * @param componente Componente de la pantalla, para el cursor de espera.
+     * @param operacion Trabajo a ejecutar fuera del EDT.
+     * @param alTerminar Recibe el resultado en el EDT (null si la operación lanzó una excepción).
+     * @param <T> Tipo del resultado.
+     */
+    public static <T> void ejecutar(Component componente, Callable<T> operacion, Consumer<T> alTerminar) {
+        Window ventana = ventanaDe(componente);
+        marcarOcupada(ventana);
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return operacion.call();
+            }
+
+            @Override
+            protected void done() {
+                liberarVentana(ventana);
+                alTerminar.accept(obtenerResultado(this));
+            }
+        }.execute();
+    }
+
+    private <T> void iniciar(Peticion<T> peticion) {
+        enCurso = peticion;
+        Window ventana = ventanaDe(componente);
+        marcarOcupada(ventana);
+        if (indicador != null) {
+            indicador.setVisible(true);
+        }
+
+        peticion.trabajador = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return peticion.consulta.call();
+            }
+
+            @Override
+            protected void done() {
+                liberarVentana(ventana);
+                enCurso = null;
+
+                if (peticion.generacion == generacion && !isCancelled()) {
+                    T resultado = obtenerResultado(this);
+                    if (resultado != null) {
+                        peticion.alTerminar.accept(resultado);
+                    }
+                }
+
+                Peticion<?> siguiente = pendiente;
+                pendiente = null;
+                if (siguiente != null && siguiente.generacion == generacion) {
+                    iniciar(siguiente);
+                } else if (indicador != null) {
+                    indicador.setVisible(false);
+                }
+            }
+        };
+        peticion.trabajador.execute();
+    }
+
+    private static Window ventanaDe(Component componente) {
+        if (componente instanceof Window) {
+            return (Window) componente;
+        }
+        return SwingUtilities.getWindowAncestor(componente);
+    }
+
+    private static <T> T obtenerResultado(SwingWorker<T, Void> worker) {
+        try {
+            return worker.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Error al cargar datos en segundo plano: " + e.getCause());
+            return null;
+        }
+    }
+
+    private static void marcarOcupada(Window ventana) {
+        if (ventana == null) {
+            return;
+        }
+        if (TAREAS_POR_VENTANA.merge(ventana, 1, Integer::sum) == 1) {
+            ventana.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        }
+    }
+
+    private static void liberarVentana(Window ventana) {
+        if (ventana == null) {
+            return;
+        }
+        Integer restantes = TAREAS_POR_VENTANA.computeIfPresent(ventana, (k, n) -> n > 1 ? n - 1 : null);
+        if (restantes == null) {
+            ventana.setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
+    /**
+     * Petición de carga con su número de generación.
+     */
+    private static class Peticion<T> {
+        final long generacion;
+        final Callable<T> consulta;
+        final Consumer<T> alTerminar;
+        SwingWorker<T, Void> trabajador; // Se asigna al iniciarla
+
+        Peticion(long generacion, Callable<T> consulta, Consumer<T> alTerminar) {
+            this.generacion = generacion;
+            this.consulta = consulta;
+            this.alTerminar = alTerminar;
+        }
+
+        void cancelarTrabajo() {
+            if (trabajador != null) {
+                trabajador.cancel(true);
+            }
+        }
+    }
+}
@@ -10,7 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.format.TextStyle;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 import java.util.Locale;
@@ -25,13 +25,29 @@ public class CitasUI extends JFrame {
 
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel panelVistas = new JPanel(cardLayout);
-    private JPanel panelSemana, panelMes, panelAnio;
+    private JPanel panelSemana;
+    private CalendarioMes calendarioMes;
+    private CalendarioAnio calendarioAnio;
+    // Áreas de la vista semanal ("Lunes_manana", "Domingo_domingo", ...): se crean una vez y solo cambia su texto
+    private final Map<String, JTextArea> areasSemana = new HashMap<>();
+
+    private static final Locale ESPANOL = new Locale("es", "ES");
+    private static final DateTimeFormatter FORMATO_CITA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("hh:mm a");
+    private static final DateTimeFormatter FORMATO_INICIO_SEMANA = DateTimeFormatter.ofPattern("dd 'de' MMMM", ESPANOL);
+    private static final DateTimeFormatter FORMATO_FIN_SEMANA = DateTimeFormatter.ofPattern("dd 'de' MMMM 'de' yyyy", ESPANOL);
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("MMMM yyyy", ESPANOL);
+    private static final String[] DIAS_SEMANA = {"Lunes", "Martes", "Miércoles", "Jueves", "Viernes", "Sábado", "Domingo"};
 
     private enum VistaActual { SEMANA, MES, ANIO }
     private VistaActual vistaActual = VistaActual.SEMANA;
 
+    // Navegar rápido con < > solo pinta el último periodo pedido
+    private final CargadorAsincrono cargadorVista;
+
     public CitasUI() {
         this.citaController = new CitaController();
+        this.cargadorVista = new CargadorAsincrono(this);
         this.fechaActual = LocalDate.now();
 
         setTitle("Agenda de Citas - Días Vet");
@@ -73,11 +89,11 @@ public class CitasUI extends JFrame {
 
         // --- PANEL CENTRAL CON VISTAS ---
         panelSemana = crearPanelSemana();
-        panelMes = crearPanelMes();
-        panelAnio = crearPanelAnio();
+        calendarioMes = new CalendarioMes();
+        calendarioAnio = new CalendarioAnio();
         panelVistas.add(panelSemana, "Semana");
-        panelVistas.add(panelMes, "Mes");
-        panelVistas.add(panelAnio, "Año");
+        panelVistas.add(calendarioMes, "Mes");
+        panelVistas.add(calendarioAnio, "Año");
         add(panelVistas, BorderLayout.CENTER);
 
         // --- PANEL DERECHO DEL FORMULARIO ---
@@ -107,19 +123,26 @@ public class CitasUI extends JFrame {
     }
 
     private void actualizarVista() {
-        List<Cita> citas = citaController.obtenerTodasLasCitas();
+        // Cada vista consulta solo la ventana de fechas visible, fuera del EDT
         switch (vistaActual) {
             case SEMANA:
                 cardLayout.show(panelVistas, "Semana");
-                actualizarVistaSemana(citas);
+                LocalDate inicioSemana = fechaActual.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                cargadorVista.cargar(() -> citaController.obtenerCitasEntre(
+                        inicioSemana.atStartOfDay(), inicioSemana.plusWeeks(1).atStartOfDay()),
+                        this::actualizarVistaSemana);
                 break;
             case MES:
                 cardLayout.show(panelVistas, "Mes");
-                actualizarVistaMes(citas);
+                LocalDate inicioMes = fechaActual.withDayOfMonth(1);
+                cargadorVista.cargar(() -> citaController.obtenerCitasEntre(
+                        inicioMes.atStartOfDay(), inicioMes.plusMonths(1).atStartOfDay()),
+                        this::actualizarVistaMes);
                 break;
             case ANIO:
                 cardLayout.show(panelVistas, "Año");
-                actualizarVistaAnio(citas);
+                int anio = fechaActual.getYear();
+                cargadorVista.cargar(() -> citaController.contarCitasPorMes(anio), this::actualizarVistaAnio);
                 break;
         }
     }
@@ -142,6 +165,7 @@ public class CitasUI extends JFrame {
         JTextField txtDniCliente = new JTextField(15);
         JTextField txtIdMascota = new JTextField(15);
         JButton btnAgendar = new JButton("Agendar Cita");
+        JButton btnSugerir = new JButton("Sugerir horario");
         JButton btnEliminar = new JButton("Eliminar Cita (requiere ID)");
         JTextField txtIdCitaEliminar = new JTextField(5);
 
@@ -161,7 +185,10 @@ public class CitasUI extends JFrame {
         gbc.gridx = 1; gbc.gridy = 4; panel.add(txtMotivo, gbc);
         gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 2; gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(15, 5, 5, 5);
-        panel.add(btnAgendar, gbc);
+        JPanel panelBotonesCita = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        panelBotonesCita.add(btnSugerir);
+        panelBotonesCita.add(btnAgendar);
+        panel.add(panelBotonesCita, gbc);
         gbc.gridy = 6; gbc.insets = new Insets(20, 5, 5, 5);
         panel.add(new JSeparator(), gbc);
         gbc.gridy = 7; gbc.gridwidth = 1; gbc.insets = new Insets(5, 5, 5, 5);
@@ -178,28 +205,54 @@ public class CitasUI extends JFrame {
                 String minutoStr = comboMinutos.getSelectedItem().toString();
                 String fechaCompletaStr = fechaStr + " " + horaStr + ":" + minutoStr;
                 Cita nuevaCita = new Cita(0, fechaCompletaStr, txtMotivo.getText(), txtDniCliente.getText(), Integer.parseInt(txtIdMascota.getText()));
-                if (citaController.registrarCita(nuevaCita)) {
-                    JOptionPane.showMessageDialog(this, "Cita agendada con éxito.");
-                    actualizarVista();
-                } else {
-                    JOptionPane.showMessageDialog(this, "No se pudo agendar la cita.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                CargadorAsincrono.ejecutar(this, () -> citaController.registrarCita(nuevaCita), exito -> {
+                    if (Boolean.TRUE.equals(exito)) {
+                        JOptionPane.showMessageDialog(this, "Cita agendada con éxito.");
+                        actualizarVista();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "No se pudo agendar la cita.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Error en los datos ingresados.", "Error de Formato", JOptionPane.ERROR_MESSAGE);
             }
         });
 
+        // Rellena fecha y hora con el primer turno libre para la mascota y el motivo
+        btnSugerir.addActionListener(e -> {
+            int idMascota;
+            try {
+                idMascota = Integer.parseInt(txtIdMascota.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Ingrese el ID de la mascota para sugerir un horario.", "Error de Formato", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            String motivo = txtMotivo.getText();
+            CargadorAsincrono.ejecutar(this, () -> citaController.buscarTurnosDisponibles(idMascota, motivo, LocalDateTime.now(), 1), turnos -> {
+                if (turnos == null || turnos.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "No hay turnos disponibles en los próximos días.", "Sin disponibilidad", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                LocalDateTime turno = turnos.get(0);
+                txtFecha.setText(turno.toLocalDate().toString());
+                comboHora.setSelectedItem(String.format("%02d", turno.getHour()));
+                comboMinutos.setSelectedItem(String.format("%02d", turno.getMinute()));
+            });
+        });
+
         btnEliminar.addActionListener(e -> {
             try {
                 int idCita = Integer.parseInt(txtIdCitaEliminar.getText());
                 int confirmacion = JOptionPane.showConfirmDialog(this, "¿Eliminar la cita con ID " + idCita + "?", "Confirmar", JOptionPane.YES_NO_OPTION);
                 if (confirmacion == JOptionPane.YES_OPTION) {
-                    if (citaController.eliminarCita(idCita)) {
-                        JOptionPane.showMessageDialog(this, "Cita eliminada.");
-                        actualizarVista();
-                    } else {
-                        JOptionPane.showMessageDialog(this, "No se pudo eliminar la cita.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    CargadorAsincrono.ejecutar(this, () -> citaController.eliminarCita(idCita), exito -> {
+                        if (Boolean.TRUE.equals(exito)) {
+                            JOptionPane.showMessageDialog(this, "Cita eliminada.");
+                            actualizarVista();
+                        } else {
+                            JOptionPane.showMessageDialog(this, "No se pudo eliminar la cita.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "ID de cita inválido.", "Error de Formato", JOptionPane.ERROR_MESSAGE);
@@ -209,73 +262,84 @@ public class CitasUI extends JFrame {
         return panel;
     }
 
-    private JPanel crearPanelSemana() { return new JPanel(new GridBagLayout()); }
-    private JPanel crearPanelMes() { return new JPanel(new GridLayout(0, 7, 5, 5)); }
-    private JPanel crearPanelAnio() { return new JPanel(new GridLayout(3, 4, 10, 10)); }
-
-    private void actualizarVistaSemana(List<Cita> citas) {
-        panelSemana.removeAll();
-        LocalDate inicioSemana = fechaActual.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        LocalDate finSemana = inicioSemana.plusDays(6);
-        lblTituloFecha.setText("Semana del " + inicioSemana.format(DateTimeFormatter.ofPattern("dd 'de' MMMM", new Locale("es", "ES"))) + " al " + finSemana.format(DateTimeFormatter.ofPattern("dd 'de' MMMM 'de' yyyy", new Locale("es", "ES"))));
-
+    private JPanel crearPanelSemana() {
+        JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.fill = GridBagConstraints.BOTH; gbc.weightx = 1.0; gbc.weighty = 1.0;
-        String[] dias = {"Lunes", "Martes", "Miércoles", "Jueves", "Viernes", "Sábado", "Domingo"};
-        Map<String, JTextArea> panelesHorarioSemana = new HashMap<>();
 
-        for (int i = 0; i < dias.length; i++) {
+        for (int i = 0; i < DIAS_SEMANA.length; i++) {
             gbc.gridx = i; gbc.gridy = 0; gbc.weighty = 0.05;
-            JLabel lblDia = new JLabel(dias[i], SwingConstants.CENTER);
+            JLabel lblDia = new JLabel(DIAS_SEMANA[i], SwingConstants.CENTER);
             lblDia.setFont(new Font("Arial", Font.BOLD, 16));
             lblDia.setBorder(BorderFactory.createMatteBorder(1, 1, 1, 1, Color.GRAY));
-            panelSemana.add(lblDia, gbc);
+            panel.add(lblDia, gbc);
         }
 
         gbc.weighty = 1.0;
-        for (int i = 0; i < dias.length; i++) {
+        Font fuenteAreas = new Font("Monospaced", Font.PLAIN, 12);
+        for (int i = 0; i < DIAS_SEMANA.length; i++) {
             gbc.gridx = i; gbc.gridy = 1;
             JPanel panelDia = new JPanel();
             panelDia.setLayout(new BoxLayout(panelDia, BoxLayout.Y_AXIS));
             panelDia.setBorder(BorderFactory.createMatteBorder(0, 1, 1, 1, Color.GRAY));
             if (i < 6) {
-                panelDia.add(new JScrollPane(createScheduleArea(panelesHorarioSemana, dias[i] + "_manana", "7am-12pm")));
-                panelDia.add(new JScrollPane(createScheduleArea(panelesHorarioSemana, dias[i] + "_tarde", "3pm-7pm")));
+                panelDia.add(new JScrollPane(createScheduleArea(areasSemana, DIAS_SEMANA[i] + "_manana", "7am-12pm", fuenteAreas)));
+                panelDia.add(new JScrollPane(createScheduleArea(areasSemana, DIAS_SEMANA[i] + "_tarde", "3pm-7pm", fuenteAreas)));
             } else {
-                panelDia.add(new JScrollPane(createScheduleArea(panelesHorarioSemana, dias[i] + "_domingo", "7am-9am")));
+                panelDia.add(new JScrollPane(createScheduleArea(areasSemana, DIAS_SEMANA[i] + "_domingo", "7am-9am", fuenteAreas)));
             }
-            panelSemana.add(panelDia, gbc);
+            panel.add(panelDia, gbc);
         }
+        return panel;
+    }
+
+    private void actualizarVistaSemana(List<Cita> citas) {
+        LocalDate inicioSemana = fechaActual.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate finSemana = inicioSemana.plusDays(6);
+        lblTituloFecha.setText("Semana del " + inicioSemana.format(FORMATO_INICIO_SEMANA) + " al " + finSemana.format(FORMATO_FIN_SEMANA));
 
-        DateTimeFormatter formatterCita = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        // Se arma el texto de cada franja y se asigna una sola vez, en lugar de recrear los componentes
+        Map<String, StringBuilder> textos = new HashMap<>();
+        int invalidas = 0;
         for (Cita cita : citas) {
+            if (cita.getFechaHora() == null) {
+                invalidas++;
+                continue;
+            }
+            LocalDateTime fechaCita;
             try {
-                LocalDateTime fechaCita = LocalDateTime.parse(cita.getFechaHora(), formatterCita);
-                if (!fechaCita.toLocalDate().isBefore(inicioSemana) && !fechaCita.toLocalDate().isAfter(finSemana)) {
-                    DayOfWeek dia = fechaCita.getDayOfWeek(); int hora = fechaCita.getHour(); String key = "";
-                    switch (dia) {
-                        case MONDAY: key="Lunes"; break; case TUESDAY: key="Martes"; break; case WEDNESDAY: key="Miércoles"; break;
-                        case THURSDAY: key="Jueves"; break; case FRIDAY: key="Viernes"; break; case SATURDAY: key="Sábado"; break;
-                        case SUNDAY: key="Domingo"; break;
-                    }
-                    if (dia == DayOfWeek.SUNDAY) { if (hora >= 7 && hora < 9) key += "_domingo"; }
-                    else { if (hora >= 7 && hora < 12) key += "_manana"; else if (hora >= 15 && hora < 19) key += "_tarde"; }
-                    
-                    JTextArea area = panelesHorarioSemana.get(key);
-                    if (area != null) {
-                        area.append(String.format("• ID:%d %s\n  Mascota:%d (%s)\n\n", cita.getId(), fechaCita.format(DateTimeFormatter.ofPattern("hh:mm a")), cita.getIdMascota(), cita.getMotivo()));
-                    }
-                }
-            } catch (Exception e) {}
+                fechaCita = LocalDateTime.parse(cita.getFechaHora(), FORMATO_CITA);
+            } catch (DateTimeParseException e) {
+                invalidas++;
+                continue;
+            }
+            if (fechaCita.toLocalDate().isBefore(inicioSemana) || fechaCita.toLocalDate().isAfter(finSemana)) {
+                continue;
+            }
+            DayOfWeek dia = fechaCita.getDayOfWeek(); int hora = fechaCita.getHour();
+            String key = DIAS_SEMANA[dia.getValue() - 1];
+            if (dia == DayOfWeek.SUNDAY) { if (hora >= 7 && hora < 9) key += "_domingo"; }
+            else { if (hora >= 7 && hora < 12) key += "_manana"; else if (hora >= 15 && hora < 19) key += "_tarde"; }
+
+            if (areasSemana.containsKey(key)) {
+                textos.computeIfAbsent(key, k -> new StringBuilder())
+                        .append(String.format("• ID:%d %s\n  Mascota:%d (%s)\n\n", cita.getId(), fechaCita.format(FORMATO_HORA), cita.getIdMascota(), cita.getMotivo()));
+            }
+        }
+        if (invalidas > 0) {
+            System.err.println("Agenda: " + invalidas + " citas con fecha inválida no se muestran en la semana del " + inicioSemana);
+        }
+        for (Map.Entry<String, JTextArea> area : areasSemana.entrySet()) {
+            StringBuilder texto = textos.get(area.getKey());
+            area.getValue().setText(texto == null ? "" : texto.toString());
+            area.getValue().setCaretPosition(0);
         }
-
-        panelSemana.revalidate(); panelSemana.repaint();
     }
 
-    private JTextArea createScheduleArea(Map<String, JTextArea> mapa, String key, String title) {
+    private JTextArea createScheduleArea(Map<String, JTextArea> mapa, String key, String title, Font fuente) {
         JTextArea textArea = new JTextArea();
         textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        textArea.setFont(fuente);
         textArea.setLineWrap(true); textArea.setWrapStyleWord(true);
         textArea.setBorder(BorderFactory.createTitledBorder(title));
         textArea.setMargin(new Insets(5, 5, 5, 5));
@@ -284,54 +348,12 @@ public class CitasUI extends JFrame {
     }
 
     private void actualizarVistaMes(List<Cita> citas) {
-        panelMes.removeAll();
-        String[] dias = {"LUN", "MAR", "MIÉ", "JUE", "VIE", "SÁB", "DOM"};
-        for (String dia : dias) {
-            JLabel header = new JLabel(dia, SwingConstants.CENTER);
-            header.setFont(new Font("Arial", Font.BOLD, 14));
-            panelMes.add(header);
-        }
-        lblTituloFecha.setText(fechaActual.format(DateTimeFormatter.ofPattern("MMMM yyyy", new Locale("es", "ES"))).toUpperCase());
-        YearMonth anioMes = YearMonth.from(fechaActual);
-        LocalDate primerDiaDelMes = fechaActual.withDayOfMonth(1);
-        int diaDeLaSemana = primerDiaDelMes.getDayOfWeek().getValue();
-        for (int i = 1; i < diaDeLaSemana; i++) { panelMes.add(new JLabel("")); }
-        for (int i = 1; i <= anioMes.lengthOfMonth(); i++) {
-            JPanel panelDia = new JPanel(new BorderLayout());
-            panelDia.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-            panelDia.add(new JLabel(" " + i), BorderLayout.NORTH);
-            JTextArea areaCitas = new JTextArea(); areaCitas.setEditable(false);
-            areaCitas.setFont(new Font("Monospaced", Font.PLAIN, 10));
-            LocalDate diaActual = anioMes.atDay(i);
-            for(Cita cita : citas) {
-                if(LocalDateTime.parse(cita.getFechaHora(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")).toLocalDate().equals(diaActual)) {
-                    areaCitas.append("• " + cita.getMotivo() + "\n");
-                }
-            }
-            panelDia.add(new JScrollPane(areaCitas), BorderLayout.CENTER);
-            panelMes.add(panelDia);
-        }
-        panelMes.revalidate(); panelMes.repaint();
+        lblTituloFecha.setText(fechaActual.format(FORMATO_MES).toUpperCase());
+        calendarioMes.setMes(YearMonth.from(fechaActual), citas);
     }
 
-    private void actualizarVistaAnio(List<Cita> citas) {
-        panelAnio.removeAll();
+    private void actualizarVistaAnio(int[] citasPorMes) {
         lblTituloFecha.setText(String.valueOf(fechaActual.getYear()));
-        for (int i = 1; i <= 12; i++) {
-            YearMonth anioMes = YearMonth.of(fechaActual.getYear(), i);
-            JPanel panelMiniMes = new JPanel(new BorderLayout());
-            String nombreMes = anioMes.getMonth().getDisplayName(TextStyle.FULL, new Locale("es", "ES"));
-            panelMiniMes.setBorder(BorderFactory.createTitledBorder(nombreMes.toUpperCase()));
-            long contadorCitas = citas.stream().filter(c -> {
-                try {
-                    return YearMonth.from(LocalDateTime.parse(c.getFechaHora(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))).equals(anioMes);
-                } catch (Exception e) { return false; }
-            }).count();
-            JLabel lblContador = new JLabel(contadorCitas + " citas", SwingConstants.CENTER);
-            lblContador.setFont(new Font("Arial", Font.BOLD, 24));
-            panelMiniMes.add(lblContador, BorderLayout.CENTER);
-            panelAnio.add(panelMiniMes);
-        }
-        panelAnio.revalidate(); panelAnio.repaint();
+        calendarioAnio.setCitasPorMes(citasPorMes);
     }
-}
\ No newline at end of file
+}
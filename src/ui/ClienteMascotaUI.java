@@ -5,9 +5,9 @@ import controladores.HistorialAccionesController;
 import modelos.Cliente;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.List;
 
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
@@ -21,8 +21,9 @@ public class ClienteMascotaUI extends JFrame {
     private final ClienteController clienteController;
 
     // --- Componentes de la UI ---
+    private JTextField txtBuscar;
     private JTable tablaClientes;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Cliente> modeloTabla;
     private JTextField txtDni;
     private JTextField txtNombre;
     private JTextField txtTelefono;
@@ -63,15 +64,31 @@ public class ClienteMascotaUI extends JFrame {
         setLayout(new BorderLayout(10, 10));
 
         // --- 1. Tabla de Clientes ---
-        modeloTabla = new DefaultTableModel(new String[]{"DNI", "Nombre", "Teléfono", "Dirección"}, 0){
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Hacer la tabla no editable
-            }};
+        // Las filas se leen por páginas; el orden (clic en la cabecera) se resuelve en SQL y el
+        // filtro con el índice por prefijo de clientes
+        modeloTabla = new ModeloTablaPaginado<>(new String[]{"DNI", "Nombre", "Teléfono", "Dirección"},
+                new String[]{"dni", "nombre", "telefono", "direccion"}, clienteController.consultaPaginada(),
+                (cliente, columna) -> {
+                    switch (columna) {
+                        case 0: return cliente.getDni();
+                        case 1: return cliente.getNombre();
+                        case 2: return cliente.getTelefono();
+                        default: return cliente.getDireccion();
+                    }
+                });
         tablaClientes = new JTable(modeloTabla);
+        modeloTabla.instalarOrdenEnCabecera(tablaClientes);
         JScrollPane scrollPane = new JScrollPane(tablaClientes);
         add(scrollPane, BorderLayout.CENTER);
 
+        // Búsqueda mientras se escribe por nombre o DNI
+        JPanel panelBusqueda = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        txtBuscar = new JTextField(25);
+        txtBuscar.setToolTipText("Escriba el nombre o DNI del cliente");
+        panelBusqueda.add(new JLabel("Buscar:"));
+        panelBusqueda.add(txtBuscar);
+        add(panelBusqueda, BorderLayout.NORTH);
+
         // --- 2. Formulario de Edición ---
         JPanel panelFormulario = new JPanel(new GridBagLayout());
         panelFormulario.setBorder(BorderFactory.createTitledBorder("Datos del Cliente"));
@@ -109,14 +126,17 @@ public class ClienteMascotaUI extends JFrame {
         // Evento para cargar datos en el formulario al seleccionar una fila de la tabla
         tablaClientes.getSelectionModel().addListSelectionListener(event -> {
             if (!event.getValueIsAdjusting() && tablaClientes.getSelectedRow() != -1) {
-                int filaSeleccionada = tablaClientes.getSelectedRow();
-                dniSeleccionado = modeloTabla.getValueAt(filaSeleccionada, 0).toString();
+                Cliente cliente = modeloTabla.getFila(tablaClientes.getSelectedRow());
+                if (cliente == null) {
+                    return; // Su página todavía se está cargando
+                }
+                dniSeleccionado = cliente.getDni();
                 
                 txtDni.setText(dniSeleccionado);
                 txtDni.setEnabled(false); // No se debe poder editar el DNI
-                txtNombre.setText(modeloTabla.getValueAt(filaSeleccionada, 1).toString());
-                txtTelefono.setText(modeloTabla.getValueAt(filaSeleccionada, 2).toString());
-                txtDireccion.setText(modeloTabla.getValueAt(filaSeleccionada, 3).toString());
+                txtNombre.setText(cliente.getNombre());
+                txtTelefono.setText(cliente.getTelefono());
+                txtDireccion.setText(cliente.getDireccion());
             }
         });
         
@@ -150,33 +170,33 @@ public class ClienteMascotaUI extends JFrame {
             Cliente clienteActualizado = new Cliente(dni, nuevoNombre, nuevoTelefono, nuevaDireccion);
             
             // 4. LLAMAR DIRECTAMENTE AL MÉTODO DE ACTUALIZACIÓN DEL CONTROLADOR
-            if (clienteController.actualizarCliente(clienteActualizado)) {
-                JOptionPane.showMessageDialog(this, "Cliente actualizado con éxito.");
-                // Refrescamos la tabla para ver los cambios
-                cargarDatosEnTabla();
-                limpiarFormulario();
-            } else {
-                JOptionPane.showMessageDialog(this, "No se pudo actualizar el cliente.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            CargadorAsincrono.ejecutar(this, () -> clienteController.actualizarCliente(clienteActualizado), exito -> {
+                if (Boolean.TRUE.equals(exito)) {
+                    JOptionPane.showMessageDialog(this, "Cliente actualizado con éxito.");
+                    // Refrescamos la tabla para ver los cambios
+                    cargarDatosEnTabla();
+                    limpiarFormulario();
+                } else {
+                    JOptionPane.showMessageDialog(this, "No se pudo actualizar el cliente.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         });
         
         btnLimpiar.addActionListener(e -> limpiarFormulario());
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+        });
         aplicarFiltrosValidacion();
     }
 
     private void cargarDatosEnTabla() {
-        // Limpiar tabla antes de cargar
-        modeloTabla.setRowCount(0); 
-        
-        List<Cliente> clientes = clienteController.obtenerTodosLosClientes();
-        for (Cliente cliente : clientes) {
-            modeloTabla.addRow(new Object[]{
-                cliente.getDni(),
-                cliente.getNombre(),
-                cliente.getTelefono(),
-                cliente.getDireccion()
-            });
-        }
+        // Solo se cuentan las filas; cada página se consulta cuando aparece en pantalla
+        modeloTabla.recargar();
     }
     
     private void limpiarFormulario() {
@@ -18,13 +18,17 @@ import modelos.Mascota;
 
 import javax.swing.*;
 
+import javax.swing.event.DocumentEvent;
+
+import javax.swing.event.DocumentListener;
+
 import java.awt.*;
 
 import java.text.SimpleDateFormat;
 
 // import java.util.Date; // Ya no es necesario para la UI
 
-import java.util.List;
+import java.util.Optional;
 
 
 
@@ -40,6 +44,14 @@ public class HistorialUI extends JFrame {
 
 
 
+    private static final int LIMITE_SUGERENCIAS = 50;
+
+
+
+    private JTextField txtBuscarCliente;
+
+
+
     private JComboBox<Cliente> comboClientes;
 
     private JComboBox<Mascota> comboMascotas;
@@ -56,6 +68,14 @@ public class HistorialUI extends JFrame {
 
     private Historial historialActual;
 
+    // Cada combo tiene su propio canal de carga: cambiar de cliente descarta la consulta anterior
+
+    private final CargadorAsincrono cargadorClientes;
+
+    private final CargadorAsincrono cargadorMascotas;
+
+    private final CargadorAsincrono cargadorHistorial;
+
     // El SimpleDateFormat ya no es necesario para la UI, pero puede ser útil para validaciones
 
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
@@ -70,6 +90,12 @@ public class HistorialUI extends JFrame {
 
         this.historialController = new HistorialController();
 
+        this.cargadorClientes = new CargadorAsincrono(this);
+
+        this.cargadorMascotas = new CargadorAsincrono(this);
+
+        this.cargadorHistorial = new CargadorAsincrono(this);
+
         
 
         setTitle("Historial Clínico - Días Vet");
@@ -104,6 +130,20 @@ public class HistorialUI extends JFrame {
 
         panelSeleccion.add(new JLabel("Cliente:"));
 
+
+
+        // Filtra el combo mientras se escribe (nombre o DNI) en vez de listar todos los clientes
+
+        txtBuscarCliente = new JTextField(12);
+
+
+
+        txtBuscarCliente.setToolTipText("Escriba el nombre o DNI del cliente");
+
+
+
+        panelSeleccion.add(txtBuscarCliente);
+
         comboClientes = new JComboBox<>();
 
         comboClientes.setPreferredSize(new Dimension(200, 25));
@@ -238,6 +278,24 @@ public class HistorialUI extends JFrame {
 
         comboClientes.addActionListener(e -> cargarMascotasDeCliente());
 
+
+
+        txtBuscarCliente.getDocument().addDocumentListener(new DocumentListener() {
+
+            @Override
+
+            public void insertUpdate(DocumentEvent e) { buscarClientes(); }
+
+            @Override
+
+            public void removeUpdate(DocumentEvent e) { buscarClientes(); }
+
+            @Override
+
+            public void changedUpdate(DocumentEvent e) { buscarClientes(); }
+
+        });
+
         comboMascotas.addActionListener(e -> cargarHistorialDeMascota());
 
         btnGuardar.addActionListener(e -> guardarHistorial());
@@ -258,7 +316,7 @@ public class HistorialUI extends JFrame {
 
                 super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
 
-                if (value instanceof Cliente) setText(((Cliente) value).getNombre());
+                if (value instanceof Cliente) setText(((Cliente) value).getNombre() + " (" + ((Cliente) value).getDni() + ")");
 
                 else setText("Seleccione un cliente...");
 
@@ -270,17 +328,39 @@ public class HistorialUI extends JFrame {
 
         
 
-        List<Cliente> clientes = clienteController.obtenerTodosLosClientes();
+        buscarClientes();
+
+    }
 
-        comboClientes.removeAllItems();
 
-        comboClientes.addItem(null);
 
-        for (Cliente cliente : clientes) {
+    private void buscarClientes() {
 
-            comboClientes.addItem(cliente);
+        // Una pulsación nueva reemplaza a la búsqueda pendiente, así solo se pinta el último resultado
 
-        }
+        String texto = txtBuscarCliente.getText();
+
+        cargadorClientes.cargar(() -> clienteController.buscarClientesPorPrefijo(texto, LIMITE_SUGERENCIAS), clientes -> {
+
+            comboClientes.removeAllItems();
+
+            comboClientes.addItem(null);
+
+            for (Cliente cliente : clientes) {
+
+                comboClientes.addItem(cliente);
+
+            }
+
+            // Si solo hay una coincidencia se selecciona directamente
+
+            if (clientes.size() == 1 && !texto.trim().isEmpty()) {
+
+                comboClientes.setSelectedIndex(1);
+
+            }
+
+        });
 
     }
 
@@ -294,6 +374,8 @@ public class HistorialUI extends JFrame {
 
         if (clienteSeleccionado == null) {
 
+            cargadorMascotas.cancelar();
+
             comboMascotas.removeAllItems();
 
             return;
@@ -322,17 +404,21 @@ public class HistorialUI extends JFrame {
 
 
 
-        List<Mascota> mascotas = mascotaController.buscarMascotasPorCliente(clienteSeleccionado.getDni());
+        String dni = clienteSeleccionado.getDni();
 
-        comboMascotas.removeAllItems();
+        cargadorMascotas.cargar(() -> mascotaController.buscarMascotasPorCliente(dni), mascotas -> {
 
-        comboMascotas.addItem(null);
+            comboMascotas.removeAllItems();
 
-        for (Mascota mascota : mascotas) {
+            comboMascotas.addItem(null);
 
-            comboMascotas.addItem(mascota);
+            for (Mascota mascota : mascotas) {
 
-        }
+                comboMascotas.addItem(mascota);
+
+            }
+
+        });
 
     }
 
@@ -344,6 +430,8 @@ public class HistorialUI extends JFrame {
 
         if (mascotaSeleccionada == null) {
 
+            cargadorHistorial.cancelar();
+
             limpiarCampos();
 
             return;
@@ -352,7 +440,21 @@ public class HistorialUI extends JFrame {
 
 
 
-        historialActual = historialController.obtenerHistorialPorMascota(mascotaSeleccionada.getId());
+        int idMascota = mascotaSeleccionada.getId();
+
+        // Optional: "sin historial" también es un resultado que hay que mostrar
+
+        cargadorHistorial.cargar(() -> Optional.ofNullable(historialController.obtenerHistorialPorMascota(idMascota)),
+
+                historial -> mostrarHistorial(historial.orElse(null)));
+
+    }
+
+
+
+    private void mostrarHistorial(Historial historial) {
+
+        historialActual = historial;
 
         if (historialActual != null) {
 
@@ -410,15 +512,21 @@ public class HistorialUI extends JFrame {
 
 
 
-        if (historialController.actualizarHistorial(historialActual)) {
+        Historial historial = historialActual;
 
-            JOptionPane.showMessageDialog(this, "Historial actualizado con éxito.");
+        CargadorAsincrono.ejecutar(this, () -> historialController.actualizarHistorial(historial), exito -> {
 
-        } else {
+            if (Boolean.TRUE.equals(exito)) {
 
-            JOptionPane.showMessageDialog(this, "No se pudo actualizar el historial.", "Error", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, "Historial actualizado con éxito.");
 
-        }
+            } else {
+
+                JOptionPane.showMessageDialog(this, "No se pudo actualizar el historial.", "Error", JOptionPane.ERROR_MESSAGE);
+
+            }
+
+        });
 
     }
 
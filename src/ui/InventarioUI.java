@@ -4,9 +4,9 @@ import controladores.ProductoController;
 import controladores.HistorialAccionesController;
 import modelos.Producto;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.util.List;
 
 /**
  * Ventana para la gestión del inventario del Pet Shop.
@@ -16,13 +16,16 @@ public class InventarioUI extends JFrame {
     
     private final ProductoController productoController;
     private JTable tablaProductos;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Producto> modeloTabla;
+    private JTextField txtBuscar;
     private JTextField txtCodigo, txtNombre, txtDescripcion, txtPrecio, txtStock;
     private JButton btnRegistrar, btnGuardar, btnEliminar, btnLimpiar;
     private String codigoSeleccionado;
+    private final CargadorAsincrono cargadorDetalle;
     
     public InventarioUI() {
         this.productoController = new ProductoController();
+        this.cargadorDetalle = new CargadorAsincrono(this);
         
         setTitle("Inventario Pet Shop - Días Vet");
         setSize(850, 600);
@@ -36,11 +39,28 @@ public class InventarioUI extends JFrame {
     private void inicializarComponentes() {
         setLayout(new BorderLayout(10, 10));
 
-        // Tabla de Productos
-        modeloTabla = new DefaultTableModel(new String[]{"Código", "Nombre", "Precio", "Stock"}, 0);
+        // Tabla de Productos: las filas se leen por páginas; orden y filtro se resuelven en SQL
+        modeloTabla = new ModeloTablaPaginado<>(new String[]{"Código", "Nombre", "Precio", "Stock"},
+                new String[]{"codigo", "nombre", "precio", "stock"}, productoController.consultaPaginada(),
+                (p, columna) -> {
+                    switch (columna) {
+                        case 0: return p.getCodigo();
+                        case 1: return p.getNombre();
+                        case 2: return p.getPrecio();
+                        default: return p.getStock();
+                    }
+                });
         tablaProductos = new JTable(modeloTabla);
+        modeloTabla.instalarOrdenEnCabecera(tablaProductos);
         add(new JScrollPane(tablaProductos), BorderLayout.CENTER);
 
+        JPanel panelBusqueda = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        txtBuscar = new JTextField(25);
+        txtBuscar.setToolTipText("Código o nombre del producto");
+        panelBusqueda.add(new JLabel("Buscar:"));
+        panelBusqueda.add(txtBuscar);
+        add(panelBusqueda, BorderLayout.NORTH);
+
         // --- Formulario de Producto (Panel Derecho) ---
         JPanel panelFormulario = new JPanel(new GridBagLayout());
         panelFormulario.setBorder(BorderFactory.createCompoundBorder(
@@ -101,19 +121,22 @@ public class InventarioUI extends JFrame {
         // Evento para cargar datos en el formulario al hacer clic en la tabla
         tablaProductos.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting() && tablaProductos.getSelectedRow() != -1) {
-                int fila = tablaProductos.getSelectedRow();
-                codigoSeleccionado = modeloTabla.getValueAt(fila, 0).toString();
+                Producto filaSeleccionada = modeloTabla.getFila(tablaProductos.getSelectedRow());
+                if (filaSeleccionada == null) {
+                    return; // Su página todavía se está cargando
+                }
+                codigoSeleccionado = filaSeleccionada.getCodigo();
                 
                 // Buscamos el producto completo para obtener todos sus datos (incluida la descripción)
-                Producto p = productoController.buscarProductoPorCodigo(codigoSeleccionado);
-                if (p != null) {
+                String codigo = codigoSeleccionado;
+                cargadorDetalle.cargar(() -> productoController.buscarProductoPorCodigo(codigo), p -> {
                     txtCodigo.setText(p.getCodigo());
                     txtCodigo.setEnabled(false); // El código no se debe editar
                     txtNombre.setText(p.getNombre());
                     txtDescripcion.setText(p.getDescripcion());
                     txtPrecio.setText(String.valueOf(p.getPrecio()));
                     txtStock.setText(String.valueOf(p.getStock()));
-                }
+                });
             }
         });
 
@@ -129,13 +152,15 @@ public class InventarioUI extends JFrame {
                 // Se reemplazó el comentario con la lógica real
                 Producto nuevoProducto = new Producto(codigo, nombre, desc, precio, stock);
 
-                if (productoController.registrarProducto(nuevoProducto)) {
-                    JOptionPane.showMessageDialog(this, "Producto registrado con éxito.");
-                    cargarProductosEnTabla();
-                    limpiarFormulario();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Error: El código del producto ya podría existir.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                CargadorAsincrono.ejecutar(this, () -> productoController.registrarProducto(nuevoProducto), exito -> {
+                    if (Boolean.TRUE.equals(exito)) {
+                        JOptionPane.showMessageDialog(this, "Producto registrado con éxito.");
+                        cargarProductosEnTabla();
+                        limpiarFormulario();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Error: El código del producto ya podría existir.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Por favor, ingrese un número válido para Precio y Stock.", "Error de Formato", JOptionPane.ERROR_MESSAGE);
             }
@@ -155,13 +180,15 @@ public class InventarioUI extends JFrame {
                 
                 Producto productoActualizado = new Producto(codigoSeleccionado, nombre, desc, precio, stock);
 
-                if (productoController.actualizarProducto(productoActualizado)) {
-                    JOptionPane.showMessageDialog(this, "Producto actualizado con éxito.");
-                    cargarProductosEnTabla();
-                    limpiarFormulario();
-                } else {
-                     JOptionPane.showMessageDialog(this, "No se pudo actualizar el producto.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                CargadorAsincrono.ejecutar(this, () -> productoController.actualizarProducto(productoActualizado), exito -> {
+                    if (Boolean.TRUE.equals(exito)) {
+                        JOptionPane.showMessageDialog(this, "Producto actualizado con éxito.");
+                        cargarProductosEnTabla();
+                        limpiarFormulario();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "No se pudo actualizar el producto.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (NumberFormatException ex) {
                  JOptionPane.showMessageDialog(this, "Por favor, ingrese un número válido para Precio y Stock.", "Error de Formato", JOptionPane.ERROR_MESSAGE);
             }
@@ -177,24 +204,32 @@ public class InventarioUI extends JFrame {
             int confirmacion = JOptionPane.showConfirmDialog(this, "¿Está seguro de que desea eliminar este producto?", "Confirmar Eliminación", JOptionPane.YES_NO_OPTION);
             
             if (confirmacion == JOptionPane.YES_OPTION) {
-                if(productoController.eliminarProducto(codigoSeleccionado)) {
-                    JOptionPane.showMessageDialog(this, "Producto eliminado con éxito.");
-                    cargarProductosEnTabla();
-                    limpiarFormulario();
-                } else {
-                    JOptionPane.showMessageDialog(this, "No se pudo eliminar el producto.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                String codigo = codigoSeleccionado;
+                CargadorAsincrono.ejecutar(this, () -> productoController.eliminarProducto(codigo), exito -> {
+                    if (Boolean.TRUE.equals(exito)) {
+                        JOptionPane.showMessageDialog(this, "Producto eliminado con éxito.");
+                        cargarProductosEnTabla();
+                        limpiarFormulario();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "No se pudo eliminar el producto.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
         btnLimpiar.addActionListener(e -> limpiarFormulario());
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { modeloTabla.setFiltro(txtBuscar.getText()); }
+        });
     }
 
     private void cargarProductosEnTabla() {
-        modeloTabla.setRowCount(0); // Limpia la tabla
-        List<Producto> productos = productoController.obtenerTodosLosProductos();
-        for (Producto p : productos) {
-            modeloTabla.addRow(new Object[]{p.getCodigo(), p.getNombre(), p.getPrecio(), p.getStock()});
-        }
+        // Solo se cuentan las filas; cada página se consulta cuando aparece en pantalla
+        modeloTabla.recargar();
     }
     
     private void limpiarFormulario() {
@@ -205,6 +240,7 @@ public class InventarioUI extends JFrame {
         txtPrecio.setText("");
         txtStock.setText("");
         codigoSeleccionado = null;
+        cargadorDetalle.cancelar();
         tablaProductos.clearSelection();
     }
 }
\ No newline at end of file
@@ -1,11 +1,10 @@
 package ui;
 
-import controladores.ClienteController;
 import controladores.UsuarioController;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import modelos.Cliente;
+import modelos.SesionUsuario;
 
 /**
  * Ventana de Login para el acceso al sistema.
@@ -65,43 +64,13 @@ public class LoginUI extends JFrame {
                 return;
             }
 
-            UsuarioController usuarioController = new UsuarioController();
-
-            // 2. Verificar credenciales y obtener el rol
+            // 2. Verificar credenciales y obtener el rol (fuera del EDT)
             // Se pasan las variables 'usuario' y 'clave' al método
-            String rol = usuarioController.verificarLoginYObtenerRol(usuario, clave);
-
-            if (rol != null) { // Si el login es exitoso...
-                JOptionPane.showMessageDialog(this, "¡Bienvenido!", "Acceso Concedido", JOptionPane.INFORMATION_MESSAGE);
-
-                if (rol.equals("admin")) {
-                    // --- CASO ADMINISTRADOR ---
-                    PanelAdminUI panelAdmin = new PanelAdminUI();
-                    panelAdmin.setVisible(true);
-                    this.dispose(); 
-                } else {
-                    // --- CASO CLIENTE ---
-                    // Usamos la variable 'usuario' para buscar el DNI
-                    String dniCliente = usuarioController.obtenerDniPorNickname(usuario); 
-
-                    if (dniCliente != null) {
-                        Cliente clienteLogueado = new ClienteController().buscarClientePorDni(dniCliente);
-
-                        if (clienteLogueado != null) {
-                            PanelClienteUI panelCliente = new PanelClienteUI(clienteLogueado);
-                            panelCliente.setVisible(true);
-                            this.dispose();
-                        } else {
-                            JOptionPane.showMessageDialog(this, "Error crítico: No se encontraron los datos del cliente.", "Error de Datos", JOptionPane.ERROR_MESSAGE);
-                        }
-                    } else {
-                        JOptionPane.showMessageDialog(this, "Error crítico: No se pudo encontrar el DNI para este usuario.", "Error de Datos", JOptionPane.ERROR_MESSAGE);
-                    }
-                }
-            } else {
-                // Si el login falla
-                JOptionPane.showMessageDialog(this, "Usuario o contraseña incorrectos.", "Acceso Denegado", JOptionPane.ERROR_MESSAGE);
-            }
+            btnIngresar.setEnabled(false);
+            CargadorAsincrono.ejecutar(this, () -> new UsuarioController().iniciarSesion(usuario, clave), resultado -> {
+                btnIngresar.setEnabled(true);
+                mostrarResultadoLogin(resultado);
+            });
         });
 
                 // --- ActionListener para REGISTRARSE ---
@@ -113,5 +82,29 @@ public class LoginUI extends JFrame {
 
                 add(panel);
             }
-        }
 
+    private void mostrarResultadoLogin(SesionUsuario resultado) {
+        if (resultado != null) { // Si el login es exitoso...
+            JOptionPane.showMessageDialog(this, "¡Bienvenido!", "Acceso Concedido", JOptionPane.INFORMATION_MESSAGE);
+
+            if (resultado.esAdmin()) {
+                // --- CASO ADMINISTRADOR ---
+                PanelAdminUI panelAdmin = new PanelAdminUI();
+                panelAdmin.setVisible(true);
+                this.dispose(); 
+            } else if (resultado.getDniCliente() == null) {
+                JOptionPane.showMessageDialog(this, "Error crítico: No se pudo encontrar el DNI para este usuario.", "Error de Datos", JOptionPane.ERROR_MESSAGE);
+            } else if (resultado.getCliente() == null) {
+                JOptionPane.showMessageDialog(this, "Error crítico: No se encontraron los datos del cliente.", "Error de Datos", JOptionPane.ERROR_MESSAGE);
+            } else {
+                // --- CASO CLIENTE ---
+                PanelClienteUI panelCliente = new PanelClienteUI(resultado.getCliente());
+                panelCliente.setVisible(true);
+                this.dispose();
+            }
+        } else {
+            // Si el login falla
+            JOptionPane.showMessageDialog(this, "Usuario o contraseña incorrectos.", "Acceso Denegado", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
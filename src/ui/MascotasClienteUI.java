@@ -5,16 +5,14 @@ import modelos.Cliente;
 import modelos.Mascota;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 
 public class MascotasClienteUI extends JFrame {
 
     private Cliente clienteLogueado;
     private MascotaController mascotaController;
     private JTable tablaMascotas;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Mascota> modeloTabla;
 
     public MascotasClienteUI(Cliente cliente) {
         this.clienteLogueado = cliente;
@@ -30,8 +28,20 @@ public class MascotasClienteUI extends JFrame {
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // --- Tabla para mostrar las mascotas ---
-        modeloTabla = new DefaultTableModel(new String[]{"ID", "Nombre", "Especie", "Raza", "Edad"}, 0);
+        modeloTabla = new ModeloTablaPaginado<>(new String[]{"ID", "Nombre", "Especie", "Raza", "Edad"},
+                new String[]{"id", "nombre", "especie", "raza", "edad"},
+                mascotaController.consultaPaginadaPorCliente(cliente.getDni()),
+                (mascota, columna) -> {
+                    switch (columna) {
+                        case 0: return mascota.getId();
+                        case 1: return mascota.getNombre();
+                        case 2: return mascota.getEspecie();
+                        case 3: return mascota.getRaza();
+                        default: return mascota.getEdad() + " años";
+                    }
+                });
         tablaMascotas = new JTable(modeloTabla);
+        modeloTabla.instalarOrdenEnCabecera(tablaMascotas);
         tablaMascotas.setRowHeight(25);
         tablaMascotas.setFont(new Font("Arial", Font.PLAIN, 14));
         tablaMascotas.getColumnModel().getColumn(0).setMaxWidth(50);
@@ -62,16 +72,6 @@ public class MascotasClienteUI extends JFrame {
     }
 
     private void cargarMascotas() {
-        modeloTabla.setRowCount(0); // Limpiar tabla
-        List<Mascota> mascotas = mascotaController.buscarMascotasPorCliente(clienteLogueado.getDni());
-        for (Mascota mascota : mascotas) {
-            modeloTabla.addRow(new Object[]{
-                mascota.getId(),
-                mascota.getNombre(),
-                mascota.getEspecie(),
-                mascota.getRaza(),
-                mascota.getEdad() + " años"
-            });
-        }
+        modeloTabla.recargar();
     }
-}
\ No newline at end of file
+}
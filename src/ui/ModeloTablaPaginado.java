@@ -0,0 +1,272 @@
+package ui;
+
+import controladores.ConsultaPaginada;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Modelo de tabla que lee las filas de SQLite por páginas a medida que se muestran.
+ *
+ * Solo se guardan en memoria unas pocas páginas (las últimas usadas); al desplazarse,
+ * las celdas de una página que aún no llegó se ven vacías un instante y se rellenan
+ * cuando termina su consulta en segundo plano. El orden (clic en la cabecera) y el
+ * filtro de texto se resuelven en la consulta SQL, no en memoria, así que abrir una
+ * tabla con 100k filas cuesta lo mismo que abrir una con 100.
+ *
+ * Debe usarse solo desde el EDT, como cualquier modelo de Swing.
+ *
+ * @param <T> Tipo de las filas.
+ */
+public class ModeloTablaPaginado<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Obtiene el valor de una columna a partir de la fila.
+     * @param <T> Tipo de la fila.
+     */
+    @FunctionalInterface
+    public interface ValorColumna<T> {
+        Object obtener(T fila, int columna);
+    }
+
+    private static final int TAMANO_PAGINA = 200;
+    private static final int MAX_PAGINAS_EN_MEMORIA = 8;
+
+    private final String[] titulos;
+    private final String[] columnasOrden; // Columna SQL de cada columna visible (null si no se puede ordenar)
+    private final ValorColumna<T> valores;
+    private final ConsultaPaginada<T> consulta;
+
+    // Páginas cargadas, de la menos a la más usada recientemente
+    private final LinkedHashMap<Integer, List<T>> paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> mayor) {
+            return size() > MAX_PAGINAS_EN_MEMORIA;
+        }
+    };
+    // Ancla (orden, clave) de la última fila de cada página vista, para pedir la siguiente por keyset
+    private final Map<Integer, Object[]> anclas = new HashMap<>();
+    private final Set<Integer> enCarga = new HashSet<>();
+
+    private int totalFilas;
+    private String filtro = "";
+    private int columnaOrdenVista = -1;
+    private boolean ascendente = true;
+    private long generacion; // Cambia al recargar, filtrar u ordenar: descarta resultados viejos
+
+    /**
+     * @param titulos Títulos de las columnas.
+     * @param columnasOrden Columna SQL asociada a cada columna visible (null si no se puede ordenar por ella).
+     * @param consulta Origen de los datos.
+     * @param valores Extrae el valor de cada celda.
+     */
+    public ModeloTablaPaginado(String[] titulos, String[] columnasOrden, ConsultaPaginada<T> consulta,
+                               ValorColumna<T> valores) {
+        this.titulos = titulos;
+        this.columnasOrden = columnasOrden;
+        this.consulta = consulta;
+        this.valores = valores;
+    }
+
+    @Override
+    public int getRowCount() {
+        return totalFilas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return titulos.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return titulos[columna];
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        T objeto = getFila(fila);
+        return objeto == null ? null : valores.obtener(objeto, columna);
+    }
+
+    /**
+     * Devuelve el objeto de una fila si su página ya está cargada; si no, pide la página.
+     * @param fila Índice de la fila en el modelo.
+     * @return El objeto, o null si todavía no se cargó.
+     */
+    public T getFila(int fila) {
+        int numeroPagina = fila / TAMANO_PAGINA;
+        List<T> pagina = paginas.get(numeroPagina);
+        if (pagina == null) {
+            cargarPagina(numeroPagina);
+            return null;
+        }
+        int posicion = fila % TAMANO_PAGINA;
+        return posicion < pagina.size() ? pagina.get(posicion) : null;
+    }
+
+    /**
+     * Vuelve a contar las filas y descarta las páginas cargadas (p. ej. después de una escritura).
+     */
+    public void recargar() {
+        generacion++;
+        paginas.clear();
+        anclas.clear();
+        enCarga.clear();
+        long generacionPedida = generacion;
+        String filtroPedido = filtro;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return consulta.contar(filtroPedido);
+            }
+
+            @Override
+            protected void done() {
+                Integer total = obtenerResultado(this);
+                if (generacionPedida != generacion || total == null || total < 0) {
+                    return;
+                }
+                totalFilas = total;
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    /**
+     * Filtra las filas cuyo texto empieza (o tiene una palabra que empieza) por el filtro.
+     * @param nuevoFiltro El texto del filtro ("" para ver todo).
+     */
+    public void setFiltro(String nuevoFiltro) {
+        String normalizado = nuevoFiltro == null ? "" : nuevoFiltro.trim();
+        if (!normalizado.equals(filtro)) {
+            filtro = normalizado;
+            recargar();
+        }
+    }
+
+    /**
+     * Ordena por una columna visible; si ya se ordenaba por ella, invierte el sentido.
+     * @param columna Índice de la columna en el modelo.
+     * @return true si la columna admite orden.
+     */
+    public boolean ordenarPor(int columna) {
+        return ordenarPor(columna, columna != columnaOrdenVista || !ascendente);
+    }
+
+    /**
+     * Ordena por una columna visible en el sentido indicado (p. ej. el orden inicial de una pantalla,
+     * que no debe invertirse cada vez que se recarga).
+     * @param columna Índice de la columna en el modelo.
+     * @param ascendente true para orden ascendente.
+     * @return true si la columna admite orden.
+     */
+    public boolean ordenarPor(int columna, boolean ascendente) {
+        if (columna < 0 || columna >= columnasOrden.length || columnasOrden[columna] == null) {
+            return false;
+        }
+        this.ascendente = ascendente;
+        columnaOrdenVista = columna;
+        recargar();
+        return true;
+    }
+
+    /**
+     * Hace que un clic en la cabecera ordene por esa columna, con una flecha que indica el sentido.
+     * @param tabla La tabla que usa este modelo.
+     */
+    public void instalarOrdenEnCabecera(JTable tabla) {
+        JTableHeader cabecera = tabla.getTableHeader();
+        cabecera.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columnaVista = cabecera.columnAtPoint(e.getPoint());
+                if (columnaVista < 0 || !ordenarPor(tabla.convertColumnIndexToModel(columnaVista))) {
+                    return;
+                }
+                for (int i = 0; i < tabla.getColumnCount(); i++) {
+                    int columnaModelo = tabla.convertColumnIndexToModel(i);
+                    String titulo = titulos[columnaModelo];
+                    if (columnaModelo == columnaOrdenVista) {
+                        titulo += ascendente ? " ▲" : " ▼";
+                    }
+                    tabla.getColumnModel().getColumn(i).setHeaderValue(titulo);
+                }
+                cabecera.repaint();
+            }
+        });
+    }
+
+    private void cargarPagina(int numeroPagina) {
+        if (!enCarga.add(numeroPagina)) {
+            return;
+        }
+        // Partir del ancla conocida más cercana; lo ideal es la de la página anterior (salto 0)
+        int paginaAncla = numeroPagina - 1;
+        while (paginaAncla >= 0 && !anclas.containsKey(paginaAncla)) {
+            paginaAncla--;
+        }
+        Object[] ancla = paginaAncla >= 0 ? anclas.get(paginaAncla) : null;
+        int salto = (numeroPagina - paginaAncla - 1) * TAMANO_PAGINA;
+
+        long generacionPedida = generacion;
+        String filtroPedido = filtro;
+        String columnaPedida = columnaOrdenVista >= 0 ? columnasOrden[columnaOrdenVista] : null;
+        boolean ascendentePedido = ascendente;
+        new SwingWorker<ConsultaPaginada.Pagina<T>, Void>() {
+            @Override
+            protected ConsultaPaginada.Pagina<T> doInBackground() {
+                return consulta.obtenerPagina(filtroPedido, columnaPedida, ascendentePedido, ancla, salto, TAMANO_PAGINA);
+            }
+
+            @Override
+            protected void done() {
+                ConsultaPaginada.Pagina<T> pagina = obtenerResultado(this);
+                if (generacionPedida != generacion) {
+                    return;
+                }
+                enCarga.remove(numeroPagina);
+                if (pagina == null) {
+                    return;
+                }
+                paginas.put(numeroPagina, pagina.getFilas());
+                if (pagina.getAnclaFinal() != null) {
+                    anclas.put(numeroPagina, pagina.getAnclaFinal());
+                }
+                int inicio = numeroPagina * TAMANO_PAGINA;
+                int fin = Math.min(inicio + TAMANO_PAGINA, totalFilas) - 1;
+                if (inicio <= fin) {
+                    fireTableRowsUpdated(inicio, fin);
+                }
+            }
+        }.execute();
+    }
+
+    private static <R> R obtenerResultado(SwingWorker<R, ?> tarea) {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error al cargar filas de la tabla: " + e.getCause());
+        }
+        return null;
+    }
+}
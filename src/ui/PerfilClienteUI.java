@@ -6,7 +6,6 @@ import modelos.Cliente;
 import modelos.Mascota;
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 public class PerfilClienteUI extends JFrame {
 
@@ -18,11 +17,13 @@ public class PerfilClienteUI extends JFrame {
     private JTextField txtNombreMascota, txtRazaMascota, txtEdadMascota, txtPesoMascota;
     private JComboBox<String> comboEspecieMascota;
     private JButton btnAccionMascota;
+    private final CargadorAsincrono cargadorMascotas;
     
     public PerfilClienteUI(Cliente cliente) {
         this.clienteLogueado = cliente;
         this.clienteController = new ClienteController();
         this.mascotaController = new MascotaController();
+        this.cargadorMascotas = new CargadorAsincrono(this);
 
         setTitle("Mi Perfil - " + cliente.getNombre());
         setSize(700, 500);
@@ -61,10 +62,12 @@ public class PerfilClienteUI extends JFrame {
             clienteLogueado.setNombre(txtNombre.getText());
             clienteLogueado.setTelefono(txtTelefono.getText());
             clienteLogueado.setDireccion(txtDireccion.getText());
-            if (clienteController.actualizarCliente(clienteLogueado)) {
-                JOptionPane.showMessageDialog(this, "Datos actualizados con éxito.");
-                setTitle("Mi Perfil - " + clienteLogueado.getNombre());
-            }
+            CargadorAsincrono.ejecutar(this, () -> clienteController.actualizarCliente(clienteLogueado), exito -> {
+                if (Boolean.TRUE.equals(exito)) {
+                    JOptionPane.showMessageDialog(this, "Datos actualizados con éxito.");
+                    setTitle("Mi Perfil - " + clienteLogueado.getNombre());
+                }
+            });
         });
         return panel;
     }
@@ -130,13 +133,15 @@ public class PerfilClienteUI extends JFrame {
     }
     
     private void cargarMascotasEnCombo() {
-        comboMascotas.removeAllItems();
-        List<Mascota> mascotas = mascotaController.buscarMascotasPorCliente(clienteLogueado.getDni());
-        for (Mascota mascota : mascotas) {
-            comboMascotas.addItem(mascota);
-        }
-        Mascota opcionAgregar = new Mascota(-1, "-- Agregar Mascota Nueva --", "", "", 0, 0.0, "");
-        comboMascotas.addItem(opcionAgregar);
+        String dni = clienteLogueado.getDni();
+        cargadorMascotas.cargar(() -> mascotaController.buscarMascotasPorCliente(dni), mascotas -> {
+            comboMascotas.removeAllItems();
+            for (Mascota mascota : mascotas) {
+                comboMascotas.addItem(mascota);
+            }
+            Mascota opcionAgregar = new Mascota(-1, "-- Agregar Mascota Nueva --", "", "", 0, 0.0, "");
+            comboMascotas.addItem(opcionAgregar);
+        });
         
         comboMascotas.setRenderer(new DefaultListCellRenderer() {
             @Override
@@ -180,12 +185,14 @@ public class PerfilClienteUI extends JFrame {
                 Double.parseDouble(txtPesoMascota.getText()), 
                 clienteLogueado.getDni());
             
-            if (mascotaController.registrarMascota(nuevaMascota, null, null)) {
-                JOptionPane.showMessageDialog(this, "Mascota registrada con éxito.");
-                cargarMascotasEnCombo();
-            } else {
-                JOptionPane.showMessageDialog(this, "No se pudo registrar la mascota.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            CargadorAsincrono.ejecutar(this, () -> mascotaController.registrarMascota(nuevaMascota, null, null), exito -> {
+                if (Boolean.TRUE.equals(exito)) {
+                    JOptionPane.showMessageDialog(this, "Mascota registrada con éxito.");
+                    cargarMascotasEnCombo();
+                } else {
+                    JOptionPane.showMessageDialog(this, "No se pudo registrar la mascota.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "La edad y el peso deben ser números.", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -201,10 +208,12 @@ public class PerfilClienteUI extends JFrame {
             mascotaSeleccionada.setEdad(Integer.parseInt(txtEdadMascota.getText()));
             mascotaSeleccionada.setPeso(Double.parseDouble(txtPesoMascota.getText()));
             
-            if (mascotaController.actualizarMascota(mascotaSeleccionada)) {
-                JOptionPane.showMessageDialog(this, "Datos de la mascota actualizados.");
-                cargarMascotasEnCombo();
-            }
+            CargadorAsincrono.ejecutar(this, () -> mascotaController.actualizarMascota(mascotaSeleccionada), exito -> {
+                if (Boolean.TRUE.equals(exito)) {
+                    JOptionPane.showMessageDialog(this, "Datos de la mascota actualizados.");
+                    cargarMascotasEnCombo();
+                }
+            });
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "La edad y el peso deben ser números.", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -4,15 +4,13 @@ import controladores.ProductoController;
 import modelos.Producto;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 
 public class PetShopUI extends JFrame {
 
     private ProductoController productoController;
     private JTable tablaProductos;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Producto> modeloTabla;
 
     public PetShopUI() {
         this.productoController = new ProductoController();
@@ -32,13 +30,18 @@ public class PetShopUI extends JFrame {
         panel.add(lblTitulo, BorderLayout.NORTH);
 
         // --- Tabla para mostrar los productos ---
-        modeloTabla = new DefaultTableModel(new String[]{"Producto", "Descripción", "Precio"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Hacemos la tabla de solo lectura
-            }
-        };
+        // Solo productos con stock, leídos por páginas (la tabla es de solo lectura)
+        modeloTabla = new ModeloTablaPaginado<>(new String[]{"Producto", "Descripción", "Precio"},
+                new String[]{"nombre", null, "precio"}, productoController.consultaPaginadaConStock(),
+                (producto, columna) -> {
+                    switch (columna) {
+                        case 0: return producto.getNombre();
+                        case 1: return producto.getDescripcion();
+                        default: return String.format("S/ %.2f", producto.getPrecio()); // Formateamos el precio
+                    }
+                });
         tablaProductos = new JTable(modeloTabla);
+        modeloTabla.instalarOrdenEnCabecera(tablaProductos);
         tablaProductos.setRowHeight(30); // Aumentamos la altura de la fila para mejor legibilidad
         tablaProductos.setFont(new Font("Arial", Font.PLAIN, 16));
         tablaProductos.getTableHeader().setFont(new Font("Arial", Font.BOLD, 16));
@@ -56,18 +59,7 @@ public class PetShopUI extends JFrame {
     }
 
     private void cargarProductos() {
-        modeloTabla.setRowCount(0); // Limpiar la tabla antes de cargar
-        List<Producto> productos = productoController.obtenerTodosLosProductos();
-        
-        for (Producto producto : productos) {
-            // Solo mostramos productos que tengan stock
-            if (producto.getStock() > 0) {
-                modeloTabla.addRow(new Object[]{
-                    producto.getNombre(),
-                    producto.getDescripcion(),
-                    String.format("S/ %.2f", producto.getPrecio()) // Formateamos el precio
-                });
-            }
-        }
+        // Catálogo ordenado por nombre, como antes
+        modeloTabla.ordenarPor(0, true);
     }
 }
\ No newline at end of file
@@ -8,12 +8,13 @@ import modelos.Mascota;
 
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import javax.swing.*;
 import java.awt.*;
 import modelos.Usuario;
+import utilidades.IngestaArchivos;
 
 public class RegistroUI extends JFrame {
 
@@ -46,6 +47,9 @@ public class RegistroUI extends JFrame {
     private String rutaFotoPerfil; // Para la foto de la persona
     private String rutaFotoMascota;
     private String rutaRegistroVacunas;
+    private int copiasPendientes; // Archivos que aún se están copiando en segundo plano
+    // Campo -> número de la última subida pedida; una copia que termina tarde no pisa a una más nueva
+    private final Map<String, Integer> ultimaSubidaPorCampo = new HashMap<>();
 
    
 
@@ -200,23 +204,8 @@ public class RegistroUI extends JFrame {
             chooser.setFileFilter(filter);
 
             if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                File archivo = chooser.getSelectedFile();
-                try {
-                    new File("uploads/profiles").mkdirs();
-                    String nuevoNombre = System.currentTimeMillis() + "_" + archivo.getName();
-                    File destino = new File("uploads/profiles/" + nuevoNombre);
-                    Files.copy(archivo.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                    this.rutaFotoPerfil = destino.getPath();
-
-                    ImageIcon icon = new ImageIcon(destino.getAbsolutePath());
-                    Image image = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-                    lblPreviewFotoPerfil.setIcon(new ImageIcon(image));
-                    lblPreviewFotoPerfil.setText("");
-
-                } catch (IOException ex) {
-                    JOptionPane.showMessageDialog(this, "Error al guardar la foto de perfil.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                subirArchivo("fotoPerfil", chooser.getSelectedFile(), lblPreviewFotoPerfil,
+                        ruta -> this.rutaFotoPerfil = ruta, "Error al guardar la foto de perfil.");
             }
         });
 
@@ -325,24 +314,8 @@ public class RegistroUI extends JFrame {
             chooser.setFileFilter(filter);
 
             if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                File archivo = chooser.getSelectedFile();
-                try {
-                    new File("uploads/pets").mkdirs();
-                    String nuevoNombre = System.currentTimeMillis() + "_" + archivo.getName();
-                    File destino = new File("uploads/pets/" + nuevoNombre);
-                    Files.copy(archivo.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                    this.rutaFotoMascota = destino.getPath();
-                    ImageIcon icon = new ImageIcon(destino.getAbsolutePath());
-                    Image image = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-
-                    lblPreviewFotoMascota.setIcon(new ImageIcon(image));
-                    lblPreviewFotoMascota.setText("");
-
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, "Error al guardar la imagen.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                subirArchivo("fotoMascota", chooser.getSelectedFile(), lblPreviewFotoMascota,
+                        ruta -> this.rutaFotoMascota = ruta, "Error al guardar la imagen.");
             }
         });
 
@@ -353,24 +326,45 @@ public class RegistroUI extends JFrame {
 
             if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
                 File archivo = chooser.getSelectedFile();
-                try {
-                    new File("uploads/records").mkdirs();
-                    String nuevoNombre = System.currentTimeMillis() + "_" + archivo.getName();
-                    File destino = new File("uploads/records/" + nuevoNombre);
-                    Files.copy(archivo.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                    this.rutaRegistroVacunas = destino.getPath();
+                subirArchivo("registroVacunas", archivo, null, ruta -> {
+                    this.rutaRegistroVacunas = ruta;
                     lblArchivoVacunas.setText(archivo.getName());
-
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, "Error al guardar el archivo.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                }, "Error al guardar el archivo.");
             }
         });
 
         return panel;
     }
+
+    // Guarda el archivo en segundo plano; al terminar, asigna la ruta y muestra la miniatura (si hay vista previa).
+    // Si mientras tanto se eligió otro archivo para el mismo campo, el resultado se ignora
+    private void subirArchivo(String campo, File archivo, JLabel vistaPrevia, Consumer<String> asignarRuta,
+                              String mensajeError) {
+        int numeroSubida = ultimaSubidaPorCampo.merge(campo, 1, Integer::sum);
+        copiasPendientes++;
+        if (vistaPrevia != null) {
+            vistaPrevia.setIcon(null);
+            vistaPrevia.setText("Cargando...");
+        }
+        IngestaArchivos.ingresar(archivo.toPath()).whenComplete((ingreso, error) -> SwingUtilities.invokeLater(() -> {
+            copiasPendientes--;
+            if (ultimaSubidaPorCampo.get(campo) != numeroSubida) {
+                return; // Se eligió otro archivo para este campo
+            }
+            if (error != null) {
+                if (vistaPrevia != null) {
+                    vistaPrevia.setText("Vista Previa");
+                }
+                JOptionPane.showMessageDialog(this, mensajeError, "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            asignarRuta.accept(ingreso.getRuta());
+            if (vistaPrevia != null) {
+                vistaPrevia.setIcon(ingreso.getMiniatura());
+                vistaPrevia.setText(ingreso.getMiniatura() != null ? "" : "Sin vista previa");
+            }
+        }));
+    }
     
     //Configura la lógica de los botones para navegar entre los paneles del CardLayout.
     private void configurarNavegacion() {
@@ -381,6 +375,10 @@ public class RegistroUI extends JFrame {
         btnFinalizar.addActionListener (e -> {
 
             // --- 1. Validación de Datos ---
+            if (copiasPendientes > 0) {
+                JOptionPane.showMessageDialog(this, "Espere a que terminen de guardarse los archivos seleccionados.", "Archivos en proceso", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
             // Validar contraseñas
             if (txtPassword.getPassword().length == 0 || txtConfirmPassword.getPassword().length == 0) {
                 JOptionPane.showMessageDialog(this, "Debe ingresar y confirmar la contraseña.", "Error de Validación", JOptionPane.ERROR_MESSAGE);
@@ -427,46 +425,63 @@ public class RegistroUI extends JFrame {
             Cliente nuevoCliente = new Cliente(dni, nombres + " " + apellidos, telefono, direccion);
             Mascota nuevaMascota = new Mascota(0, nombreMascota, especie, raza, edadMascota, pesoMascota, dni);
 
-            // --- 4. Interacción con Controladores ---
-            boolean exito = false;
-            // Paso A: Intentar registrar al cliente
-            if (clienteController.registrarCliente(nuevoCliente)) {
-                // Éxito A: Cliente registrado. Ahora intentamos con el usuario.
-                // Paso B: Intentar registrar al usuario
-                Usuario nuevoUsuario = new Usuario(nickname, password, dni, "cliente", this.rutaFotoPerfil);
-                if (usuarioController.registrarUsuario(nuevoUsuario)) {
-                    // Éxito B: Usuario registrado. Ahora intentamos con la mascota.
-                    // Paso C: Intentar registrar la mascota
-                    // (Asegúrate de que tu método registrarMascota acepte los 3 parámetros)
-                    if (mascotaController.registrarMascota(nuevaMascota, rutaFotoMascota, rutaRegistroVacunas)) {
-                        // Éxito C: Mascota registrada. ¡Todo el proceso fue exitoso!
-                        exito = true;
-                    } else {
-                        // Fallo C: No se pudo registrar la mascota.
-                        // DESHACEMOS los pasos A y B.
-                        System.err.println("Fallo al registrar mascota. Deshaciendo registro de usuario y cliente.");
-                        usuarioController.eliminarUsuario(nickname);
-                        clienteController.eliminarCliente(dni);
-                    }
+            // --- 4. Interacción con Controladores (fuera del EDT) ---
+            // Las rutas se copian aquí para no leer campos de la ventana desde otro hilo
+            String fotoPerfil = this.rutaFotoPerfil;
+            String fotoMascota = this.rutaFotoMascota;
+            String registroVacunas = this.rutaRegistroVacunas;
+            btnFinalizar.setEnabled(false);
+            CargadorAsincrono.ejecutar(this,
+                    () -> registrarTodo(nuevoCliente, nuevaMascota, nickname, password, fotoPerfil, fotoMascota, registroVacunas),
+                    exito -> {
+                btnFinalizar.setEnabled(true);
+
+                // --- 5. Feedback Final ---
+                if (Boolean.TRUE.equals(exito)) {
+                    JOptionPane.showMessageDialog(this, "¡Registro completado exitosamente! Ahora puede iniciar sesión.", "Registro Exitoso", JOptionPane.INFORMATION_MESSAGE);
+                    this.dispose(); // Cierra la ventana de registro
                 } else {
-                    // Fallo B: No se pudo registrar el usuario.
-                    // DESHACEMOS el paso A.
-                    System.err.println("Fallo al registrar usuario. Deshaciendo registro de cliente.");
-                    clienteController.eliminarCliente(dni);
+                    JOptionPane.showMessageDialog(this, "Ocurrió un error durante el registro. Es posible que el DNI o Nickname ya existan.", "Error de Registro", JOptionPane.ERROR_MESSAGE);
                 }
-            } else {
-                // Fallo A: No se pudo registrar al cliente. El proceso se detiene.
-                System.err.println("Fallo inicial al registrar el cliente.");
-            }
-
-            // --- 5. Feedback Final ---
+            });
+        });        
+    }
 
-            if (exito) {
-                JOptionPane.showMessageDialog(this, "¡Registro completado exitosamente! Ahora puede iniciar sesión.", "Registro Exitoso", JOptionPane.INFORMATION_MESSAGE);
-                this.dispose(); // Cierra la ventana de registro
+    // Registra cliente, usuario y mascota, deshaciendo los pasos previos si alguno falla.
+    // Se ejecuta fuera del EDT.
+    private boolean registrarTodo(Cliente nuevoCliente, Mascota nuevaMascota, String nickname, String password,
+                                  String fotoPerfil, String fotoMascota, String registroVacunas) {
+        String dni = nuevoCliente.getDni();
+        boolean exito = false;
+        // Paso A: Intentar registrar al cliente
+        if (clienteController.registrarCliente(nuevoCliente)) {
+            // Éxito A: Cliente registrado. Ahora intentamos con el usuario.
+            // Paso B: Intentar registrar al usuario
+            Usuario nuevoUsuario = new Usuario(nickname, password, dni, "cliente", fotoPerfil);
+            if (usuarioController.registrarUsuario(nuevoUsuario)) {
+                // Éxito B: Usuario registrado. Ahora intentamos con la mascota.
+                // Paso C: Intentar registrar la mascota
+                // (Asegúrate de que tu método registrarMascota acepte los 3 parámetros)
+                if (mascotaController.registrarMascota(nuevaMascota, fotoMascota, registroVacunas)) {
+                    // Éxito C: Mascota registrada. ¡Todo el proceso fue exitoso!
+                    exito = true;
+                } else {
+                    // Fallo C: No se pudo registrar la mascota.
+                    // DESHACEMOS los pasos A y B.
+                    System.err.println("Fallo al registrar mascota. Deshaciendo registro de usuario y cliente.");
+                    usuarioController.eliminarUsuario(nickname);
+                    clienteController.eliminarCliente(dni);
+                }
             } else {
-                JOptionPane.showMessageDialog(this, "Ocurrió un error durante el registro. Es posible que el DNI o Nickname ya existan.", "Error de Registro", JOptionPane.ERROR_MESSAGE);
+                // Fallo B: No se pudo registrar el usuario.
+                // DESHACEMOS el paso A.
+                System.err.println("Fallo al registrar usuario. Deshaciendo registro de cliente.");
+                clienteController.eliminarCliente(dni);
             }
-        });        
+        } else {
+            // Fallo A: No se pudo registrar al cliente. El proceso se detiene.
+            System.err.println("Fallo inicial al registrar el cliente.");
+        }
+        return exito;
     }
-}
\ No newline at end of file
+}
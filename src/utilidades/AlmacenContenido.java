@@ -0,0 +1,144 @@
+package utilidades;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de archivos direccionado por contenido para los uploads.
+ *
+ * Cada archivo se guarda con el nombre de su SHA-256 (más la extensión original) en
+ * subcarpetas según los primeros caracteres del hash, p. ej.
+ * uploads/blobs/3f/a2/3fa2...e1.jpg. Subir dos veces el mismo archivo devuelve la misma
+ * ruta y ocupa espacio una sola vez. El hash se calcula mientras se copia, sin volver a
+ * leer el archivo.
+ *
+ * Quién usa cada archivo lo cuenta la tabla "archivos" (ver ArchivoController), y los que
+ * quedan sin referencias se borran con ArchivoController.recolectarHuerfanos.
+ */
+public final class AlmacenContenido {
+
+    /** Carpeta raíz del almacén; las rutas guardadas en la base de datos empiezan por ella. */
+    public static final String RAIZ = "uploads/blobs";
+
+    private static final String CARPETA_TEMPORAL = "tmp";
+    private static final Pattern NOMBRE_ARCHIVO = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private AlmacenContenido() {
+    }
+
+    /**
+     * Copia un archivo al almacén, o reutiliza la copia existente si ya hay uno con el mismo contenido.
+     * @param origen Archivo a guardar.
+     * @return Ruta del archivo en el almacén, con "/" como separador (la que se guarda en la base de datos).
+     * @throws IOException Si no se pudo leer el origen o escribir en el almacén.
+     */
+    public static String guardar(Path origen) throws IOException {
+        Path carpetaTemporal = Paths.get(RAIZ, CARPETA_TEMPORAL);
+        Files.createDirectories(carpetaTemporal);
+        Path temporal = Files.createTempFile(carpetaTemporal, "subida-", ".tmp");
+        try {
+            MessageDigest sha256 = nuevoSha256();
+            try (InputStream entrada = new DigestInputStream(Files.newInputStream(origen), sha256)) {
+                Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = aHex(sha256.digest());
+            String ruta = RAIZ + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension(origen);
+            Path destino = Paths.get(ruta);
+            if (Files.exists(destino)) {
+                // Ya estaba: se renueva la fecha para que el recolector no lo tome por huérfano reciente
+                Files.setLastModifiedTime(destino, FileTime.fromMillis(System.currentTimeMillis()));
+                return ruta;
+            }
+            Files.createDirectories(destino.getParent());
+            mover(temporal, destino);
+            return ruta;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * @param ruta Ruta guardada en la base de datos.
+     * @return true si la ruta apunta a un archivo del almacén (no a un upload antiguo)
+     */
+    public static boolean esRutaDelAlmacen(String ruta) {
+        return ruta != null && ruta.startsWith(RAIZ + "/");
+    }
+
+    /**
+     * Lista los archivos del almacén (sin temporales ni miniaturas).
+     * @return Las rutas, con el mismo formato que devuelve {@link #guardar}.
+     * @throws IOException Si no se pudo recorrer la carpeta.
+     */
+    public static List<String> listar() throws IOException {
+        List<String> rutas = new ArrayList<>();
+        Path raiz = Paths.get(RAIZ);
+        if (!Files.isDirectory(raiz)) {
+            return rutas;
+        }
+        // Solo los dos niveles de subcarpetas: las miniaturas y los temporales quedan fuera
+        try (Stream<Path> archivos = Files.find(raiz, 3, (ruta, atributos) -> atributos.isRegularFile()
+                && raiz.relativize(ruta).getNameCount() == 3
+                && NOMBRE_ARCHIVO.matcher(ruta.getFileName().toString()).matches())) {
+            archivos.forEach(ruta -> rutas.add(RAIZ + "/" + raiz.relativize(ruta).toString().replace('\\', '/')));
+        }
+        return rutas;
+    }
+
+    private static void mover(Path temporal, Path destino) throws IOException {
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temporal, destino);
+            } catch (FileAlreadyExistsException otraCopia) {
+                // Otro hilo guardó el mismo contenido al mismo tiempo: la copia es idéntica
+            }
+        } catch (FileAlreadyExistsException otraCopia) {
+            // Idem
+        }
+    }
+
+    private static String extension(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        if (punto <= 0 || punto == nombre.length() - 1) {
+            return "";
+        }
+        String extension = nombre.substring(punto).toLowerCase(Locale.ROOT);
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+    }
+
+    private static MessageDigest nuevoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e); // Todas las JVM lo incluyen
+        }
+    }
+
+    private static String aHex(byte[] bytes) {
+        char[] texto = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            texto[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            texto[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(texto);
+    }
+}
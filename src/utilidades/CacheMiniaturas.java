@@ -0,0 +1,210 @@
+package utilidades;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Miniaturas de las imágenes subidas (fotos de perfil, de mascotas y registros de vacunas).
+ *
+ * Cada miniatura se genera una sola vez y se guarda como PNG en la carpeta "miniaturas"
+ * junto a la imagen original; además, las últimas usadas se mantienen en memoria, así que
+ * mostrar una vista previa ya generada no vuelve a leer el disco.
+ *
+ * Para generar la miniatura la imagen se lee con submuestreo (ImageIO solo decodifica una
+ * de cada N filas y columnas), en lugar de decodificar la foto completa y escalarla después.
+ */
+public final class CacheMiniaturas {
+
+    /** Lado en píxeles de las miniaturas (son cuadradas). */
+    public static final int LADO = 100;
+
+    private static final String CARPETA_MINIATURAS = "miniaturas";
+    private static final int MAX_EN_MEMORIA = 200; // ~40 KB cada una
+
+    // Ruta absoluta de la imagen original -> miniatura, de la menos a la más usada
+    private static final Map<String, ImageIcon> EN_MEMORIA = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> mayor) {
+            return size() > MAX_EN_MEMORIA;
+        }
+    };
+
+    private CacheMiniaturas() {
+    }
+
+    /**
+     * Devuelve la miniatura solo si ya está en memoria; no accede al disco, así que puede llamarse desde el EDT.
+     * @param ruta Ruta de la imagen original.
+     * @return La miniatura, o null si no está en memoria.
+     */
+    public static ImageIcon obtenerEnMemoria(String ruta) {
+        if (ruta == null) {
+            return null;
+        }
+        synchronized (EN_MEMORIA) {
+            return EN_MEMORIA.get(clave(Paths.get(ruta)));
+        }
+    }
+
+    /**
+     * Devuelve la miniatura de una imagen: de memoria, de su PNG guardado o generándola.
+     * Puede leer y escribir en disco, por lo que no debe llamarse desde el EDT.
+     * @param ruta Ruta de la imagen original.
+     * @return La miniatura, o null si el archivo no existe o no es una imagen legible.
+     */
+    public static ImageIcon obtener(String ruta) {
+        if (ruta == null) {
+            return null;
+        }
+        Path original = Paths.get(ruta);
+        ImageIcon icono = obtenerEnMemoria(ruta);
+        if (icono != null) {
+            return icono;
+        }
+        BufferedImage miniatura = leerGuardada(original);
+        if (miniatura == null) {
+            miniatura = generar(original);
+        }
+        if (miniatura == null) {
+            return null;
+        }
+        icono = new ImageIcon(miniatura);
+        synchronized (EN_MEMORIA) {
+            EN_MEMORIA.put(clave(original), icono);
+        }
+        return icono;
+    }
+
+    /**
+     * Olvida la miniatura de una imagen (en memoria y en disco), p. ej. al eliminar la original.
+     * @param ruta Ruta de la imagen original.
+     */
+    public static void invalidar(String ruta) {
+        if (ruta == null) {
+            return;
+        }
+        Path original = Paths.get(ruta);
+        synchronized (EN_MEMORIA) {
+            EN_MEMORIA.remove(clave(original));
+        }
+        try {
+            Files.deleteIfExists(rutaMiniatura(original));
+        } catch (IOException e) {
+            System.err.println("No se pudo eliminar la miniatura de " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    // Miniatura guardada, si existe y no es más antigua que la original
+    private static BufferedImage leerGuardada(Path original) {
+        File archivo = rutaMiniatura(original).toFile();
+        if (!archivo.isFile()) {
+            return null;
+        }
+        // En el almacén el contenido nunca cambia (el nombre es su hash); solo cambia la fecha al volver a subirlo
+        boolean inmutable = AlmacenContenido.esRutaDelAlmacen(original.toString().replace('\\', '/'));
+        if (!inmutable && archivo.lastModified() < original.toFile().lastModified()) {
+            return null;
+        }
+        try {
+            return ImageIO.read(archivo);
+        } catch (IOException e) {
+            System.err.println("Miniatura ilegible, se regenerará: " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static BufferedImage generar(Path original) {
+        if (!Files.isRegularFile(original)) {
+            return null;
+        }
+        BufferedImage reducida;
+        try {
+            reducida = leerSubmuestreada(original.toFile(), LADO);
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la imagen " + original + ": " + e.getMessage());
+            return null;
+        }
+        if (reducida == null) {
+            return null; // No es una imagen (p. ej. un PDF)
+        }
+        BufferedImage miniatura = ajustarACuadrado(reducida, LADO);
+        Path destino = rutaMiniatura(original);
+        try {
+            Files.createDirectories(destino.getParent());
+            ImageIO.write(miniatura, "png", destino.toFile());
+        } catch (IOException e) {
+            // Sin la copia en disco la miniatura sigue sirviendo; solo se regenerará la próxima vez
+            System.err.println("No se pudo guardar la miniatura de " + original + ": " + e.getMessage());
+        }
+        return miniatura;
+    }
+
+    /**
+     * Lee una imagen decodificando solo las filas y columnas necesarias para que su lado
+     * menor quede en al menos el doble del lado pedido (el resto del escalado se hace con
+     * interpolación, que con ese margen conserva la nitidez).
+     */
+    private static BufferedImage leerSubmuestreada(File archivo, int lado) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(archivo)) {
+            if (entrada == null) {
+                return null;
+            }
+            Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+            if (!lectores.hasNext()) {
+                return null;
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                int ancho = lector.getWidth(0);
+                int alto = lector.getHeight(0);
+                int paso = Math.max(1, Math.min(ancho, alto) / (lado * 2));
+                ImageReadParam parametros = lector.getDefaultReadParam();
+                parametros.setSourceSubsampling(paso, paso, 0, 0);
+                return lector.read(0, parametros);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    // Escala la imagen para que quepa en un cuadrado de lado x lado, centrada y sin deformarla
+    private static BufferedImage ajustarACuadrado(BufferedImage imagen, int lado) {
+        double escala = Math.min((double) lado / imagen.getWidth(), (double) lado / imagen.getHeight());
+        int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * escala));
+        int alto = Math.max(1, (int) Math.round(imagen.getHeight() * escala));
+        BufferedImage miniatura = new BufferedImage(lado, lado, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = miniatura.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(imagen, (lado - ancho) / 2, (lado - alto) / 2, ancho, alto, null);
+        } finally {
+            g2.dispose();
+        }
+        return miniatura;
+    }
+
+    private static Path rutaMiniatura(Path original) {
+        Path carpeta = original.toAbsolutePath().getParent();
+        return carpeta.resolve(CARPETA_MINIATURAS).resolve(original.getFileName() + ".png");
+    }
+
+    private static String clave(Path original) {
+        return original.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,133 @@
+package utilidades;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Cálculo y verificación de los hashes de contraseña guardados en usuarios.password_hash.
+ *
+ * Los hashes nuevos usan PBKDF2-HMAC-SHA256 con sal aleatoria y se guardan como
+ * "pbkdf2$iteraciones$sal$hash" (sal y hash en Base64), así el costo puede subirse más
+ * adelante sin invalidar las contraseñas ya guardadas. Los hashes antiguos (SHA-256 sin
+ * sal, en Base64) se siguen aceptando para que UsuarioController pueda migrarlos al
+ * siguiente login correcto.
+ *
+ * Las comparaciones se hacen en tiempo constante (MessageDigest.isEqual).
+ */
+public final class Contrasenas {
+
+    /**
+     * Iteraciones de PBKDF2 para los hashes nuevos. Se puede ajustar con la propiedad
+     * del sistema "diasvet.login.iteraciones" según la potencia del equipo.
+     */
+    public static final int ITERACIONES = Integer.getInteger("diasvet.login.iteraciones", 120_000);
+
+    private static final String PREFIJO = "pbkdf2";
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    // MessageDigest no es seguro entre hilos; uno por hilo evita crearlo en cada login
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e); // Todas las JVM lo incluyen
+        }
+    });
+
+    // Hash que se verifica cuando el usuario no existe, para que tarde lo mismo que uno real
+    private static final String HASH_FICTICIO = generarHash("contraseña-ficticia");
+
+    private Contrasenas() {
+    }
+
+    /**
+     * Calcula el hash de una contraseña nueva.
+     * @param clave La contraseña en texto plano.
+     * @return El hash en formato "pbkdf2$iteraciones$sal$hash".
+     */
+    public static String generarHash(String clave) {
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        byte[] hash = pbkdf2(clave, sal, ITERACIONES);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return PREFIJO + "$" + ITERACIONES + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * Verifica una contraseña contra un hash guardado (PBKDF2 o SHA-256 antiguo).
+     * @param clave La contraseña ingresada.
+     * @param hashGuardado El hash de la base de datos (null si el usuario no existe).
+     * @return true si la contraseña es correcta.
+     */
+    public static boolean verificar(String clave, String hashGuardado) {
+        if (hashGuardado == null) {
+            verificar(clave, HASH_FICTICIO); // Mismo costo que un usuario real; el resultado no importa
+            return false;
+        }
+        if (!hashGuardado.startsWith(PREFIJO + "$")) {
+            return MessageDigest.isEqual(sha256(clave).getBytes(StandardCharsets.US_ASCII),
+                    hashGuardado.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] partes = hashGuardado.split("\\$");
+        if (partes.length != 4) {
+            System.err.println("Hash de contraseña con formato inválido");
+            return false;
+        }
+        try {
+            int iteraciones = Integer.parseInt(partes[1]);
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            return MessageDigest.isEqual(pbkdf2(clave, sal, iteraciones), esperado);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Hash de contraseña con formato inválido: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param hashGuardado Un hash de la base de datos.
+     * @return true si es del formato antiguo o usa menos iteraciones que las actuales
+     */
+    public static boolean necesitaActualizar(String hashGuardado) {
+        if (hashGuardado == null || !hashGuardado.startsWith(PREFIJO + "$")) {
+            return true;
+        }
+        String[] partes = hashGuardado.split("\\$");
+        try {
+            return partes.length != 4 || Integer.parseInt(partes[1]) < ITERACIONES;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * SHA-256 en Base64 con el digest del hilo actual (formato de los hashes antiguos).
+     * @param texto El texto a resumir.
+     * @return El resumen en Base64.
+     */
+    public static String sha256(String texto) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] pbkdf2(String clave, byte[] sal, int iteraciones) {
+        PBEKeySpec especificacion = new PBEKeySpec(clave.toCharArray(), sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la contraseña", e);
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package utilidades;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de archivos CSV fila por fila (RFC 4180).
+ * Los campos con separador, comillas o saltos de línea se escriben entre comillas.
+ */
+public class EscritorCsv implements Closeable, Flushable {
+
+    private final BufferedWriter escritor;
+    private final char separador;
+
+    /**
+     * @param escritor Destino de los datos.
+     */
+    public EscritorCsv(Writer escritor) {
+        this(escritor, ',');
+    }
+
+    /**
+     * @param escritor Destino de los datos.
+     * @param separador Carácter separador de campos.
+     */
+    public EscritorCsv(Writer escritor, char separador) {
+        this.escritor = escritor instanceof BufferedWriter ? (BufferedWriter) escritor : new BufferedWriter(escritor, 64 * 1024);
+        this.separador = separador;
+    }
+
+    /**
+     * Escribe una fila. Los valores null se escriben como campos vacíos.
+     * @param campos Los campos de la fila.
+     * @throws IOException Si falla la escritura.
+     */
+    public void escribirFila(Object... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(separador);
+            }
+            if (campos[i] != null) {
+                escribirCampo(campos[i].toString());
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    private void escribirCampo(String valor) throws IOException {
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == separador || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        escritor.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        escritor.close();
+    }
+}
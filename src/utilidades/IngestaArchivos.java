@@ -0,0 +1,80 @@
+package utilidades;
+
+import javax.swing.ImageIcon;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Guarda los archivos que sube el usuario en el almacén de uploads (AlmacenContenido) y
+ * prepara su miniatura, todo en hilos de fondo para que la ventana no se congele con fotos grandes.
+ *
+ * Las copias usan un pool propio y pequeño: así varias subidas seguidas no compiten con
+ * las consultas que las pantallas hacen mediante SwingWorker.
+ */
+public final class IngestaArchivos {
+
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+    private static final ExecutorService EJECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread hilo = new Thread(r, "ingesta-archivos-" + CONTADOR_HILOS.incrementAndGet());
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Un archivo ya guardado en el almacén.
+     */
+    public static class ArchivoIngresado {
+        private final String ruta;
+        private final ImageIcon miniatura;
+
+        ArchivoIngresado(String ruta, ImageIcon miniatura) {
+            this.ruta = ruta;
+            this.miniatura = miniatura;
+        }
+
+        /**
+         * @return Ruta del archivo en el almacén, tal como se guarda en la base de datos
+         */
+        public String getRuta() {
+            return ruta;
+        }
+
+        /**
+         * @return Miniatura de LADO x LADO, o null si el archivo no es una imagen
+         */
+        public ImageIcon getMiniatura() {
+            return miniatura;
+        }
+    }
+
+    private IngestaArchivos() {
+    }
+
+    /**
+     * Guarda un archivo en el almacén (o reutiliza la copia si ya se subió antes) y, si es
+     * una imagen, genera su miniatura. Vuelve de inmediato; el trabajo se hace en segundo plano.
+     * @param origen Archivo elegido por el usuario.
+     * @return Tarea que se completa con el archivo ingresado, o de forma excepcional si la copia falla.
+     *         Sus callbacks se ejecutan en el hilo de fondo: para tocar la UI usar SwingUtilities.invokeLater.
+     */
+    public static CompletableFuture<ArchivoIngresado> ingresar(Path origen) {
+        return CompletableFuture.supplyAsync(() -> {
+            String ruta = guardar(origen);
+            return new ArchivoIngresado(ruta, CacheMiniaturas.obtener(ruta));
+        }, EJECUTOR);
+    }
+
+    private static String guardar(Path origen) {
+        try {
+            return AlmacenContenido.guardar(origen);
+        } catch (IOException e) {
+            System.err.println("Error al guardar " + origen + " en el almacén de archivos: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package utilidades;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de archivos CSV fila por fila (RFC 4180).
+ * Solo mantiene en memoria la fila actual, por lo que sirve para archivos de
+ * millones de filas. Admite campos entre comillas con comas, comillas dobles ("")
+ * y saltos de línea dentro del campo.
+ */
+public class LectorCsv implements Closeable {
+
+    private final BufferedReader lector;
+    private final char separador;
+    private final StringBuilder campo = new StringBuilder();
+    private long lineaActual;
+    private long lineaInicioFila;
+
+    /**
+     * @param lector Origen de los datos.
+     */
+    public LectorCsv(Reader lector) {
+        this(lector, ',');
+    }
+
+    /**
+     * @param lector Origen de los datos.
+     * @param separador Carácter separador de campos.
+     */
+    public LectorCsv(Reader lector, char separador) {
+        this.lector = lector instanceof BufferedReader ? (BufferedReader) lector : new BufferedReader(lector, 64 * 1024);
+        this.separador = separador;
+    }
+
+    /**
+     * Lee la siguiente fila.
+     * @return Los campos de la fila, o null al llegar al final del archivo.
+     * @throws IOException Si falla la lectura o hay comillas sin cerrar.
+     */
+    public String[] leerFila() throws IOException {
+        int c = lector.read();
+        if (c == -1) {
+            return null;
+        }
+        lineaActual++;
+        lineaInicioFila = lineaActual;
+        if (c == '\uFEFF') { // BOM de UTF-8 al inicio del archivo
+            c = lector.read();
+        }
+
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        while (true) {
+            if (c == -1) {
+                if (entreComillas) {
+                    throw new IOException("Comillas sin cerrar en la fila que empieza en la línea " + lineaInicioFila);
+                }
+                campos.add(campo.toString());
+                break;
+            }
+            if (entreComillas) {
+                if (c == '"') {
+                    int siguiente = leerSinConsumir();
+                    if (siguiente == '"') {
+                        lector.read();
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineaActual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && leerSinConsumir() == '\n') {
+                    lector.read();
+                }
+                campos.add(campo.toString());
+                break;
+            } else {
+                campo.append((char) c);
+            }
+            c = lector.read();
+        }
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * @return Número de línea del archivo donde empieza la última fila leída (desde 1)
+     */
+    public long getLineaFila() {
+        return lineaInicioFila;
+    }
+
+    private int leerSinConsumir() throws IOException {
+        lector.mark(1);
+        int c = lector.read();
+        lector.reset();
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}